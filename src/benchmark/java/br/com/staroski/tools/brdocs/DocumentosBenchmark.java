@@ -0,0 +1,108 @@
+package br.com.staroski.tools.brdocs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark da valida&ccedil;&atilde;o e da gera&ccedil;&atilde;o de CPF e CNPJ da classe {@link Documentos}.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentosBenchmark {
+
+    private static final int QUANTIDADE = 1024;
+
+    /**
+     * Propor&ccedil;&atilde;o dos documentos v&aacute;lidos entre os documentos validados.
+     */
+    @Param({ "0.0", "0.5", "1.0" })
+    public double proporcaoValidos;
+
+    private String[] cpfs;
+    private String[] cnpjs;
+    private byte[][] cpfsAscii;
+    private byte[][] cnpjsAscii;
+    private int posicao;
+
+    @Setup
+    public void setup() {
+        cpfs = new String[QUANTIDADE];
+        cnpjs = new String[QUANTIDADE];
+        int validos = (int) (proporcaoValidos * QUANTIDADE);
+        for (int indice = 0; indice < QUANTIDADE; indice++) {
+            cpfs[indice] = indice < validos ? Documentos.cpfAleatorio() : invalido(Documentos.cpfAleatorio());
+            cnpjs[indice] = indice < validos ? Documentos.cnpjAleatorio() : invalido(Documentos.cnpjAleatorio());
+        }
+        cpfsAscii = ascii(cpfs);
+        cnpjsAscii = ascii(cnpjs);
+    }
+
+    @Benchmark
+    public String cnpjAleatorio() {
+        return Documentos.cnpjAleatorio();
+    }
+
+    @Benchmark
+    public boolean cnpjValido() {
+        return Documentos.cnpjValido(cnpjs[proximo()]);
+    }
+
+    @Benchmark
+    public boolean cnpjValidoAscii() {
+        byte[] cnpj = cnpjsAscii[proximo()];
+        return Documentos.cnpjValido(cnpj, 0, cnpj.length);
+    }
+
+    @Benchmark
+    public String cpfAleatorio() {
+        return Documentos.cpfAleatorio();
+    }
+
+    @Benchmark
+    public boolean cpfValido() {
+        return Documentos.cpfValido(cpfs[proximo()]);
+    }
+
+    @Benchmark
+    public boolean cpfValidoAscii() {
+        byte[] cpf = cpfsAscii[proximo()];
+        return Documentos.cpfValido(cpf, 0, cpf.length);
+    }
+
+    private static byte[][] ascii(String[] documentos) {
+        byte[][] bytes = new byte[documentos.length][];
+        for (int indice = 0; indice < documentos.length; indice++) {
+            bytes[indice] = documentos[indice].getBytes(StandardCharsets.US_ASCII);
+        }
+        return bytes;
+    }
+
+    // altera o &uacute;ltimo d&iacute;gito verificador, tornando o documento inv&aacute;lido
+    private static String invalido(String documento) {
+        int ultimo = documento.length() - 1;
+        char digito = (char) ('0' + (documento.charAt(ultimo) - '0' + 1) % 10);
+        return documento.substring(0, ultimo) + digito;
+    }
+
+    private int proximo() {
+        return posicao++ & (QUANTIDADE - 1);
+    }
+}
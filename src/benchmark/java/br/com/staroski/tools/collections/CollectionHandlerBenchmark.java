@@ -0,0 +1,126 @@
+package br.com.staroski.tools.collections;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark da filtragem e do processamento de cole&ccedil;&otilde;es do {@link CollectionHandler}, para diferentes tamanhos de cole&ccedil;&atilde;o e
+ * diferentes seletividades do predicado.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionHandlerBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    /**
+     * Propor&ccedil;&atilde;o dos elementos aceitos pelo predicado.
+     */
+    @Param({ "0.01", "0.5", "1.0" })
+    public double selectivity;
+
+    private List<Integer> list;
+    private int[] array;
+
+    private Predicate<Integer> predicate;
+    private IntPredicate intPredicate;
+    private Processor<Integer> processor;
+    private IntProcessor intProcessor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(size);
+        list = new ArrayList<Integer>(size);
+        array = new int[size];
+        for (int index = 0; index < size; index++) {
+            int value = random.nextInt(10000);
+            list.add(value);
+            array[index] = value;
+        }
+        final int limit = (int) (selectivity * 10000);
+        predicate = new Predicate<Integer>() {
+
+            @Override
+            public boolean apply(Integer object) {
+                return object < limit;
+            }
+        };
+        intPredicate = new IntPredicate() {
+
+            @Override
+            public boolean apply(int value) {
+                return value < limit;
+            }
+        };
+        processor = new ProcessorAdapter<Integer>() {
+
+            @Override
+            public Integer process(Integer object) {
+                return object * 31 + 7;
+            }
+        };
+        intProcessor = new IntProcessorAdapter() {
+
+            @Override
+            public int process(int value) {
+                return value * 31 + 7;
+            }
+        };
+    }
+
+    @Benchmark
+    public List<Integer> filter() {
+        return CollectionHandler.filter(list, predicate);
+    }
+
+    @Benchmark
+    public List<Integer> filterAndProcess() {
+        return CollectionHandler.filterAndProcess(list, predicate, processor);
+    }
+
+    @Benchmark
+    public int[] filterAndProcessIntArray() {
+        return CollectionHandler.filterAndProcess(array, intPredicate, intProcessor);
+    }
+
+    @Benchmark
+    public void lazyFilterAndProcess(Blackhole blackhole) {
+        Iterator<Integer> iterator = CollectionHandler.lazyFilterAndProcess(list, predicate, processor);
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public List<Integer> parallelFilterAndProcess() {
+        return CollectionHandler.parallelFilterAndProcess(list, predicate, processor);
+    }
+
+    @Benchmark
+    public List<Integer> process() {
+        return CollectionHandler.process(list, processor);
+    }
+}
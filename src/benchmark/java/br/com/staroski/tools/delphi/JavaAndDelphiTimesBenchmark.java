@@ -0,0 +1,45 @@
+package br.com.staroski.tools.delphi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark das convers&otilde;es de datas entre o <B>Java</B> e o <B>Delphi</B> da classe {@link JavaAndDelphiTimes}.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaAndDelphiTimesBenchmark {
+
+    public double delphiDays = 45678.123456;
+    public long javaMillis = 1760000000000L;
+
+    @Benchmark
+    public long delphiToJava() {
+        return JavaAndDelphiTimes.delphiToJava(delphiDays);
+    }
+
+    @Benchmark
+    public double javaToDelphi() {
+        return JavaAndDelphiTimes.javaToDelphi(javaMillis);
+    }
+
+    @Benchmark
+    public long roundTrip() {
+        return JavaAndDelphiTimes.delphiToJava(JavaAndDelphiTimes.javaToDelphi(javaMillis));
+    }
+}
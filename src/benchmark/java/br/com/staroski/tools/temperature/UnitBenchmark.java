@@ -0,0 +1,54 @@
+package br.com.staroski.tools.temperature;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark das convers&otilde;es entre unidades de temperatura da classe {@link Unit}.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnitBenchmark {
+
+    public double value = 36.5;
+
+    @Benchmark
+    public double celsiusToFarenheit() {
+        return Unit.celsius(value).toFarenheit().value;
+    }
+
+    @Benchmark
+    public double celsiusToKelvin() {
+        return Unit.celsius(value).toKelvin().value;
+    }
+
+    @Benchmark
+    public double chainCelsiusFarenheitKelvinCelsius() {
+        return Unit.celsius(value).toFarenheit().toKelvin().toCelsius().value;
+    }
+
+    @Benchmark
+    public double farenheitToKelvin() {
+        return Unit.farenheit(value).toKelvin().value;
+    }
+
+    @Benchmark
+    public double kelvinToFarenheit() {
+        return Unit.kelvin(value).toFarenheit().value;
+    }
+}
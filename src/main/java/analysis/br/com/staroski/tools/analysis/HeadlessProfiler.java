@@ -0,0 +1,115 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Amostragem sem interface gr&aacute;fica compartilhada pelo {@link ThreadInspector} e pelo {@link InspectorAgent}<BR>
+ * Mant&eacute;m o {@link SamplingProfiler} em execu&ccedil;&atilde;o, suas op&ccedil;&otilde;es e o gancho de encerramento da JVM que grava as pilhas
+ * colapsadas.<BR>
+ * <B>Observa&ccedil;&otilde;es</B><BR>
+ * Somente um profiler &eacute; executado por vez e o gancho de encerramento &eacute; registrado uma &uacute;nica vez, portanto o resultado &eacute;
+ * gravado uma &uacute;nica vez, por quem chamar o m&eacute;todo {@link #stop()} primeiro.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+final class HeadlessProfiler {
+
+    private static final String DEFAULT_OUTPUT = "threads.collapsed";
+    private static final long DEFAULT_INTERVAL = 10;
+
+    private static SamplingProfiler profiler;
+    private static Map<String, String> profilerOptions;
+    private static boolean verbose;
+    private static boolean shutdownHook;
+
+    /**
+     * Inicia a amostragem, se ainda n&atilde;o estiver em execu&ccedil;&atilde;o
+     * 
+     * @param options
+     *            As op&ccedil;&otilde;es <code>interval</code>, <code>depth</code>, <code>threads</code>, <code>maxStacks</code> e
+     *            <code>output</code>, as ausentes s&atilde;o lidas das propriedades de sistema correspondentes
+     * @param print
+     *            Se o in&iacute;cio e o resultado da amostragem devem ser impressos na sa&iacute;da padr&atilde;o
+     * 
+     * @return <code>false</code> se a amostragem j&aacute; estava em execu&ccedil;&atilde;o
+     */
+    static synchronized boolean start(Map<String, String> options, boolean print) {
+        if (profiler != null) {
+            return false;
+        }
+        if (!shutdownHook) {
+            // grava o resultado mesmo que a JVM seja encerrada antes do stop, por exemplo com System.exit
+            Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    stop();
+                }
+            }, "Profiler Shutdown"));
+            shutdownHook = true;
+        }
+        profiler = createProfiler(options);
+        profilerOptions = options;
+        verbose = print;
+        if (verbose) {
+            System.out.println("sampling threads every " + interval(options) + " ms...");
+        }
+        profiler.start();
+        return true;
+    }
+
+    /**
+     * Encerra a amostragem em execu&ccedil;&atilde;o, se houver, e grava as pilhas colapsadas no arquivo configurado pelas suas op&ccedil;&otilde;es
+     */
+    static synchronized void stop() {
+        if (profiler == null) {
+            return;
+        }
+        profiler.stop();
+        try {
+            String output = writeProfile(profiler, profilerOptions);
+            if (verbose) {
+                System.out.println(profiler.getSampleCount() + " samples, " + profiler.getStackCount() + " distinct stacks written to '" + output + "'");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            profiler = null;
+            profilerOptions = null;
+        }
+    }
+
+    // cria um profiler configurado pelas op&ccedil;&otilde;es
+    private static SamplingProfiler createProfiler(Map<String, String> options) {
+        int depth = Math.max(1, ThreadInspector.intOption(options, "depth", StackViewer.DEPTH_PROPERTY, StackViewer.DEFAULT_DEPTH));
+        String threads = ThreadInspector.option(options, "threads", ThreadInspector.THREADS_PROPERTY);
+        int maxStacks = Math.max(1, ThreadInspector.intOption(options, "maxStacks", ThreadInspector.MAX_STACKS_PROPERTY, SamplingProfiler.DEFAULT_MAX_STACKS));
+        return new SamplingProfiler(interval(options), depth, threads != null ? Pattern.compile(threads) : null, maxStacks);
+    }
+
+    private static long interval(Map<String, String> options) {
+        return Math.max(1, ThreadInspector.longOption(options, "interval", StackViewer.INTERVAL_PROPERTY, DEFAULT_INTERVAL));
+    }
+
+    // grava as pilhas colapsadas do profiler parado, retornando o arquivo gravado
+    private static String writeProfile(SamplingProfiler profiler, Map<String, String> options) throws IOException {
+        String output = ThreadInspector.option(options, "output", ThreadInspector.OUTPUT_PROPERTY);
+        if (output == null) {
+            output = DEFAULT_OUTPUT;
+        }
+        try (Writer out = Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+            profiler.writeCollapsed(out);
+        }
+        return output;
+    }
+
+    private HeadlessProfiler() {
+        throw new UnsupportedOperationException(getClass().getName() + " can not be instantiated");
+    }
+}
@@ -0,0 +1,228 @@
+package br.com.staroski.tools.analysis;
+
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.lang.instrument.Instrumentation;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Agente Java que carrega o inspetor de threads em uma JVM, na inicializa&ccedil;&atilde;o ou em uma JVM que j&aacute; est&aacute; em
+ * execu&ccedil;&atilde;o<BR>
+ * Na inicializa&ccedil;&atilde;o da JVM:
+ * 
+ * <PRE>
+ * java -javaagent:&lt;tools.jar&gt;[=&lt;options&gt;] ...
+ * </PRE>
+ * 
+ * Em uma JVM local em execu&ccedil;&atilde;o, atrav&eacute;s do seu PID:
+ * 
+ * <PRE>
+ * java -cp &lt;tools.jar&gt; br.com.staroski.tools.analysis.InspectorAgent list
+ * java -cp &lt;tools.jar&gt; br.com.staroski.tools.analysis.InspectorAgent &lt;pid&gt; [&lt;options&gt;]
+ * java -cp &lt;tools.jar&gt; br.com.staroski.tools.analysis.InspectorAgent &lt;pid&gt; stop
+ * 
+ * Onde &lt;options&gt; s&atilde;o separadas por v&iacute;rgula:
+ *     headless          amostra sem interface gr&aacute;fica, como no {@link ThreadInspector}
+ *     output=&lt;file&gt;     amostra sem interface gr&aacute;fica e grava as pilhas colapsadas no arquivo
+ *     interval=&lt;ms&gt;     intervalo de amostragem em milissegundos
+ *     depth=&lt;n&gt;         profundidade m&aacute;xima das pilhas capturadas
+ *     threads=&lt;regex&gt;   amostra somente as threads cujo nome cont&eacute;m a express&atilde;o, sem interface gr&aacute;fica, deve ser a &uacute;ltima
+ *                       op&ccedil;&atilde;o pois a express&atilde;o ocupa o restante das op&ccedil;&otilde;es, inclusive suas v&iacute;rgulas
+ *     maxStacks=&lt;n&gt;     quantidade m&aacute;xima de pilhas distintas, sem interface gr&aacute;fica
+ *     stop              encerra a amostragem, grava as pilhas colapsadas e fecha a janela do inspetor
+ * </PRE>
+ * 
+ * <B>Observa&ccedil;&otilde;es</B><BR>
+ * As op&ccedil;&otilde;es s&atilde;o repassadas diretamente ao inspetor, sem alterar as propriedades de sistema da JVM inspecionada, e as
+ * op&ccedil;&otilde;es ausentes s&atilde;o lidas das propriedades de sistema <code>staroski.inspector.*</code>, como no {@link ThreadInspector}.<BR>
+ * Para n&atilde;o poluir a sa&iacute;da da JVM inspecionada, o agente somente imprime as falhas.<BR>
+ * Para n&atilde;o atrasar a inicializa&ccedil;&atilde;o da JVM, o agente somente cria uma thread daemon que inicia o inspetor, e n&atilde;o
+ * utiliza a {@link Instrumentation}. Fechar a janela do inspetor encerra a amostragem sem encerrar a JVM inspecionada.<BR>
+ * Uma JVM n&atilde;o descarrega agentes, portanto a op&ccedil;&atilde;o <code>stop</code> libera as threads e a janela do inspetor mas suas
+ * classes continuam carregadas.<BR>
+ * O lan&ccedil;ador utiliza a API <code>com.sun.tools.attach</code> por reflex&atilde;o, dispon&iacute;vel no m&oacute;dulo
+ * <code>jdk.attach</code> ou no <code>lib/tools.jar</code> do JDK 8, e deve ser executado a partir do jar com o agente.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+public final class InspectorAgent {
+
+    /**
+     * Ponto de entrada do agente quando carregado em uma JVM em execu&ccedil;&atilde;o
+     * 
+     * @param options
+     *            As op&ccedil;&otilde;es do agente, separadas por v&iacute;rgula
+     * @param instrumentation
+     *            N&atilde;o utilizado
+     */
+    public static void agentmain(String options, Instrumentation instrumentation) {
+        launch(options);
+    }
+
+    /**
+     * Ponto de entrada do lan&ccedil;ador, que carrega o agente em uma JVM local em execu&ccedil;&atilde;o
+     * 
+     * @param args
+     *            <code>list</code> para listar as JVMs locais ou o PID da JVM seguido das op&ccedil;&otilde;es do agente
+     */
+    public static void main(String... args) {
+        if (args.length < 1) {
+            System.out.println("usage: ");
+            System.out.println("    <java> -cp <tools.jar> " + InspectorAgent.class.getName() + " list");
+            System.out.println("    <java> -cp <tools.jar> " + InspectorAgent.class.getName() + " <pid> [<options>]");
+            System.out.println("where <options> are comma separated");
+            System.out.println("    headless          sample without user interface");
+            System.out.println("    output=<file>     sample without user interface and write collapsed stacks to <file>");
+            System.out.println("    interval=<ms>     sampling interval in milliseconds");
+            System.out.println("    depth=<n>         maximum depth of captured stacks");
+            System.out.println("    threads=<regex>   headless only, sample only threads whose name contains <regex>,");
+            System.out.println("                      must be the last option since <regex> takes the rest of the options, commas included");
+            System.out.println("    maxStacks=<n>     headless only, maximum number of distinct stacks");
+            System.out.println("    stop              stop sampling, write collapsed stacks and close the inspector window");
+            System.exit(0);
+        }
+        try {
+            Class<?> machineClass = attachClass("com.sun.tools.attach.VirtualMachine");
+            if ("list".equals(args[0])) {
+                Class<?> descriptorClass = attachClass("com.sun.tools.attach.VirtualMachineDescriptor");
+                Method id = descriptorClass.getMethod("id");
+                Method displayName = descriptorClass.getMethod("displayName");
+                for (Object descriptor : (List<?>) machineClass.getMethod("list").invoke(null)) {
+                    System.out.println(id.invoke(descriptor) + "\t" + displayName.invoke(descriptor));
+                }
+                return;
+            }
+            File jar = new File(InspectorAgent.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            if (!jar.isFile()) {
+                System.err.println("error: the agent must be launched from its jar file, not from '" + jar + "'");
+                System.exit(1);
+            }
+            String options = args.length > 1 ? args[1] : "";
+            System.out.println("attaching to " + args[0] + "...");
+            Object machine = machineClass.getMethod("attach", String.class).invoke(null, args[0]);
+            try {
+                machineClass.getMethod("loadAgent", String.class, String.class).invoke(machine, jar.getAbsolutePath(), options);
+                System.out.println("agent loaded!");
+            } finally {
+                machineClass.getMethod("detach").invoke(machine);
+            }
+        } catch (Throwable t) {
+            t.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Ponto de entrada do agente quando carregado na inicializa&ccedil;&atilde;o da JVM
+     * 
+     * @param options
+     *            As op&ccedil;&otilde;es do agente, separadas por v&iacute;rgula
+     * @param instrumentation
+     *            N&atilde;o utilizado
+     */
+    public static void premain(String options, Instrumentation instrumentation) {
+        launch(options);
+    }
+
+    // no JDK 8 a API de attach est&aacute; no lib/tools.jar, que n&atilde;o faz parte do classpath
+    private static Class<?> attachClass(String name) throws Exception {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            File tools = new File(System.getProperty("java.home"), "../lib/tools.jar");
+            if (!tools.isFile()) {
+                throw e;
+            }
+            return Class.forName(name, true, new URLClassLoader(new URL[] { tools.toURI().toURL() }));
+        }
+    }
+
+    private static synchronized void execute(String options) {
+        final Map<String, String> parsed = parse(options);
+        if (parsed.containsKey("stop")) {
+            stop();
+            return;
+        }
+        boolean headless = parsed.containsKey("headless") || parsed.containsKey("output") || GraphicsEnvironment.isHeadless();
+        if (headless) {
+            HeadlessProfiler.start(parsed, false); // ignorado se j&aacute; est&aacute; amostrando
+        } else {
+            SwingUtilities.invokeLater(new Runnable() {
+
+                @Override
+                public void run() {
+                    StackViewer viewer = StackViewer.getInstance(parsed);
+                    viewer.setExitOnClose(false);
+                    viewer.show();
+                }
+            });
+        }
+    }
+
+    private static void launch(final String options) {
+        Thread thread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    execute(options);
+                } catch (Throwable t) {
+                    t.printStackTrace(); // uma falha do agente n&atilde;o deve afetar a JVM inspecionada
+                }
+            }
+        }, "Inspector Agent");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static Map<String, String> parse(String options) {
+        Map<String, String> parsed = new LinkedHashMap<String, String>();
+        if (options == null) {
+            return parsed;
+        }
+        int start = 0;
+        while (start < options.length()) {
+            int end = options.indexOf(',', start);
+            if (end < 0) {
+                end = options.length();
+            }
+            String option = options.substring(start, end);
+            int equals = option.indexOf('=');
+            String name = (equals < 0 ? option : option.substring(0, equals)).trim();
+            if (equals >= 0 && "threads".equals(name)) {
+                // a express&atilde;o regular pode conter v&iacute;rgulas, portanto ocupa o restante das op&ccedil;&otilde;es
+                parsed.put(name, options.substring(start + equals + 1).trim());
+                break;
+            }
+            if (!name.isEmpty()) {
+                parsed.put(name, equals < 0 ? null : option.substring(equals + 1).trim());
+            }
+            start = end + 1;
+        }
+        return parsed;
+    }
+
+    private static void stop() {
+        HeadlessProfiler.stop();
+        if (!GraphicsEnvironment.isHeadless()) {
+            SwingUtilities.invokeLater(new Runnable() {
+
+                @Override
+                public void run() {
+                    StackViewer.closeInstance();
+                }
+            });
+        }
+    }
+
+    private InspectorAgent() {
+        throw new UnsupportedOperationException(getClass().getName() + " can not be instantiated");
+    }
+}
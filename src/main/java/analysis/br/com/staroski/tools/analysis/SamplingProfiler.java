@@ -0,0 +1,345 @@
+package br.com.staroski.tools.analysis;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Profiler por amostragem, sem interface gr&aacute;fica, que captura periodicamente as pilhas de chamadas das {@link Thread threads} e conta
+ * quantas vezes cada pilha foi encontrada<BR>
+ * O resultado &eacute; gravado no formato de pilhas colapsadas ( <I>collapsed stacks</I> ), lido pelas ferramentas de <I>flame graph</I>: uma linha
+ * por pilha, com o nome da thread seguido dos m&eacute;todos, da raiz at&eacute; o topo, separados por <code>;</code> e a quantidade de amostras
+ * no final, por exemplo:
+ * 
+ * <PRE>
+ * main;com.exemplo.App.main;com.exemplo.App.processar 42
+ * </PRE>
+ * 
+ * <B>Observa&ccedil;&otilde;es</B><BR>
+ * Os m&eacute;todos s&atilde;o internados em uma tabela e cada pilha &eacute; guardada como um array de &iacute;ndices, e tanto a quantidade de
+ * m&eacute;todos quanto a de pilhas distintas s&atilde;o limitadas, as amostras que ultrapassam estes limites s&atilde;o contadas em
+ * <code>[dropped]</code>.<BR>
+ * A thread de amostragem &eacute; daemon e n&atilde;o amostra a si pr&oacute;pria.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+public final class SamplingProfiler {
+
+    /**
+     * Pilha de m&eacute;todos, da raiz at&eacute; o topo, e a quantidade de vezes que foi amostrada
+     */
+    private static final class Stack {
+
+        int[] frames;
+        int length;
+        int hash;
+        long count;
+
+        Stack(int capacity) {
+            frames = new int[capacity];
+        }
+
+        Stack(Stack other) {
+            frames = Arrays.copyOf(other.frames, other.length);
+            length = other.length;
+            hash = other.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Stack)) {
+                return false;
+            }
+            Stack other = (Stack) obj;
+            if (hash != other.hash || length != other.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (frames[i] != other.frames[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        void rehash() {
+            int h = 1;
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + frames[i];
+            }
+            hash = h;
+        }
+    }
+
+    /**
+     * Quantidade m&aacute;xima padr&atilde;o de pilhas distintas
+     */
+    public static final int DEFAULT_MAX_STACKS = 100000;
+
+    private static final String UNKNOWN_FRAME = "[unknown]";
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final long interval;
+    private final int depth;
+    private final Pattern threadFilter;
+    private final int maxStacks;
+    private final int maxFrames;
+
+    // tabela de m&eacute;todos internados: cada elemento de pilha aponta para o &iacute;ndice do nome do seu m&eacute;todo
+    private final Map<StackTraceElement, Integer> elementIds = new HashMap<StackTraceElement, Integer>();
+    private final Map<String, Integer> nameIds = new HashMap<String, Integer>();
+    private final List<String> names = new ArrayList<String>();
+
+    private final Map<Stack, Stack> stacks = new LinkedHashMap<Stack, Stack>();
+    private final Stack probe;
+
+    private long samples;
+    private long dropped;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Cria um profiler parado
+     * 
+     * @param intervalMillis
+     *            O intervalo entre as amostragens, em milissegundos
+     * @param depth
+     *            A profundidade m&aacute;xima das pilhas capturadas
+     * @param threadFilter
+     *            Express&atilde;o regular encontrada nos nomes das threads a serem amostradas, ou <code>null</code> para amostrar todas
+     * @param maxStacks
+     *            A quantidade m&aacute;xima de pilhas distintas, veja {@link #DEFAULT_MAX_STACKS}
+     */
+    public SamplingProfiler(long intervalMillis, int depth, Pattern threadFilter, int maxStacks) {
+        if (intervalMillis < 1) {
+            throw new IllegalArgumentException("intervalMillis must be positive");
+        }
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth must be positive");
+        }
+        if (maxStacks < 1) {
+            throw new IllegalArgumentException("maxStacks must be positive");
+        }
+        this.interval = intervalMillis;
+        this.depth = depth;
+        this.threadFilter = threadFilter;
+        this.maxStacks = maxStacks;
+        this.maxFrames = Math.max(1024, maxStacks);
+        this.probe = new Stack(depth + 1);
+        intern(UNKNOWN_FRAME);
+    }
+
+    /**
+     * @return A quantidade de amostras que n&atilde;o foram contadas por ultrapassarem o limite de pilhas distintas
+     */
+    public synchronized long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * @return A quantidade de amostragens realizadas
+     */
+    public synchronized long getSampleCount() {
+        return samples;
+    }
+
+    /**
+     * @return A quantidade de pilhas distintas encontradas
+     */
+    public synchronized int getStackCount() {
+        return stacks.size();
+    }
+
+    /**
+     * @return <code>true</code> se o profiler estiver amostrando
+     */
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Descarta todas as amostras e a tabela de m&eacute;todos internados, que volta a aceitar novos m&eacute;todos at&eacute; o seu limite
+     */
+    public synchronized void reset() {
+        stacks.clear();
+        samples = 0;
+        dropped = 0;
+        elementIds.clear();
+        nameIds.clear();
+        names.clear();
+        intern(UNKNOWN_FRAME);
+    }
+
+    /**
+     * Inicia as amostragens, n&atilde;o faz nada se o profiler j&aacute; estiver amostrando
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Profiler Thread");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleAtFixedRate(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    sample();
+                } catch (Throwable t) {
+                    t.printStackTrace(); // uma falha n&atilde;o deve cancelar as pr&oacute;ximas amostragens
+                }
+            }
+        }, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Encerra as amostragens e aguarda o t&eacute;rmino da amostragem em andamento, as amostras s&atilde;o mantidas
+     */
+    public void stop() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running == null) {
+            return;
+        }
+        running.shutdownNow();
+        try {
+            running.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Grava as amostras no formato de pilhas colapsadas
+     * 
+     * @param out
+     *            O {@link Writer} de destino, que n&atilde;o &eacute; fechado
+     * 
+     * @throws IOException
+     *             Se n&atilde;o for poss&iacute;vel gravar
+     */
+    public synchronized void writeCollapsed(Writer out) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (Stack stack : stacks.keySet()) {
+            line.setLength(0);
+            for (int i = 0; i < stack.length; i++) {
+                if (i > 0) {
+                    line.append(';');
+                }
+                line.append(names.get(stack.frames[i]));
+            }
+            line.append(' ').append(stack.count).append('\n');
+            out.write(line.toString());
+        }
+        if (dropped > 0) {
+            out.write("[dropped] " + dropped + "\n");
+        }
+        out.flush();
+    }
+
+    private int intern(StackTraceElement element) {
+        Integer id = elementIds.get(element);
+        if (id == null) {
+            id = intern(element.getClassName() + "." + element.getMethodName());
+            if (elementIds.size() < maxFrames * 4) {
+                elementIds.put(element, id);
+            }
+        }
+        return id;
+    }
+
+    private int intern(String name) {
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            if (names.size() >= maxFrames) {
+                return 0; // UNKNOWN_FRAME
+            }
+            id = names.size();
+            // os separadores do formato colapsado n&atilde;o podem aparecer nos nomes
+            names.add(name.replace(';', ':').replace(' ', '_').replace('\n', '_'));
+            nameIds.put(name, id);
+        }
+        return id;
+    }
+
+    private void record(ThreadInfo info) {
+        StackTraceElement[] trace = info.getStackTrace();
+        probe.length = 0;
+        probe.frames[probe.length++] = intern(info.getThreadName());
+        for (int i = trace.length - 1; i >= 0; i--) {
+            probe.frames[probe.length++] = intern(trace[i]);
+        }
+        probe.rehash();
+        Stack stack = stacks.get(probe);
+        if (stack == null) {
+            if (stacks.size() >= maxStacks) {
+                dropped++;
+                return;
+            }
+            stack = new Stack(probe);
+            stacks.put(stack, stack);
+        }
+        stack.count++;
+    }
+
+    // executado somente pela thread de amostragem
+    private void sample() {
+        final long self = Thread.currentThread().getId();
+        long[] ids = threads.getAllThreadIds();
+        int count = 0;
+        if (threadFilter == null) {
+            for (long id : ids) {
+                if (id != self) {
+                    ids[count++] = id;
+                }
+            }
+        } else {
+            ThreadInfo[] infos = threads.getThreadInfo(ids, 0);
+            for (ThreadInfo info : infos) {
+                if (info != null && info.getThreadId() != self && threadFilter.matcher(info.getThreadName()).find()) {
+                    ids[count++] = info.getThreadId();
+                }
+            }
+        }
+        ThreadInfo[] infos = threads.getThreadInfo(Arrays.copyOf(ids, count), depth);
+        synchronized (this) {
+            for (ThreadInfo info : infos) {
+                if (info != null) { // a thread terminou durante a amostragem
+                    record(info);
+                }
+            }
+            samples++;
+        }
+    }
+}
@@ -1,26 +1,71 @@
 package br.com.staroski.tools.analysis;
 
 import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+import javax.swing.AbstractAction;
+import javax.swing.JComponent;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableRowSorter;
 
+/**
+ * Janela que exibe a pilha de chamadas das {@link Thread threads} em execu&ccedil;&atilde;o, uma aba por thread<BR>
+ * <B>Observa&ccedil;&otilde;es</B><BR>
+ * As threads s&atilde;o amostradas em intervalos fixos por uma thread pr&oacute;pria, atrav&eacute;s do {@link ThreadMXBean}: a lista de threads
+ * &eacute; obtida sem capturar pilhas e somente a pilha da thread selecionada &eacute; capturada, limitada a uma profundidade m&aacute;xima.<BR>
+ * O intervalo em milissegundos e a profundidade podem ser configurados pelas propriedades de sistema {@value #INTERVAL_PROPERTY} e
+ * {@value #DEPTH_PROPERTY}.<BR>
+ * As atualiza&ccedil;&otilde;es da tela s&atilde;o agrupadas em uma &uacute;nica tarefa pendente na thread do Swing e o consumo de CPU do
+ * inspetor, somando a thread de amostragem e as atualiza&ccedil;&otilde;es da tela na thread do Swing, &eacute; exibido no t&iacute;tulo da janela.<BR>
+ * A aba <code>Threads</code> exibe, para cada thread, o tempo de CPU, o tempo de usu&aacute;rio e a quantidade de bytes alocados, bem como suas
+ * taxas desde a amostragem anterior, em uma tabela orden&aacute;vel, o duplo clique ou <code>Enter</code> em uma linha seleciona a aba da thread.<BR>
+ * As medi&ccedil;&otilde;es de tempo de CPU e de aloca&ccedil;&atilde;o que estiverem desabilitadas s&atilde;o habilitadas enquanto a janela existir e
+ * desabilitadas novamente ao fech&aacute;-la.
+ * 
+ * @author Ricardo Artur Staroski
+ */
 final class StackViewer {
 
-    private class ThreadPanel extends JPanel {
+    private static final class ThreadPanel extends JPanel {
 
         private class StackModel extends AbstractTableModel {
 
@@ -48,82 +93,288 @@ final class StackViewer {
 
             @Override
             public int getRowCount() {
-                synchronized (LOCK) {
-                    return stack != null ? stack.length : 0;
-                }
+                return stack.length;
             }
 
             @Override
             public Object getValueAt(int row, int col) {
-                synchronized (LOCK) {
-                    if (row < stack.length) {
-                        switch (col) {
-                            case 0:
-                                String name = stack[row].getFileName();
-                                return name == null || name.isEmpty() ? "unknown" : name;
-                            case 1:
-                                int number = stack[row].getLineNumber();
-                                return number > -1 ? number : "unknown";
-                            case 2:
-                                return stack[row].getClassName();
-                            case 3:
-                                return stack[row].getMethodName();
-
-                        }
+                if (row < stack.length) {
+                    switch (col) {
+                        case 0:
+                            String name = stack[row].getFileName();
+                            return name == null || name.isEmpty() ? "unknown" : name;
+                        case 1:
+                            int number = stack[row].getLineNumber();
+                            return number > -1 ? number : "unknown";
+                        case 2:
+                            return stack[row].getClassName();
+                        case 3:
+                            return stack[row].getMethodName();
+
                     }
-                    return null;
                 }
+                return null;
             }
 
         }
 
         private static final long serialVersionUID = 1;
 
+        // acessado somente pela thread do Swing
         private StackTraceElement[] stack = new StackTraceElement[0];
 
-        private final Thread thread;
+        private final long threadId;
         private final JTable table;
 
-        private final Object LOCK = new Object();
-
-        ThreadPanel(Thread thread) {
-            this.thread = thread;
+        ThreadPanel(long threadId) {
+            this.threadId = threadId;
             setLayout(new BorderLayout());
             table = new JTable(new StackModel());
             add(BorderLayout.CENTER, new JScrollPane(table));
         }
 
-        void update() {
-            synchronized (LOCK) {
-                this.stack = thread.getStackTrace();
-                ((AbstractTableModel) table.getModel()).fireTableDataChanged();
+        void update(StackTraceElement[] stack) {
+            this.stack = stack;
+            ((AbstractTableModel) table.getModel()).fireTableDataChanged();
+        }
+    }
+
+    /**
+     * Resultado de uma amostragem, entregue &agrave; thread do Swing
+     */
+    private static final class Sample {
+
+        final List<ThreadRow> threads;
+        final long selectedId;
+        final StackTraceElement[] stack;
+        final double overhead;
+
+        Sample(List<ThreadRow> threads, long selectedId, StackTraceElement[] stack, double overhead) {
+            this.threads = threads;
+            this.selectedId = selectedId;
+            this.stack = stack;
+            this.overhead = overhead;
+        }
+    }
+
+    /**
+     * Consumo de uma thread, os valores s&atilde;o <code>-1</code> quando n&atilde;o suportados pela JVM
+     */
+    private static final class ThreadRow {
+
+        final long id;
+        final String name;
+        final Thread.State state;
+        final long cpuTime;
+        final long userTime;
+        final long allocatedBytes;
+        final double cpuRate;
+        final double userRate;
+        final double allocationRate;
+
+        ThreadRow(ThreadInfo info, long cpuTime, long userTime, long allocatedBytes, double cpuRate, double userRate, double allocationRate) {
+            this.id = info.getThreadId();
+            this.name = info.getThreadName();
+            this.state = info.getThreadState();
+            this.cpuTime = cpuTime;
+            this.userTime = userTime;
+            this.allocatedBytes = allocatedBytes;
+            this.cpuRate = cpuRate;
+            this.userRate = userRate;
+            this.allocationRate = allocationRate;
+        }
+    }
+
+    private static final class ThreadsModel extends AbstractTableModel {
+
+        private static final long serialVersionUID = 1;
+
+        private static final String[] COLUMNS = { "Id", "Name", "State", "CPU Time (ms)", "User Time (ms)", "CPU %", "User %", "Allocated (KB)",
+                                                  "Allocation Rate (KB/s)" };
+
+        private static final Class<?>[] TYPES = { Long.class, String.class, String.class, Long.class, Long.class, Double.class, Double.class, Long.class,
+                                                  Double.class };
+
+        // acessado somente pela thread do Swing
+        private List<ThreadRow> rows = Collections.emptyList();
+
+        @Override
+        public Class<?> getColumnClass(int col) {
+            return TYPES[col];
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int col) {
+            return COLUMNS[col];
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public Object getValueAt(int row, int col) {
+            ThreadRow thread = rows.get(row);
+            switch (col) {
+                case 0:
+                    return thread.id;
+                case 1:
+                    return thread.name;
+                case 2:
+                    return String.valueOf(thread.state);
+                case 3:
+                    return thread.cpuTime < 0 ? null : thread.cpuTime / 1000000;
+                case 4:
+                    return thread.userTime < 0 ? null : thread.userTime / 1000000;
+                case 5:
+                    return thread.cpuRate < 0 ? null : round(thread.cpuRate * 100);
+                case 6:
+                    return thread.userRate < 0 ? null : round(thread.userRate * 100);
+                case 7:
+                    return thread.allocatedBytes < 0 ? null : thread.allocatedBytes / 1024;
+                case 8:
+                    return thread.allocationRate < 0 ? null : round(thread.allocationRate / 1024);
             }
+            return null;
+        }
+
+        long getThreadId(int row) {
+            return rows.get(row).id;
+        }
+
+        void update(List<ThreadRow> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 10) / 10.0;
         }
     }
 
+    /**
+     * Propriedade de sistema com o intervalo de amostragem em milissegundos, o padr&atilde;o &eacute; {@value #DEFAULT_INTERVAL}
+     */
+    static final String INTERVAL_PROPERTY = "staroski.inspector.interval";
+
+    /**
+     * Propriedade de sistema com a profundidade m&aacute;xima das pilhas capturadas, o padr&atilde;o &eacute; {@value #DEFAULT_DEPTH}
+     */
+    static final String DEPTH_PROPERTY = "staroski.inspector.depth";
+
+    private static final long DEFAULT_INTERVAL = 500;
+    static final int DEFAULT_DEPTH = 128;
+
+    private static final String TITLE = "Staroski's VM Inspector";
+
     private static StackViewer instance;
 
-    public static StackViewer getInstance() {
+    public static synchronized StackViewer getInstance() {
+        return getInstance(Collections.<String, String> emptyMap());
+    }
+
+    /**
+     * @param options
+     *            As op&ccedil;&otilde;es <code>interval</code> e <code>depth</code>, as ausentes s&atilde;o lidas das propriedades de sistema
+     *            correspondentes, ignoradas se a janela j&aacute; existir
+     */
+    static synchronized StackViewer getInstance(Map<String, String> options) {
         if (instance == null) {
-            instance = new StackViewer();
+            long interval = ThreadInspector.longOption(options, "interval", INTERVAL_PROPERTY, DEFAULT_INTERVAL);
+            int depth = ThreadInspector.intOption(options, "depth", DEPTH_PROPERTY, DEFAULT_DEPTH);
+            instance = new StackViewer(interval, depth);
         }
         return instance;
     }
 
+    /**
+     * Fecha a janela, se estiver aberta, e encerra a amostragem
+     */
+    static synchronized void closeInstance() {
+        if (instance != null) {
+            instance.close();
+        }
+    }
+
     private final JFrame frame;
     private final JTabbedPane tabPanel;
-    private final List<Thread> aliveThreads = new ArrayList<Thread>();
-    private final Map<String, ThreadPanel> threadPanels = new HashMap<String, StackViewer.ThreadPanel>();
+    private final Map<Long, ThreadPanel> threadPanels = new LinkedHashMap<Long, ThreadPanel>();
+    private final ThreadsModel threadsModel = new ThreadsModel();
+    private final JTable threadsTable = new JTable(threadsModel);
 
-    private StackViewer() {
-        frame = new JFrame("Staroski's VM Inspector");
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final long interval;
+    private final int depth;
+
+    // &uacute;ltima amostra ainda n&atilde;o exibida, existe no m&aacute;ximo uma tarefa pendente na thread do Swing
+    private final AtomicReference<Sample> pending = new AtomicReference<Sample>();
+    private final Runnable display = new Runnable() {
+
+        @Override
+        public void run() {
+            Sample sample = pending.getAndSet(null);
+            if (sample != null) {
+                long start = threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+                updateView(sample);
+                if (start != -1) {
+                    long end = threads.getCurrentThreadCpuTime();
+                    if (end != -1) {
+                        displayCpuTime.addAndGet(end - start);
+                    }
+                }
+            }
+        }
+    };
+
+    // tempo de CPU consumido pelas atualiza&ccedil;&otilde;es da tela, somado ao da thread de amostragem no consumo exibido
+    private final AtomicLong displayCpuTime = new AtomicLong();
+
+    private volatile long selectedId = -1;
+    private volatile boolean exitOnClose = true;
+    // espelha a visibilidade da janela para a thread de amostragem, que n&atilde;o deve consultar o frame fora da thread do Swing
+    private volatile boolean visible;
+    private ScheduledExecutorService scheduler;
+
+    // medi&ccedil;&otilde;es habilitadas pelo inspetor, desabilitadas novamente ao fechar a janela
+    private boolean cpuTimeEnabled;
+    private boolean allocatedMemoryEnabled;
+
+    // acessados somente pela thread de amostragem
+    private long lastCpuTime = -1;
+    private long lastWallTime;
+    private long lastMeasureTime;
+    private final Map<Long, long[]> lastConsumption = new HashMap<Long, long[]>();
+
+    private StackViewer(long interval, int depth) {
+        this.interval = Math.max(1, interval);
+        this.depth = Math.max(1, depth);
+        frame = new JFrame(TITLE);
         tabPanel = new JTabbedPane(SwingConstants.LEFT);
+        tabPanel.addChangeListener(new ChangeListener() {
+
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                Component selected = tabPanel.getSelectedComponent();
+                selectedId = selected instanceof ThreadPanel ? ((ThreadPanel) selected).threadId : -1;
+            }
+        });
+        createThreadsTab();
         frame.setContentPane(tabPanel);
         frame.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
         frame.addWindowListener(new WindowAdapter() {
 
             @Override
             public void windowClosing(WindowEvent e) {
+                if (!exitOnClose) {
+                    close(); // a JVM inspecionada continua em execu&ccedil;&atilde;o
+                    return;
+                }
                 int option = JOptionPane.showConfirmDialog(frame, "Do you really want to exit?", "Confirmation", JOptionPane.YES_NO_OPTION,
                                                            JOptionPane.QUESTION_MESSAGE);
                 if (option == JOptionPane.YES_OPTION) {
@@ -131,49 +382,245 @@ final class StackViewer {
                 }
             }
         });
-        frame.setSize(400, 300);
+        frame.setSize(800, 400);
+        enableMeasurements();
         runMonitor();
     }
 
-    private synchronized void updateView(Map<Thread, StackTraceElement[]> stackTraces) {
-        for (Map.Entry<Thread, StackTraceElement[]> entry : stackTraces.entrySet()) {
-            Thread thread = entry.getKey();
-            if (thread.isAlive()) {
-                if (!aliveThreads.contains(thread)) {
-                    aliveThreads.add(thread);
-                    ThreadPanel panel = new ThreadPanel(thread);
-                    threadPanels.put(thread.getName(), panel);
-                    tabPanel.addTab(thread.getName(), panel);
-                }
-            } else {
-                if (aliveThreads.contains(thread)) {
-                    aliveThreads.remove(thread);
-                    tabPanel.remove(threadPanels.get(thread.getName()));
+    private void createThreadsTab() {
+        TableRowSorter<ThreadsModel> sorter = new TableRowSorter<ThreadsModel>(threadsModel);
+        sorter.setSortKeys(Collections.singletonList(new RowSorter.SortKey(5, SortOrder.DESCENDING)));
+        threadsTable.setRowSorter(sorter);
+        threadsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        threadsTable.addMouseListener(new MouseAdapter() {
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    showSelectedThread();
                 }
             }
-            ThreadPanel threadPanel = (ThreadPanel) tabPanel.getComponent(tabPanel.getSelectedIndex());
-            threadPanel.update();
+        });
+        threadsTable.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "showThread");
+        threadsTable.getActionMap().put("showThread", new AbstractAction() {
+
+            private static final long serialVersionUID = 1;
+
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showSelectedThread();
+            }
+        });
+        tabPanel.addTab("Threads", new JScrollPane(threadsTable));
+    }
+
+    private void enableMeasurements() {
+        if (threads.isThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+            cpuTimeEnabled = true;
+        }
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean extended = (com.sun.management.ThreadMXBean) threads;
+            if (extended.isThreadAllocatedMemorySupported() && !extended.isThreadAllocatedMemoryEnabled()) {
+                extended.setThreadAllocatedMemoryEnabled(true);
+                allocatedMemoryEnabled = true;
+            }
+        }
+    }
+
+    // restaura as medi&ccedil;&otilde;es da JVM inspecionada, somente as que foram habilitadas pelo inspetor
+    private void restoreMeasurements() {
+        if (cpuTimeEnabled) {
+            threads.setThreadCpuTimeEnabled(false);
+            cpuTimeEnabled = false;
+        }
+        if (allocatedMemoryEnabled) {
+            ((com.sun.management.ThreadMXBean) threads).setThreadAllocatedMemoryEnabled(false);
+            allocatedMemoryEnabled = false;
+        }
+    }
+
+    // executado somente pela thread do Swing
+    private void showSelectedThread() {
+        int row = threadsTable.getSelectedRow();
+        if (row < 0) {
+            return;
+        }
+        ThreadPanel panel = threadPanels.get(threadsModel.getThreadId(threadsTable.convertRowIndexToModel(row)));
+        if (panel != null) {
+            tabPanel.setSelectedComponent(panel);
+        }
+    }
+
+    // executado somente pela thread do Swing
+    private void updateView(Sample sample) {
+        Set<Long> alive = new HashSet<Long>();
+        for (ThreadRow thread : sample.threads) {
+            alive.add(thread.id);
+            if (!threadPanels.containsKey(thread.id)) {
+                ThreadPanel panel = new ThreadPanel(thread.id);
+                threadPanels.put(thread.id, panel);
+                tabPanel.addTab(thread.name, panel);
+            }
+        }
+        updateThreadsTable(sample.threads);
+        for (Iterator<Map.Entry<Long, ThreadPanel>> it = threadPanels.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Long, ThreadPanel> entry = it.next();
+            if (!alive.contains(entry.getKey())) {
+                tabPanel.remove(entry.getValue());
+                it.remove();
+            }
+        }
+        ThreadPanel selected = threadPanels.get(sample.selectedId);
+        if (selected != null && sample.stack != null && sample.selectedId == selectedId) {
+            selected.update(sample.stack);
+        }
+        if (sample.overhead >= 0) {
+            frame.setTitle(String.format("%s - every %d ms, depth %d, inspector %.2f%% CPU", TITLE, interval, depth, sample.overhead * 100));
+        }
+    }
+
+    // executado somente pela thread do Swing, mant&eacute;m a thread selecionada na tabela
+    private void updateThreadsTable(List<ThreadRow> rows) {
+        int row = threadsTable.getSelectedRow();
+        long selected = row < 0 ? -1 : threadsModel.getThreadId(threadsTable.convertRowIndexToModel(row));
+        threadsModel.update(rows);
+        for (int i = 0; selected != -1 && i < rows.size(); i++) {
+            if (rows.get(i).id == selected) {
+                int view = threadsTable.convertRowIndexToView(i);
+                threadsTable.getSelectionModel().setSelectionInterval(view, view);
+                break;
+            }
+        }
+    }
+
+    // executado somente pela thread de amostragem
+    private List<ThreadRow> measure(long[] ids, ThreadInfo[] infos, long wallTime) {
+        long[] cpuTimes;
+        long[] userTimes;
+        long[] allocatedBytes;
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean extended = (com.sun.management.ThreadMXBean) threads;
+            boolean cpu = threads.isThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+            boolean allocation = extended.isThreadAllocatedMemorySupported() && extended.isThreadAllocatedMemoryEnabled();
+            cpuTimes = cpu ? extended.getThreadCpuTime(ids) : null;
+            userTimes = cpu ? extended.getThreadUserTime(ids) : null;
+            allocatedBytes = allocation ? extended.getThreadAllocatedBytes(ids) : null;
+        } else {
+            boolean cpu = threads.isThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+            cpuTimes = cpu ? new long[ids.length] : null;
+            userTimes = cpu ? new long[ids.length] : null;
+            allocatedBytes = null;
+            for (int i = 0; cpu && i < ids.length; i++) {
+                cpuTimes[i] = threads.getThreadCpuTime(ids[i]);
+                userTimes[i] = threads.getThreadUserTime(ids[i]);
+            }
+        }
+        double elapsed = wallTime - lastMeasureTime; // s&oacute; &eacute; utilizado se houver uma medi&ccedil;&atilde;o anterior
+        lastMeasureTime = wallTime;
+        Map<Long, long[]> consumption = new HashMap<Long, long[]>();
+        List<ThreadRow> rows = new ArrayList<ThreadRow>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            if (infos[i] == null) {
+                continue; // a thread terminou durante a amostragem
+            }
+            long cpuTime = cpuTimes != null ? cpuTimes[i] : -1;
+            long userTime = userTimes != null ? userTimes[i] : -1;
+            long allocated = allocatedBytes != null ? allocatedBytes[i] : -1;
+            long[] last = lastConsumption.get(ids[i]);
+            double cpuRate = -1;
+            double userRate = -1;
+            double allocationRate = -1;
+            if (last != null && elapsed > 0) {
+                cpuRate = cpuTime < 0 || last[0] < 0 ? -1 : (cpuTime - last[0]) / elapsed;
+                userRate = userTime < 0 || last[1] < 0 ? -1 : (userTime - last[1]) / elapsed;
+                allocationRate = allocated < 0 || last[2] < 0 ? -1 : (allocated - last[2]) * 1e9 / elapsed;
+            }
+            consumption.put(ids[i], new long[] { cpuTime, userTime, allocated });
+            rows.add(new ThreadRow(infos[i], cpuTime, userTime, allocated, cpuRate, userRate, allocationRate));
+        }
+        // as threads que terminaram s&atilde;o descartadas
+        lastConsumption.clear();
+        lastConsumption.putAll(consumption);
+        return rows;
+    }
+
+    // executado somente pela thread de amostragem
+    private void sample() {
+        if (!visible) {
+            return;
+        }
+        long[] ids = threads.getAllThreadIds();
+        ThreadInfo[] infos = threads.getThreadInfo(ids, 0);
+        List<ThreadRow> rows = measure(ids, infos, System.nanoTime());
+        long id = selectedId;
+        StackTraceElement[] stack = null;
+        if (id != -1) {
+            ThreadInfo info = threads.getThreadInfo(id, depth);
+            stack = info != null ? info.getStackTrace() : new StackTraceElement[0];
+        }
+        double overhead = -1;
+        long wallTime = System.nanoTime();
+        long cpuTime = threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+        if (cpuTime != -1) {
+            cpuTime += displayCpuTime.get();
+        }
+        if (cpuTime != -1 && lastCpuTime != -1 && wallTime > lastWallTime) {
+            overhead = (double) (cpuTime - lastCpuTime) / (wallTime - lastWallTime);
+        }
+        lastCpuTime = cpuTime;
+        lastWallTime = wallTime;
+        if (pending.getAndSet(new Sample(rows, id, stack, overhead)) == null) {
+            SwingUtilities.invokeLater(display);
+        }
+    }
+
+    void close() {
+        visible = false;
+        scheduler.shutdownNow();
+        frame.dispose();
+        restoreMeasurements();
+        synchronized (StackViewer.class) {
+            if (instance == this) {
+                instance = null;
+            }
         }
     }
 
     void runMonitor() {
-        Thread thread = new Thread(new Runnable() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Inspector Thread");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
 
             @Override
             public void run() {
-                while (true) {
-                    if (frame.isVisible()) {
-                        updateView(Thread.getAllStackTraces());
-                    }
-                    Thread.yield();
+                try {
+                    sample();
+                } catch (Throwable t) {
+                    t.printStackTrace(); // uma falha n&atilde;o deve cancelar as pr&oacute;ximas amostragens
                 }
             }
-        }, "Inspector Thread");
-        thread.setPriority(Thread.NORM_PRIORITY - 1);
-        thread.start();
+        }, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param exitOnClose
+     *            <code>true</code> para encerrar a JVM ao fechar a janela ou <code>false</code> para somente fechar a janela e encerrar a amostragem
+     */
+    void setExitOnClose(boolean exitOnClose) {
+        this.exitOnClose = exitOnClose;
     }
 
     void show() {
+        visible = true;
         frame.setVisible(true);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,9 @@
 package br.com.staroski.tools.analysis;
 
+import java.awt.GraphicsEnvironment;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
 
 import javax.swing.UIManager;
 
@@ -17,12 +20,30 @@ import javax.swing.UIManager;
  *     &lt;inspector&gt;  &eacute; br.com.staroski.analysis.ThreadInspector
  *     &lt;main-class&gt; &eacute; a classe a ser executada
  *     &lt;args&gt;       s&atilde;o os argumentos para o m&eacute;todo 'main' da &lt;main-class&gt;
+ * 
+ * Propriedades de sistema opcionais:
+ *     -Dstaroski.inspector.interval=&lt;ms&gt;   intervalo de amostragem das threads em milissegundos, o padr&atilde;o &eacute; 500 ou 10 sem interface gr&aacute;fica
+ *     -Dstaroski.inspector.depth=&lt;n&gt;       profundidade m&aacute;xima das pilhas capturadas, o padr&atilde;o &eacute; 128
+ *     -Dstaroski.inspector.output=&lt;file&gt;   executa sem interface gr&aacute;fica e grava as pilhas colapsadas no arquivo
+ *     -Dstaroski.inspector.threads=&lt;regex&gt; amostra somente as threads cujo nome cont&eacute;m a express&atilde;o, sem interface gr&aacute;fica
+ *     -Dstaroski.inspector.maxStacks=&lt;n&gt;   quantidade m&aacute;xima de pilhas distintas, sem interface gr&aacute;fica, o padr&atilde;o &eacute; 100000
  * </PRE>
  * 
+ * Sem interface gr&aacute;fica, quando a propriedade <code>staroski.inspector.output</code> &eacute; informada ou quando a JVM &eacute; headless, as
+ * threads s&atilde;o amostradas pelo {@link SamplingProfiler} e as pilhas colapsadas s&atilde;o gravadas quando o m&eacute;todo <code>main</code>
+ * da &lt;main-class&gt; retorna ou quando a JVM &eacute; encerrada, no arquivo informado ou em <code>threads.collapsed</code>.<BR>
+ * Para inspecionar uma JVM que j&aacute; est&aacute; em execu&ccedil;&atilde;o, veja {@link InspectorAgent}.
+ * 
  * @author Ricardo Artur Staroski
  */
 public final class ThreadInspector {
 
+    static final String OUTPUT_PROPERTY = "staroski.inspector.output";
+    static final String THREADS_PROPERTY = "staroski.inspector.threads";
+    static final String MAX_STACKS_PROPERTY = "staroski.inspector.maxStacks";
+
+    private static final Map<String, String> NO_OPTIONS = Collections.emptyMap();
+
     /**
      * Ponto de entrada do aplicativo.
      * 
@@ -39,17 +60,31 @@ public final class ThreadInspector {
             System.out.println("    <inspector>  is " + ThreadInspector.class.getName());
             System.out.println("    <main-class> is the class to be executed");
             System.out.println("    <args>       are the arguments for method 'main' of <main-class>");
+            System.out.println("optional system properties");
+            System.out.println("    -D" + StackViewer.INTERVAL_PROPERTY + "=<ms>   sampling interval in milliseconds, default is 500 or 10 when headless");
+            System.out.println("    -D" + StackViewer.DEPTH_PROPERTY + "=<n>       maximum depth of captured stacks, default is " + StackViewer.DEFAULT_DEPTH);
+            System.out.println("    -D" + OUTPUT_PROPERTY + "=<file>   run headless and write collapsed stacks to <file>");
+            System.out.println("    -D" + THREADS_PROPERTY + "=<regex> headless only, sample only threads whose name contains <regex>");
+            System.out.println("    -D" + MAX_STACKS_PROPERTY + "=<n>   headless only, maximum number of distinct stacks, default is "
+                               + SamplingProfiler.DEFAULT_MAX_STACKS);
             System.exit(0);
         }
-        try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-        } catch (Throwable e) {
-            System.err.println("warning: could not use system's native look & feel");
+        final boolean headless = System.getProperty(OUTPUT_PROPERTY) != null || GraphicsEnvironment.isHeadless();
+        if (headless) {
+            HeadlessProfiler.start(NO_OPTIONS, true);
+        } else {
+            try {
+                UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+            } catch (Throwable e) {
+                System.err.println("warning: could not use system's native look & feel");
+            }
         }
         try {
-            System.out.println("opening inspector...");
-            StackViewer.getInstance().show();
-            System.out.println("ispector opened!");
+            if (!headless) {
+                System.out.println("opening inspector...");
+                StackViewer.getInstance().show();
+                System.out.println("ispector opened!");
+            }
 
             String mainClass = args[0];
             int length = args.length - 1;
@@ -68,12 +103,55 @@ public final class ThreadInspector {
             System.out.println("invoking 'main' method...");
             main.invoke(null, (Object) classArgs);
             System.out.println("method invoked!");
+
+            if (headless) {
+                HeadlessProfiler.stop();
+            }
         } catch (Throwable t) {
             t.printStackTrace();
             System.exit(0);
         }
     }
 
+    /**
+     * Valor inteiro da op&ccedil;&atilde;o informada ou, na sua aus&ecirc;ncia, da propriedade de sistema, como em
+     * {@link Integer#getInteger(String, int)}
+     */
+    static int intOption(Map<String, String> options, String name, String property, int defaultValue) {
+        String value = option(options, name, property);
+        if (value != null) {
+            try {
+                return Integer.decode(value);
+            } catch (NumberFormatException e) {
+                // valor inv&aacute;lido, utiliza o padr&atilde;o
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Valor inteiro da op&ccedil;&atilde;o informada ou, na sua aus&ecirc;ncia, da propriedade de sistema, como em {@link Long#getLong(String, long)}
+     */
+    static long longOption(Map<String, String> options, String name, String property, long defaultValue) {
+        String value = option(options, name, property);
+        if (value != null) {
+            try {
+                return Long.decode(value);
+            } catch (NumberFormatException e) {
+                // valor inv&aacute;lido, utiliza o padr&atilde;o
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Valor da op&ccedil;&atilde;o informada ou, na sua aus&ecirc;ncia, da propriedade de sistema
+     */
+    static String option(Map<String, String> options, String name, String property) {
+        String value = options.get(name);
+        return value != null ? value : System.getProperty(property);
+    }
+
     private ThreadInspector() {
         throw new UnsupportedOperationException(getClass().getName() + " can not be instantiated");
     }
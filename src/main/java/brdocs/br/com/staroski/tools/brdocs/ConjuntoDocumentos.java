@@ -0,0 +1,286 @@
+package br.com.staroski.tools.brdocs;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Conjunto de {@link DocumentosCompactos documentos compactados}, para deduplicao e consulta de grandes quantidades de CPFs e CNPJs.<BR>
+ * Os documentos so armazenados em uma tabela de espalhamento com endereamento aberto e sondagem linear, sem criar objetos por documento, ocupando
+ * cerca de 11 bytes por documento.<BR>
+ * <B>Observaes</B><BR>
+ * A tabela  dividida em segmentos, que podem ser alocados no heap ou fora dele, atravs de {@link ByteBuffer#allocateDirect(int) buffers diretos},
+ * o que permite armazenar mais documentos do que cabem em um nico array e no sobrecarrega o coletor de lixo. A memria fora do heap  liberada
+ * quando o conjunto deixa de ser referenciado.<BR>
+ * A tabela dobra de tamanho quando fica com mais de trs quartos de ocupao.<BR>
+ * As instncias desta classe no so thread-safe.
+ * 
+ * @author <a href="https://github.com/staroski">Ricardo Artur Staroski</a>
+ *
+ */
+public final class ConjuntoDocumentos {
+
+    /**
+     * Segmentos de memria onde a tabela  armazenada, cada posio vazia contm {@link DocumentosCompactos#NENHUM}.
+     */
+    private static abstract class Tabela {
+
+        final long capacidade;
+        final long mascara;
+
+        Tabela(long capacidade) {
+            this.capacidade = capacidade;
+            this.mascara = capacidade - 1;
+        }
+
+        abstract long get(long posicao);
+
+        abstract void set(long posicao, long documento);
+    }
+
+    private static final class TabelaForaDoHeap extends Tabela {
+
+        private final LongBuffer[] segmentos;
+
+        TabelaForaDoHeap(long capacidade) {
+            super(capacidade);
+            segmentos = new LongBuffer[segmentos(capacidade)];
+            for (int indice = 0; indice < segmentos.length; indice++) {
+                int tamanho = (int) Math.min(TAMANHO_SEGMENTO, capacidade);
+                segmentos[indice] = ByteBuffer.allocateDirect(tamanho * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+            }
+        }
+
+        @Override
+        long get(long posicao) {
+            return segmentos[(int) (posicao >>> BITS_SEGMENTO)].get((int) (posicao & MASCARA_SEGMENTO));
+        }
+
+        @Override
+        void set(long posicao, long documento) {
+            segmentos[(int) (posicao >>> BITS_SEGMENTO)].put((int) (posicao & MASCARA_SEGMENTO), documento);
+        }
+    }
+
+    private static final class TabelaNoHeap extends Tabela {
+
+        private final long[][] segmentos;
+
+        TabelaNoHeap(long capacidade) {
+            super(capacidade);
+            segmentos = new long[segmentos(capacidade)][];
+            for (int indice = 0; indice < segmentos.length; indice++) {
+                segmentos[indice] = new long[(int) Math.min(TAMANHO_SEGMENTO, capacidade)];
+            }
+        }
+
+        @Override
+        long get(long posicao) {
+            return segmentos[(int) (posicao >>> BITS_SEGMENTO)][(int) (posicao & MASCARA_SEGMENTO)];
+        }
+
+        @Override
+        void set(long posicao, long documento) {
+            segmentos[(int) (posicao >>> BITS_SEGMENTO)][(int) (posicao & MASCARA_SEGMENTO)] = documento;
+        }
+    }
+
+    // cada segmento tem 2^20 posies, ou seja, 8 MB
+    private static final int BITS_SEGMENTO = 20;
+    private static final int TAMANHO_SEGMENTO = 1 << BITS_SEGMENTO;
+    private static final long MASCARA_SEGMENTO = TAMANHO_SEGMENTO - 1;
+
+    private static final long CAPACIDADE_MINIMA = 16;
+    private static final long CAPACIDADE_MAXIMA = 1L << 62;
+
+    private final boolean foraDoHeap;
+    private Tabela tabela;
+    private long tamanho;
+
+    /**
+     * Cria um conjunto vazio no heap.
+     */
+    public ConjuntoDocumentos() {
+        this(0, false);
+    }
+
+    /**
+     * Cria um conjunto vazio.
+     * 
+     * @param quantidadeEsperada
+     *            A quantidade de documentos que se espera armazenar, para evitar que a tabela precise crescer.
+     * @param foraDoHeap
+     *            <code>true</code> para armazenar os documentos fora do heap e <code>false</code> para armazen-los no heap.
+     */
+    public ConjuntoDocumentos(long quantidadeEsperada, boolean foraDoHeap) {
+        if (quantidadeEsperada < 0) {
+            throw new IllegalArgumentException("quantidadeEsperada cannot be negative");
+        }
+        this.foraDoHeap = foraDoHeap;
+        this.tabela = criarTabela(capacidade(quantidadeEsperada));
+    }
+
+    /**
+     * Adiciona o documento compactado informado ao conjunto.
+     * 
+     * @param documento
+     *            O {@link DocumentosCompactos documento compactado}.
+     * 
+     * @return <code>true</code> se o documento foi adicionado e <code>false</code> se j estava no conjunto.
+     */
+    public boolean adicionar(long documento) {
+        verificar(documento);
+        long posicao = posicao(tabela, documento);
+        if (tabela.get(posicao) == documento) {
+            return false;
+        }
+        if (tamanho + 1 > limite(tabela.capacidade)) {
+            crescer();
+            posicao = posicao(tabela, documento);
+        }
+        tabela.set(posicao, documento);
+        tamanho++;
+        return true;
+    }
+
+    /**
+     * @return A quantidade de posies da tabela.
+     */
+    public long capacidade() {
+        return tabela.capacidade;
+    }
+
+    /**
+     * Verifica se o documento compactado informado est no conjunto.
+     * 
+     * @param documento
+     *            O {@link DocumentosCompactos documento compactado}.
+     * 
+     * @return <code>true</code> se o documento est no conjunto e <code>false</code> caso contrrio.
+     */
+    public boolean contem(long documento) {
+        verificar(documento);
+        return tabela.get(posicao(tabela, documento)) == documento;
+    }
+
+    /**
+     * @return <code>true</code> se os documentos so armazenados fora do heap e <code>false</code> caso contrrio.
+     */
+    public boolean isForaDoHeap() {
+        return foraDoHeap;
+    }
+
+    /**
+     * Remove todos os documentos do conjunto, mantendo sua capacidade.
+     */
+    public void limpar() {
+        for (long posicao = 0; posicao < tabela.capacidade; posicao++) {
+            tabela.set(posicao, DocumentosCompactos.NENHUM);
+        }
+        tamanho = 0;
+    }
+
+    /**
+     * Remove o documento compactado informado do conjunto.
+     * 
+     * @param documento
+     *            O {@link DocumentosCompactos documento compactado}.
+     * 
+     * @return <code>true</code> se o documento foi removido e <code>false</code> se no estava no conjunto.
+     */
+    public boolean remover(long documento) {
+        verificar(documento);
+        final Tabela tabela = this.tabela;
+        final long mascara = tabela.mascara;
+        long vazia = posicao(tabela, documento);
+        if (tabela.get(vazia) != documento) {
+            return false;
+        }
+        // desloca para trs os documentos seguintes da sequncia, para que nenhum fique inalcanvel
+        long posicao = vazia;
+        while (true) {
+            posicao = (posicao + 1) & mascara;
+            long seguinte = tabela.get(posicao);
+            if (seguinte == DocumentosCompactos.NENHUM) {
+                break;
+            }
+            long ideal = espalhar(seguinte) & mascara;
+            if (((posicao - ideal) & mascara) >= ((posicao - vazia) & mascara)) { // a posio vazia est entre a ideal e a atual
+                tabela.set(vazia, seguinte);
+                vazia = posicao;
+            }
+        }
+        tabela.set(vazia, DocumentosCompactos.NENHUM);
+        tamanho--;
+        return true;
+    }
+
+    /**
+     * @return A quantidade de documentos no conjunto.
+     */
+    public long tamanho() {
+        return tamanho;
+    }
+
+    @Override
+    public String toString() {
+        return "ConjuntoDocumentos[tamanho=" + tamanho + ", capacidade=" + tabela.capacidade + ", foraDoHeap=" + foraDoHeap + "]";
+    }
+
+    private Tabela criarTabela(long capacidade) {
+        return foraDoHeap ? new TabelaForaDoHeap(capacidade) : new TabelaNoHeap(capacidade);
+    }
+
+    private void crescer() {
+        final Tabela antiga = tabela;
+        if (antiga.capacidade >= CAPACIDADE_MAXIMA) {
+            throw new IllegalStateException("set is full");
+        }
+        final Tabela nova = criarTabela(antiga.capacidade * 2);
+        for (long posicao = 0; posicao < antiga.capacidade; posicao++) {
+            long documento = antiga.get(posicao);
+            if (documento != DocumentosCompactos.NENHUM) {
+                nova.set(posicao(nova, documento), documento);
+            }
+        }
+        tabela = nova;
+    }
+
+    // menor potncia de 2 capaz de armazenar a quantidade informada sem ultrapassar trs quartos de ocupao
+    private static long capacidade(long quantidade) {
+        long capacidade = CAPACIDADE_MINIMA;
+        while (limite(capacidade) < quantidade && capacidade < CAPACIDADE_MAXIMA) {
+            capacidade <<= 1;
+        }
+        return capacidade;
+    }
+
+    private static long espalhar(long documento) {
+        return GeradorDocumentos.misturar(documento);
+    }
+
+    private static long limite(long capacidade) {
+        return capacidade - (capacidade >>> 2);
+    }
+
+    private static int segmentos(long capacidade) {
+        return (int) ((capacidade + TAMANHO_SEGMENTO - 1) >>> BITS_SEGMENTO);
+    }
+
+    // posio onde o documento est ou, se no estiver na tabela, a posio vazia onde deve ser inserido
+    private static long posicao(Tabela tabela, long documento) {
+        final long mascara = tabela.mascara;
+        long posicao = espalhar(documento) & mascara;
+        long atual;
+        while ((atual = tabela.get(posicao)) != documento && atual != DocumentosCompactos.NENHUM) {
+            posicao = (posicao + 1) & mascara;
+        }
+        return posicao;
+    }
+
+    private static void verificar(long documento) {
+        if (documento == DocumentosCompactos.NENHUM) {
+            throw new IllegalArgumentException("documento cannot be NENHUM");
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.staroski.tools.brdocs;
 
-import java.util.Random;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Classe utilitria com mtodos estticos para:<br>
@@ -16,11 +17,131 @@ import java.util.Random;
  */
 public final class Documentos {
 
-    private static final int TAMANHO_CPF = 11;
-    private static final int TAMANHO_CNPJ = 14;
+    /**
+     * Regras de um formato de documento, somente com dgitos ou formatado conforme uma mscara, pr-calculadas para cada posio.<BR>
+     * Cada posio tem uma tabela com o valor de cada caractere ASCII permitido e um multiplicador que acumula o valor em um nico <code>long</code>
+     * com todas as informaes necessrias para a validao, de forma que cada caractere custe somente uma consulta e uma multiplicao, veja
+     * {@link #passo(long, int, int)}.
+     */
+    static final class Formato {
+
+        /**
+         * Estado que indica um documento invlido.
+         */
+        static final long INVALIDO = -1;
+
+        // campos do estado da validao: bits 0 a 11 com a soma ponderada do primeiro verificador, bits 12 a 23 com a do segundo verificador,
+        // bits 24 a 27 e 28 a 31 com os dois verificadores lidos, bits 32 a 41 com a soma dos dgitos e bits 42 a 56 com a soma dos seus quadrados
+        private static final int SOMA2 = 12;
+        private static final int VERIFICADOR1 = 24;
+        private static final int VERIFICADOR2 = 28;
+        private static final int SOMA_DIGITOS = 32;
+        private static final int SOMA_QUADRADOS = 42;
+
+        final int comprimento;
+        private final int digitos;
+        private final byte[] valores; // 128 valores por posio, -1 para caracteres no permitidos
+        private final long[] multiplicadores; // um por posio, 0 para separadores
+
+        Formato(String mascara, int[] pesos, boolean letras) {
+            comprimento = mascara.length();
+            digitos = pesos.length + 1;
+            valores = new byte[comprimento * 128];
+            multiplicadores = new long[comprimento];
+            final byte[] numericos = valores(false);
+            final byte[] permitidos = valores(letras);
+            int digito = 0;
+            for (int posicao = 0; posicao < comprimento; posicao++) {
+                final int tabela = posicao * 128;
+                final char esperado = mascara.charAt(posicao);
+                if (esperado != '#') {
+                    Arrays.fill(valores, tabela, tabela + 128, (byte) -1);
+                    valores[tabela + esperado] = 0; // separador obrigatrio, no participa da validao
+                    continue;
+                }
+                // os dgitos verificadores so sempre numricos
+                System.arraycopy(digito < pesos.length - 1 ? permitidos : numericos, 0, valores, tabela, 128);
+                long multiplicador = 1L << SOMA_DIGITOS;
+                if (digito < pesos.length - 1) {
+                    multiplicador += pesos[digito + 1] + ((long) pesos[digito] << SOMA2);
+                } else if (digito == pesos.length - 1) {
+                    multiplicador += ((long) pesos[digito] << SOMA2) + (1L << VERIFICADOR1);
+                } else {
+                    multiplicador += 1L << VERIFICADOR2;
+                }
+                multiplicadores[posicao] = multiplicador;
+                digito++;
+            }
+        }
+
+        /**
+         * Acumula um caractere do documento no estado da validao, sem criar objetos.<BR>
+         *  a nica implementao da atualizao do estado, chamada por um lao especfico para cada tipo de documento (array de bytes ASCII,
+         * {@link ByteBuffer buffer} de bytes ASCII, array de caracteres e {@link CharSequence}), de forma que cada chamada seja monomrfica.<BR>
+         * As somas ponderadas dos dois dgitos verificadores so acumuladas ao mesmo tempo: o primeiro verificador utiliza os pesos a partir da
+         * segunda posio e o segundo verificador utiliza os pesos a partir da primeira posio, acrescido do primeiro verificador multiplicado pelo
+         * ltimo peso.
+         * 
+         * @param estado
+         *            O estado atual, inicialmente <code>0</code>.
+         * @param caractere
+         *            O caractere.
+         * @param posicao
+         *            A posio do caractere no documento.
+         * 
+         * @return O novo estado ou {@link #INVALIDO} se o caractere no for permitido na posio informada.
+         */
+        long passo(long estado, int caractere, int posicao) {
+            final int valor = valor(caractere, posicao);
+            if (valor < 0) {
+                return INVALIDO;
+            }
+            return estado + valor * multiplicadores[posicao] + ((long) (valor * valor) << SOMA_QUADRADOS);
+        }
+
+        /**
+         * @return <code>true</code> se a posio informada contm um separador da mscara e <code>false</code> se contm um dgito.
+         */
+        boolean separador(int posicao) {
+            return multiplicadores[posicao] == 0;
+        }
+
+        /**
+         * Verifica se o estado final da validao corresponde a um documento vlido.<BR>
+         * Documentos com todos os dgitos iguais so invlidos: a soma dos quadrados multiplicada pela quantidade de dgitos  igual ao quadrado da
+         * soma dos dgitos somente neste caso.
+         */
+        boolean valido(long estado) {
+            if (estado == INVALIDO) {
+                return false;
+            }
+            final long soma = estado >>> SOMA_DIGITOS & 0x3FF;
+            if (digitos * (estado >>> SOMA_QUADRADOS) == soma * soma) {
+                return false;
+            }
+            return digito((int) (estado & 0xFFF)) == (int) (estado >>> VERIFICADOR1 & 0xF)
+                   && digito((int) (estado >>> SOMA2 & 0xFFF)) == (int) (estado >>> VERIFICADOR2 & 0xF);
+        }
+
+        /**
+         * @return O valor do caractere informado na posio informada, <code>0</code> para o separador esperado pela mscara ou <code>-1</code> se o
+         *         caractere no for permitido na posio informada.
+         */
+        int valor(int caractere, int posicao) {
+            return caractere < 128 ? valores[posicao << 7 | caractere] : -1;
+        }
+    }
+
+    static final int[] PESOS_CPF = { 11, 10, 9, 8, 7, 6, 5, 4, 3, 2 };
+    static final int[] PESOS_CNPJ = { 6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2 };
+
+    // '#' indica a posio de um dgito, os demais caracteres so separadores obrigatrios
+    static final String MASCARA_CPF = "###.###.###-##";
+    static final String MASCARA_CNPJ = "##.###.###/####-##";
 
-    private static final int[] PESOS_CPF = { 11, 10, 9, 8, 7, 6, 5, 4, 3, 2 };
-    private static final int[] PESOS_CNPJ = { 6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2 };
+    // formatos aceitos de cada documento: somente com dgitos e formatado
+    static final Formato[] FORMATOS_CPF = formatos(MASCARA_CPF, PESOS_CPF, false);
+    static final Formato[] FORMATOS_CNPJ = formatos(MASCARA_CNPJ, PESOS_CNPJ, true);
 
     /**
      * Gera um CNPJ aleatrio vlido.
@@ -30,16 +151,17 @@ public final class Documentos {
      * @see Documentos#cpfValido(String)
      * @see Documentos#cpfAleatorio()
      * @see Documentos#cnpjValido(String)
+     * @see GeradorDocumentos
      */
     public static String cnpjAleatorio() {
-        String digitos = digitos(TAMANHO_CNPJ - 2);
-        String verificador1 = verificador(digitos, PESOS_CNPJ);
-        String verificador2 = verificador(digitos + verificador1, PESOS_CNPJ);
-        return digitos + verificador1 + verificador2;
+        return GeradorDocumentos.aleatorio(PESOS_CNPJ);
     }
 
     /**
-     * Verifica se o CNPJ informado  vlido.
+     * Verifica se o CNPJ informado  vlido.<BR>
+     * So aceitos CNPJs somente com dgitos (<code>12345678000195</code>) ou formatados (<code>12.345.678/0001-95</code>).<BR>
+     * Tambm so aceitos CNPJs alfanumricos, que podem conter letras maisculas nas 12 primeiras posies (<code>12ABC34501DE35</code> ou
+     * <code>12.ABC.345/01DE-35</code>), os dgitos verificadores so sempre numricos.
      * 
      * @param cnpj
      *            O CNPJ a ser verificado.
@@ -51,19 +173,100 @@ public final class Documentos {
      * @see Documentos#cnpjAleatorio()
      */
     public static boolean cnpjValido(final String cnpj) {
+        return cnpjValido((CharSequence) cnpj);
+    }
+
+    /**
+     * Verifica se o CNPJ informado  vlido, sem criar objetos.<BR>
+     * So aceitos CNPJs somente com dgitos (<code>12345678000195</code>) ou formatados (<code>12.345.678/0001-95</code>), numricos ou
+     * alfanumricos, veja {@link #cnpjValido(String)}.
+     * 
+     * @param cnpj
+     *            O CNPJ a ser verificado.
+     * 
+     * @return <code>true</code> se o CNPJ informado for vlido e <code>false</code> caso contrrio.
+     * 
+     * @see Documentos#cnpjValido(String)
+     */
+    public static boolean cnpjValido(final CharSequence cnpj) {
         if (cnpj == null) {
             return false;
         }
-        if (cnpj.length() != TAMANHO_CNPJ) {
+        return valido(cnpj, 0, cnpj.length(), FORMATOS_CNPJ);
+    }
+
+    /**
+     * Verifica se o CNPJ contido no intervalo informado de um array de caracteres  vlido, sem criar objetos.<BR>
+     * So aceitos CNPJs somente com dgitos (<code>12345678000195</code>) ou formatados (<code>12.345.678/0001-95</code>), numricos ou
+     * alfanumricos, veja {@link #cnpjValido(String)}.
+     * 
+     * @param cnpj
+     *            O array que contm o CNPJ a ser verificado.
+     * @param inicio
+     *            A posio do primeiro caractere do CNPJ.
+     * @param comprimento
+     *            A quantidade de caracteres do CNPJ.
+     * 
+     * @return <code>true</code> se o CNPJ informado for vlido e <code>false</code> caso contrrio.
+     * 
+     * @see Documentos#cnpjValido(String)
+     */
+    public static boolean cnpjValido(final char[] cnpj, final int inicio, final int comprimento) {
+        if (cnpj == null) {
             return false;
         }
-        if (cnpj.matches(cnpj.charAt(0) + "{" + TAMANHO_CNPJ + "}")) {
+        verificarIntervalo(cnpj.length, inicio, comprimento);
+        return valido(cnpj, inicio, inicio + comprimento, FORMATOS_CNPJ);
+    }
+
+    /**
+     * Verifica se o CNPJ contido no intervalo informado de um array de bytes ASCII  vlido, sem criar objetos.<BR>
+     * So aceitos CNPJs somente com dgitos (<code>12345678000195</code>) ou formatados (<code>12.345.678/0001-95</code>), numricos ou
+     * alfanumricos, veja {@link #cnpjValido(String)}.
+     * 
+     * @param cnpj
+     *            O array que contm o CNPJ a ser verificado, codificado em ASCII.
+     * @param inicio
+     *            A posio do primeiro byte do CNPJ.
+     * @param comprimento
+     *            A quantidade de bytes do CNPJ.
+     * 
+     * @return <code>true</code> se o CNPJ informado for vlido e <code>false</code> caso contrrio.
+     * 
+     * @see Documentos#cnpjValido(String)
+     */
+    public static boolean cnpjValido(final byte[] cnpj, final int inicio, final int comprimento) {
+        if (cnpj == null) {
+            return false;
+        }
+        verificarIntervalo(cnpj.length, inicio, comprimento);
+        return valido(cnpj, inicio, inicio + comprimento, FORMATOS_CNPJ);
+    }
+
+    /**
+     * Verifica se o CNPJ contido no intervalo informado de um {@link ByteBuffer buffer} de bytes ASCII  vlido, sem criar objetos e sem alterar a
+     * posio do buffer.<BR>
+     * Permite validar documentos diretamente de arquivos mapeados em memria, veja {@link ValidadorEmLote}.<BR>
+     * So aceitos CNPJs somente com dgitos (<code>12345678000195</code>) ou formatados (<code>12.345.678/0001-95</code>), numricos ou
+     * alfanumricos, veja {@link #cnpjValido(String)}.
+     * 
+     * @param cnpj
+     *            O buffer que contm o CNPJ a ser verificado, codificado em ASCII.
+     * @param inicio
+     *            A posio absoluta do primeiro byte do CNPJ.
+     * @param comprimento
+     *            A quantidade de bytes do CNPJ.
+     * 
+     * @return <code>true</code> se o CNPJ informado for vlido e <code>false</code> caso contrrio.
+     * 
+     * @see Documentos#cnpjValido(String)
+     */
+    public static boolean cnpjValido(final ByteBuffer cnpj, final int inicio, final int comprimento) {
+        if (cnpj == null) {
             return false;
         }
-        String digitos = cnpj.substring(0, TAMANHO_CNPJ - 2);
-        String verificador1 = verificador(digitos, PESOS_CNPJ);
-        String verificador2 = verificador(digitos + verificador1, PESOS_CNPJ);
-        return (digitos + verificador1 + verificador2).equals(cnpj);
+        verificarIntervalo(cnpj.limit(), inicio, comprimento);
+        return valido(cnpj, inicio, inicio + comprimento, FORMATOS_CNPJ);
     }
 
     /**
@@ -74,16 +277,15 @@ public final class Documentos {
      * @see Documentos#cpfValido(String)
      * @see Documentos#cnpjValido(String)
      * @see Documentos#cnpjAleatorio()
+     * @see GeradorDocumentos
      */
     public static String cpfAleatorio() {
-        String digitos = digitos(TAMANHO_CPF - 2);
-        String verificador1 = verificador(digitos, PESOS_CPF);
-        String verificador2 = verificador(digitos + verificador1, PESOS_CPF);
-        return digitos + verificador1 + verificador2;
+        return GeradorDocumentos.aleatorio(PESOS_CPF);
     }
 
     /**
-     * Verifica se o CPF informado  vlido.
+     * Verifica se o CPF informado  vlido.<BR>
+     * So aceitos CPFs somente com dgitos (<code>12345678909</code>) ou formatados (<code>123.456.789-09</code>).
      * 
      * @param cpf
      *            O CPF a ser verificado.
@@ -95,46 +297,210 @@ public final class Documentos {
      * @see Documentos#cnpjAleatorio()
      */
     public static boolean cpfValido(final String cpf) {
+        return cpfValido((CharSequence) cpf);
+    }
+
+    /**
+     * Verifica se o CPF informado  vlido, sem criar objetos.<BR>
+     * So aceitos CPFs somente com dgitos (<code>12345678909</code>) ou formatados (<code>123.456.789-09</code>).
+     * 
+     * @param cpf
+     *            O CPF a ser verificado.
+     * 
+     * @return <code>true</code> se o CPF informado for vlido e <code>false</code> caso contrrio.
+     * 
+     * @see Documentos#cpfValido(String)
+     */
+    public static boolean cpfValido(final CharSequence cpf) {
+        if (cpf == null) {
+            return false;
+        }
+        return valido(cpf, 0, cpf.length(), FORMATOS_CPF);
+    }
+
+    /**
+     * Verifica se o CPF contido no intervalo informado de um array de caracteres  vlido, sem criar objetos.<BR>
+     * So aceitos CPFs somente com dgitos (<code>12345678909</code>) ou formatados (<code>123.456.789-09</code>).
+     * 
+     * @param cpf
+     *            O array que contm o CPF a ser verificado.
+     * @param inicio
+     *            A posio do primeiro caractere do CPF.
+     * @param comprimento
+     *            A quantidade de caracteres do CPF.
+     * 
+     * @return <code>true</code> se o CPF informado for vlido e <code>false</code> caso contrrio.
+     * 
+     * @see Documentos#cpfValido(String)
+     */
+    public static boolean cpfValido(final char[] cpf, final int inicio, final int comprimento) {
         if (cpf == null) {
             return false;
         }
-        if (cpf.length() != TAMANHO_CPF) {
+        verificarIntervalo(cpf.length, inicio, comprimento);
+        return valido(cpf, inicio, inicio + comprimento, FORMATOS_CPF);
+    }
+
+    /**
+     * Verifica se o CPF contido no intervalo informado de um array de bytes ASCII  vlido, sem criar objetos.<BR>
+     * So aceitos CPFs somente com dgitos (<code>12345678909</code>) ou formatados (<code>123.456.789-09</code>).
+     * 
+     * @param cpf
+     *            O array que contm o CPF a ser verificado, codificado em ASCII.
+     * @param inicio
+     *            A posio do primeiro byte do CPF.
+     * @param comprimento
+     *            A quantidade de bytes do CPF.
+     * 
+     * @return <code>true</code> se o CPF informado for vlido e <code>false</code> caso contrrio.
+     * 
+     * @see Documentos#cpfValido(String)
+     */
+    public static boolean cpfValido(final byte[] cpf, final int inicio, final int comprimento) {
+        if (cpf == null) {
             return false;
         }
-        if (cpf.matches(cpf.charAt(0) + "{" + TAMANHO_CPF + "}")) {
+        verificarIntervalo(cpf.length, inicio, comprimento);
+        return valido(cpf, inicio, inicio + comprimento, FORMATOS_CPF);
+    }
+
+    /**
+     * Verifica se o CPF contido no intervalo informado de um {@link ByteBuffer buffer} de bytes ASCII  vlido, sem criar objetos e sem alterar a
+     * posio do buffer.<BR>
+     * Permite validar documentos diretamente de arquivos mapeados em memria, veja {@link ValidadorEmLote}.<BR>
+     * So aceitos CPFs somente com dgitos (<code>12345678909</code>) ou formatados (<code>123.456.789-09</code>).
+     * 
+     * @param cpf
+     *            O buffer que contm o CPF a ser verificado, codificado em ASCII.
+     * @param inicio
+     *            A posio absoluta do primeiro byte do CPF.
+     * @param comprimento
+     *            A quantidade de bytes do CPF.
+     * 
+     * @return <code>true</code> se o CPF informado for vlido e <code>false</code> caso contrrio.
+     * 
+     * @see Documentos#cpfValido(String)
+     */
+    public static boolean cpfValido(final ByteBuffer cpf, final int inicio, final int comprimento) {
+        if (cpf == null) {
             return false;
         }
-        String digitos = cpf.substring(0, TAMANHO_CPF - 2);
-        String verificador1 = verificador(digitos, PESOS_CPF);
-        String verificador2 = verificador(digitos + verificador1, PESOS_CPF);
-        return (digitos + verificador1 + verificador2).equals(cpf);
+        verificarIntervalo(cpf.limit(), inicio, comprimento);
+        return valido(cpf, inicio, inicio + comprimento, FORMATOS_CPF);
     }
 
     /**
-     * Utilizado internamente para gerar determinada quantidade de dgitos.
+     * Utilizado internamente para calcular um dgito verificador a partir da soma ponderada dos dgitos.
+     */
+    static int digito(int soma) {
+        soma = 11 - soma % 11;
+        return soma > 9 ? 0 : soma;
+    }
+
+    /**
+     * Utilizado internamente para obter o formato com o comprimento informado.
+     * 
+     * @return O formato ou <code>null</code> se nenhum dos formatos informados tiver o comprimento informado.
      */
-    private static String digitos(int quantidade) {
-        StringBuilder digitos = new StringBuilder();
-        Random random = new Random();
-        for (int contador = 0; contador < quantidade; contador++) {
-            digitos.append(random.nextInt(10));
+    static Formato formato(Formato[] formatos, int comprimento) {
+        for (Formato formato : formatos) {
+            if (formato.comprimento == comprimento) {
+                return formato;
+            }
         }
-        return digitos.toString();
+        return null;
     }
 
     /**
-     * Utilizado internamente para gerar um dgito verificador.
+     * Utilizado internamente para criar os formatos de um documento: somente com dgitos e formatado conforme a mscara informada.
      */
-    private static String verificador(String digitos, int[] pesos) {
-        int soma = 0;
-        int qtdPesos = pesos.length;
-        int qtdDigitos = digitos.length();
-        for (int posicao = qtdDigitos - 1; posicao >= 0; posicao--) {
-            int digito = Character.getNumericValue(digitos.charAt(posicao));
-            soma += digito * pesos[qtdPesos - qtdDigitos + posicao];
+    private static Formato[] formatos(String mascara, int[] pesos, boolean letras) {
+        final char[] digitos = new char[pesos.length + 1];
+        Arrays.fill(digitos, '#');
+        return new Formato[] { new Formato(new String(digitos), pesos, letras), new Formato(mascara, pesos, letras) };
+    }
+
+    /**
+     * Utilizado internamente para validar um documento contido em um array de bytes ASCII, veja {@link Formato#passo(long, int, int)}.
+     */
+    private static boolean valido(byte[] documento, int inicio, int fim, Formato[] formatos) {
+        final Formato formato = formato(formatos, fim - inicio);
+        if (formato == null) {
+            return false;
+        }
+        long estado = 0;
+        for (int posicao = inicio; posicao < fim && estado != Formato.INVALIDO; posicao++) {
+            estado = formato.passo(estado, documento[posicao] & 0xFF, posicao - inicio);
+        }
+        return formato.valido(estado);
+    }
+
+    /**
+     * Utilizado internamente para validar um documento contido em um {@link ByteBuffer buffer} de bytes ASCII, veja {@link Formato#passo(long, int, int)}.
+     */
+    private static boolean valido(ByteBuffer documento, int inicio, int fim, Formato[] formatos) {
+        final Formato formato = formato(formatos, fim - inicio);
+        if (formato == null) {
+            return false;
+        }
+        long estado = 0;
+        for (int posicao = inicio; posicao < fim && estado != Formato.INVALIDO; posicao++) {
+            estado = formato.passo(estado, documento.get(posicao) & 0xFF, posicao - inicio);
+        }
+        return formato.valido(estado);
+    }
+
+    /**
+     * Utilizado internamente para validar um documento contido em um array de caracteres, veja {@link Formato#passo(long, int, int)}.
+     */
+    private static boolean valido(char[] documento, int inicio, int fim, Formato[] formatos) {
+        final Formato formato = formato(formatos, fim - inicio);
+        if (formato == null) {
+            return false;
+        }
+        long estado = 0;
+        for (int posicao = inicio; posicao < fim && estado != Formato.INVALIDO; posicao++) {
+            estado = formato.passo(estado, documento[posicao], posicao - inicio);
+        }
+        return formato.valido(estado);
+    }
+
+    /**
+     * Utilizado internamente para validar um documento contido em uma {@link CharSequence}, veja {@link Formato#passo(long, int, int)}.
+     */
+    private static boolean valido(CharSequence documento, int inicio, int fim, Formato[] formatos) {
+        final Formato formato = formato(formatos, fim - inicio);
+        if (formato == null) {
+            return false;
+        }
+        long estado = 0;
+        for (int posicao = inicio; posicao < fim && estado != Formato.INVALIDO; posicao++) {
+            estado = formato.passo(estado, documento.charAt(posicao), posicao - inicio);
+        }
+        return formato.valido(estado);
+    }
+
+    /**
+     * Utilizado internamente para criar a tabela de valores dos caracteres ASCII.<BR>
+     * O valor de um caractere  o seu cdigo ASCII menos 48, ou seja, os dgitos valem de 0 a 9 e, no CNPJ alfanumrico, as letras maisculas valem
+     * de 17 ( <code>A</code> ) a 42 ( <code>Z</code> ).
+     */
+    private static byte[] valores(boolean letras) {
+        byte[] valores = new byte[128];
+        for (int caractere = 0; caractere < valores.length; caractere++) {
+            boolean permitido = (caractere >= '0' && caractere <= '9') || (letras && caractere >= 'A' && caractere <= 'Z');
+            valores[caractere] = (byte) (permitido ? caractere - '0' : -1);
+        }
+        return valores;
+    }
+
+    /**
+     * Utilizado internamente para verificar se o intervalo informado est contido em um array do tamanho informado.
+     */
+    static void verificarIntervalo(int tamanho, int inicio, int comprimento) {
+        if (inicio < 0 || comprimento < 0 || inicio > tamanho - comprimento) {
+            throw new IllegalArgumentException("invalid range: offset " + inicio + ", length " + comprimento + ", array length " + tamanho);
         }
-        soma = 11 - soma % 11;
-        return String.valueOf(soma > 9 ? 0 : soma);
     }
 
     // Construtor privado, no faz sentido instanciar esta classe
@@ -0,0 +1,277 @@
+package br.com.staroski.tools.brdocs;
+
+/**
+ * Classe utilitria com mtodos estticos para representar CPFs e CNPJs compactados em um <code>long</code>, evitando o custo de memria e de
+ * processamento de {@link String strings}.<BR>
+ * <B>Observaes</B><BR>
+ * O documento compactado contm o tipo de documento nos bits mais significativos e os dgitos do documento, incluindo os verificadores, como um nmero
+ * inteiro nos bits menos significativos. Um documento compactado nunca  igual a {@link #NENHUM}, que representa a ausncia de documento.<BR>
+ * A compactao verifica somente o formato do documento, a verificao dos dgitos verificadores  feita pelo mtodo {@link #valido(long)}.<BR>
+ * Somente CNPJs numricos podem ser compactados, para CNPJs alfanumricos  retornado {@link #NENHUM}.<BR>
+ * Para armazenar grandes quantidades de documentos compactados, veja {@link ConjuntoDocumentos}.
+ * 
+ * @author <a href="https://github.com/staroski">Ricardo Artur Staroski</a>
+ *
+ */
+public final class DocumentosCompactos {
+
+    /**
+     * Valor que representa a ausncia de documento, retornado quando o texto informado no  um documento.
+     */
+    public static final long NENHUM = 0;
+
+    private static final long TIPO_CPF = 1L << 60;
+    private static final long TIPO_CNPJ = 2L << 60;
+    private static final long MASCARA_TIPO = 0xFL << 60;
+
+    private static final int TAMANHO_CPF = 11;
+    private static final int TAMANHO_CNPJ = 14;
+
+    /**
+     * Compacta o CPF ou o CNPJ informado.
+     * 
+     * @param documento
+     *            O CPF ou CNPJ, somente com dgitos ou formatado.
+     * 
+     * @return O documento compactado ou {@link #NENHUM} se o texto informado no for um CPF nem um CNPJ.
+     */
+    public static long compactar(final CharSequence documento) {
+        long compactado = compactarCpf(documento);
+        return compactado != NENHUM ? compactado : compactarCnpj(documento);
+    }
+
+    /**
+     * Compacta o CPF ou o CNPJ contido no array de bytes ASCII informado.
+     * 
+     * @param documento
+     *            O array contendo o CPF ou CNPJ, somente com dgitos ou formatado.
+     * @param inicio
+     *            A posio do primeiro caractere do documento.
+     * @param comprimento
+     *            A quantidade de caracteres do documento.
+     * 
+     * @return O documento compactado ou {@link #NENHUM} se o texto informado no for um CPF nem um CNPJ.
+     */
+    public static long compactar(final byte[] documento, final int inicio, final int comprimento) {
+        long compactado = compactarCpf(documento, inicio, comprimento);
+        return compactado != NENHUM ? compactado : compactarCnpj(documento, inicio, comprimento);
+    }
+
+    /**
+     * Compacta o CNPJ informado.
+     * 
+     * @param cnpj
+     *            O CNPJ, somente com dgitos (<code>12345678000195</code>) ou formatado (<code>12.345.678/0001-95</code>).
+     * 
+     * @return O CNPJ compactado ou {@link #NENHUM} se o texto informado no estiver no formato de um CNPJ.
+     */
+    public static long compactarCnpj(final CharSequence cnpj) {
+        if (cnpj == null) {
+            throw new IllegalArgumentException("cnpj cannot be null");
+        }
+        return compactar(cnpj, Documentos.FORMATOS_CNPJ, TIPO_CNPJ);
+    }
+
+    /**
+     * Compacta o CNPJ contido no array de bytes ASCII informado.
+     * 
+     * @param cnpj
+     *            O array contendo o CNPJ, somente com dgitos ou formatado.
+     * @param inicio
+     *            A posio do primeiro caractere do CNPJ.
+     * @param comprimento
+     *            A quantidade de caracteres do CNPJ.
+     * 
+     * @return O CNPJ compactado ou {@link #NENHUM} se o texto informado no estiver no formato de um CNPJ.
+     */
+    public static long compactarCnpj(final byte[] cnpj, final int inicio, final int comprimento) {
+        if (cnpj == null) {
+            throw new IllegalArgumentException("cnpj cannot be null");
+        }
+        Documentos.verificarIntervalo(cnpj.length, inicio, comprimento);
+        return compactar(cnpj, inicio, inicio + comprimento, Documentos.FORMATOS_CNPJ, TIPO_CNPJ);
+    }
+
+    /**
+     * Compacta o CPF informado.
+     * 
+     * @param cpf
+     *            O CPF, somente com dgitos (<code>12345678909</code>) ou formatado (<code>123.456.789-09</code>).
+     * 
+     * @return O CPF compactado ou {@link #NENHUM} se o texto informado no estiver no formato de um CPF.
+     */
+    public static long compactarCpf(final CharSequence cpf) {
+        if (cpf == null) {
+            throw new IllegalArgumentException("cpf cannot be null");
+        }
+        return compactar(cpf, Documentos.FORMATOS_CPF, TIPO_CPF);
+    }
+
+    /**
+     * Compacta o CPF contido no array de bytes ASCII informado.
+     * 
+     * @param cpf
+     *            O array contendo o CPF, somente com dgitos ou formatado.
+     * @param inicio
+     *            A posio do primeiro caractere do CPF.
+     * @param comprimento
+     *            A quantidade de caracteres do CPF.
+     * 
+     * @return O CPF compactado ou {@link #NENHUM} se o texto informado no estiver no formato de um CPF.
+     */
+    public static long compactarCpf(final byte[] cpf, final int inicio, final int comprimento) {
+        if (cpf == null) {
+            throw new IllegalArgumentException("cpf cannot be null");
+        }
+        Documentos.verificarIntervalo(cpf.length, inicio, comprimento);
+        return compactar(cpf, inicio, inicio + comprimento, Documentos.FORMATOS_CPF, TIPO_CPF);
+    }
+
+    /**
+     * Obtm os dgitos do documento compactado informado.
+     * 
+     * @param documento
+     *            O documento compactado.
+     * 
+     * @return O documento somente com dgitos.
+     */
+    public static String digitos(final long documento) {
+        final char[] texto = new char[tamanho(documento)];
+        long numero = documento & ~MASCARA_TIPO;
+        for (int posicao = texto.length - 1; posicao >= 0; posicao--) {
+            texto[posicao] = (char) ('0' + numero % 10);
+            numero /= 10;
+        }
+        return new String(texto);
+    }
+
+    /**
+     * Formata o documento compactado informado.
+     * 
+     * @param documento
+     *            O documento compactado.
+     * 
+     * @return O documento formatado, por exemplo <code>123.456.789-09</code> ou <code>12.345.678/0001-95</code>.
+     */
+    public static String formatar(final long documento) {
+        final String mascara = mascara(documento);
+        final char[] texto = mascara.toCharArray();
+        long numero = documento & ~MASCARA_TIPO;
+        for (int posicao = texto.length - 1; posicao >= 0; posicao--) {
+            if (texto[posicao] == '#') {
+                texto[posicao] = (char) ('0' + numero % 10);
+                numero /= 10;
+            }
+        }
+        return new String(texto);
+    }
+
+    /**
+     * @param documento
+     *            O documento compactado.
+     * 
+     * @return <code>true</code> se o documento compactado informado for um CNPJ e <code>false</code> caso contrrio.
+     */
+    public static boolean isCnpj(final long documento) {
+        return (documento & MASCARA_TIPO) == TIPO_CNPJ;
+    }
+
+    /**
+     * @param documento
+     *            O documento compactado.
+     * 
+     * @return <code>true</code> se o documento compactado informado for um CPF e <code>false</code> caso contrrio.
+     */
+    public static boolean isCpf(final long documento) {
+        return (documento & MASCARA_TIPO) == TIPO_CPF;
+    }
+
+    /**
+     * Verifica se o documento compactado informado  vlido, sem descompact-lo.
+     * 
+     * @param documento
+     *            O documento compactado.
+     * 
+     * @return <code>true</code> se o documento compactado informado for um CPF ou CNPJ vlido e <code>false</code> caso contrrio.
+     */
+    public static boolean valido(final long documento) {
+        final int[] pesos;
+        if (isCpf(documento)) {
+            pesos = Documentos.PESOS_CPF;
+        } else if (isCnpj(documento)) {
+            pesos = Documentos.PESOS_CNPJ;
+        } else {
+            return false;
+        }
+        final long numero = documento & ~MASCARA_TIPO;
+        return numero < GeradorDocumentos.limite(pesos) * 100 && GeradorDocumentos.documento(numero / 100, pesos) == numero;
+    }
+
+    /**
+     * Utilizado internamente para compactar um documento contido em um array de bytes ASCII, veja {@link #passo(long, int, int, Documentos.Formato)}.
+     */
+    private static long compactar(byte[] documento, int inicio, int fim, Documentos.Formato[] formatos, long tipo) {
+        final Documentos.Formato formato = Documentos.formato(formatos, fim - inicio);
+        if (formato == null) {
+            return NENHUM;
+        }
+        long numero = 0;
+        for (int posicao = inicio; posicao < fim && numero != Documentos.Formato.INVALIDO; posicao++) {
+            numero = passo(numero, documento[posicao] & 0xFF, posicao - inicio, formato);
+        }
+        return numero == Documentos.Formato.INVALIDO ? NENHUM : tipo | numero;
+    }
+
+    /**
+     * Utilizado internamente para compactar um documento contido em uma {@link CharSequence}, veja {@link #passo(long, int, int, Documentos.Formato)}.
+     */
+    private static long compactar(CharSequence documento, Documentos.Formato[] formatos, long tipo) {
+        final Documentos.Formato formato = Documentos.formato(formatos, documento.length());
+        if (formato == null) {
+            return NENHUM;
+        }
+        long numero = 0;
+        for (int posicao = 0; posicao < documento.length() && numero != Documentos.Formato.INVALIDO; posicao++) {
+            numero = passo(numero, documento.charAt(posicao), posicao, formato);
+        }
+        return numero == Documentos.Formato.INVALIDO ? NENHUM : tipo | numero;
+    }
+
+    /**
+     * Utilizado internamente para acumular um caractere do documento no nmero compactado.<BR>
+     * O formato do documento  verificado pelas mesmas regras da validao, veja {@link Documentos.Formato}, de forma que a compactao e a
+     * validao sempre aceitem os mesmos separadores e os mesmos caracteres em cada posio.
+     * 
+     * @return O novo nmero ou {@link Documentos.Formato#INVALIDO} se o caractere no for permitido na posio informada.
+     */
+    private static long passo(long numero, int caractere, int posicao, Documentos.Formato formato) {
+        final int valor = formato.valor(caractere, posicao);
+        if (valor < 0 || valor > 9) { // somente documentos numricos podem ser compactados
+            return Documentos.Formato.INVALIDO;
+        }
+        return formato.separador(posicao) ? numero : numero * 10 + valor;
+    }
+
+    /**
+     * Utilizado internamente para obter a mscara do tipo do documento compactado informado.
+     */
+    private static String mascara(long documento) {
+        return tamanho(documento) == TAMANHO_CPF ? Documentos.MASCARA_CPF : Documentos.MASCARA_CNPJ;
+    }
+
+    /**
+     * Utilizado internamente para obter a quantidade de dgitos do documento compactado informado.
+     */
+    private static int tamanho(long documento) {
+        if (isCpf(documento)) {
+            return TAMANHO_CPF;
+        }
+        if (isCnpj(documento)) {
+            return TAMANHO_CNPJ;
+        }
+        throw new IllegalArgumentException("invalid packed document: " + documento);
+    }
+
+    // Construtor privado, no faz sentido instanciar esta classe
+    private DocumentosCompactos() {}
+}
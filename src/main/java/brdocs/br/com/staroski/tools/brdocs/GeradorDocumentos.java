@@ -0,0 +1,468 @@
+package br.com.staroski.tools.brdocs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gerador de CPFs ou CNPJs vlidos, para a gerao de grandes massas de dados.<BR>
+ * Os documentos so gerados sem formatao, a partir de uma semente, portanto a mesma semente sempre gera a mesma sequncia de documentos.<BR>
+ * Alm de CPFs e CNPJs numricos, tambm podem ser gerados CNPJs alfanumricos, com dgitos e letras maisculas nas 12 primeiras posies, veja
+ * {@link Documentos#cnpjValido(String)}.<BR>
+ * <B>Observaes</B><BR>
+ * No modo nico, obtido atravs dos mtodos {@link #cpfUnicos(long)} e {@link #cnpjUnicos(long)}, nenhum documento  gerado mais de uma vez, sem que
+ * os documentos gerados sejam mantidos em memria: um contador percorre todas as bases possveis ( 9 dgitos no CPF e 12 no CNPJ ) e  embaralhado
+ * atravs de uma permutao determinada pela semente.<BR>
+ * As instncias desta classe no so thread-safe, para gerar documentos em paralelo utilize o mtodo {@link #dividir()} para obter um gerador
+ * independente para cada thread.
+ * 
+ * @author <a href="https://github.com/staroski">Ricardo Artur Staroski</a>
+ *
+ */
+public final class GeradorDocumentos {
+
+    // quantidade de rodadas da permutao de Feistel utilizada no modo nico
+    private static final int RODADAS = 6;
+
+    // tamanho do buffer utilizado na gravao em streams
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    // quantidade de caracteres possveis em cada posio da base de um CNPJ alfanumrico: 10 dgitos e 26 letras
+    private static final int CARACTERES_ALFANUMERICOS = 36;
+
+    /**
+     * Cria um gerador de CNPJs aleatrios.
+     * 
+     * @param semente
+     *            A semente do gerador.
+     * 
+     * @return O gerador criado.
+     */
+    public static GeradorDocumentos cnpj(long semente) {
+        return new GeradorDocumentos(Documentos.PESOS_CNPJ, false, new SplittableRandom(semente), null);
+    }
+
+    /**
+     * Cria um gerador de CNPJs alfanumricos aleatrios.
+     * 
+     * @param semente
+     *            A semente do gerador.
+     * 
+     * @return O gerador criado.
+     */
+    public static GeradorDocumentos cnpjAlfanumerico(long semente) {
+        return new GeradorDocumentos(Documentos.PESOS_CNPJ, true, new SplittableRandom(semente), null);
+    }
+
+    /**
+     * Cria um gerador de CNPJs alfanumricos que nunca gera o mesmo CNPJ duas vezes.
+     * 
+     * @param semente
+     *            A semente do gerador.
+     * 
+     * @return O gerador criado.
+     */
+    public static GeradorDocumentos cnpjAlfanumericoUnicos(long semente) {
+        return new GeradorDocumentos(Documentos.PESOS_CNPJ, true, null, chaves(semente));
+    }
+
+    /**
+     * Cria um gerador de CNPJs que nunca gera o mesmo CNPJ duas vezes.
+     * 
+     * @param semente
+     *            A semente do gerador.
+     * 
+     * @return O gerador criado.
+     */
+    public static GeradorDocumentos cnpjUnicos(long semente) {
+        return new GeradorDocumentos(Documentos.PESOS_CNPJ, false, null, chaves(semente));
+    }
+
+    /**
+     * Cria um gerador de CPFs aleatrios.
+     * 
+     * @param semente
+     *            A semente do gerador.
+     * 
+     * @return O gerador criado.
+     */
+    public static GeradorDocumentos cpf(long semente) {
+        return new GeradorDocumentos(Documentos.PESOS_CPF, false, new SplittableRandom(semente), null);
+    }
+
+    /**
+     * Cria um gerador de CPFs que nunca gera o mesmo CPF duas vezes.
+     * 
+     * @param semente
+     *            A semente do gerador.
+     * 
+     * @return O gerador criado.
+     */
+    public static GeradorDocumentos cpfUnicos(long semente) {
+        return new GeradorDocumentos(Documentos.PESOS_CPF, false, null, chaves(semente));
+    }
+
+    /**
+     * Utilizado internamente pelo {@link Documentos} para gerar um nico documento aleatrio, sem semente.
+     */
+    static String aleatorio(int[] pesos) {
+        final long limite = limite(pesos);
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        long documento;
+        do {
+            documento = documento(random.nextLong(limite), pesos);
+        } while (documento < 0);
+        final char[] texto = new char[pesos.length + 1];
+        escrever(documento, texto, 0, texto.length);
+        return new String(texto);
+    }
+
+    /**
+     * Utilizado internamente para escrever o CNPJ alfanumrico correspondente  base informada, cujos caracteres so os algarismos da base em base 36,
+     * representados de <code>0</code> a <code>9</code> e de <code>A</code> a <code>Z</code>.
+     * 
+     * @return <code>false</code> se todos os caracteres do CNPJ forem iguais, pois  invlido.
+     */
+    private static boolean alfanumerico(long base, int[] pesos, char[] destino) {
+        final int qtdPesos = pesos.length;
+        long resto = base;
+        int soma1 = 0;
+        int soma2 = 0;
+        boolean iguais = true;
+        for (int posicao = qtdPesos - 2; posicao >= 0; posicao--) {
+            int algarismo = (int) (resto % CARACTERES_ALFANUMERICOS);
+            resto /= CARACTERES_ALFANUMERICOS;
+            int valor = algarismo < 10 ? algarismo : algarismo - 10 + 'A' - '0'; // cdigo ASCII menos 48
+            destino[posicao] = (char) ('0' + valor);
+            soma1 += valor * pesos[posicao + 1];
+            soma2 += valor * pesos[posicao];
+            iguais = iguais && destino[posicao] == destino[qtdPesos - 2];
+        }
+        final int verificador1 = Documentos.digito(soma1);
+        final int verificador2 = Documentos.digito(soma2 + verificador1 * pesos[qtdPesos - 1]);
+        destino[qtdPesos - 1] = (char) ('0' + verificador1);
+        destino[qtdPesos] = (char) ('0' + verificador2);
+        return !(iguais && destino[0] == destino[qtdPesos - 1] && verificador1 == verificador2);
+    }
+
+    /**
+     * Utilizado internamente para calcular os dgitos verificadores da base informada.
+     * 
+     * @return O documento completo, base seguida dos dgitos verificadores, ou <code>-1</code> se todos os seus dgitos forem iguais, pois  invlido.
+     */
+    static long documento(long base, int[] pesos) {
+        final int qtdPesos = pesos.length;
+        long resto = base;
+        int soma1 = 0;
+        int soma2 = 0;
+        for (int posicao = qtdPesos - 2; posicao >= 0; posicao--) {
+            int digito = (int) (resto % 10);
+            resto /= 10;
+            soma1 += digito * pesos[posicao + 1];
+            soma2 += digito * pesos[posicao];
+        }
+        final int verificador1 = Documentos.digito(soma1);
+        final int verificador2 = Documentos.digito(soma2 + verificador1 * pesos[qtdPesos - 1]);
+        final long repetido = (limite(pesos) - 1) / 9; // 111...1 com a quantidade de dgitos da base
+        if (base % repetido == 0 && base / repetido == verificador1 && verificador1 == verificador2) {
+            return -1;
+        }
+        return base * 100 + verificador1 * 10 + verificador2;
+    }
+
+    private static void escrever(long documento, byte[] destino, int inicio, int tamanho) {
+        for (int posicao = inicio + tamanho - 1; posicao >= inicio; posicao--) {
+            destino[posicao] = (byte) ('0' + documento % 10);
+            documento /= 10;
+        }
+    }
+
+    private static void escrever(long documento, char[] destino, int inicio, int tamanho) {
+        for (int posicao = inicio + tamanho - 1; posicao >= inicio; posicao--) {
+            destino[posicao] = (char) ('0' + documento % 10);
+            documento /= 10;
+        }
+    }
+
+    private static long[] chaves(long semente) {
+        final SplittableRandom random = new SplittableRandom(semente);
+        final long[] chaves = new long[RODADAS];
+        for (int rodada = 0; rodada < RODADAS; rodada++) {
+            chaves[rodada] = random.nextLong();
+        }
+        return chaves;
+    }
+
+    // quantidade de bases numricas possveis: 10^9 no CPF e 10^12 no CNPJ
+    static long limite(int[] pesos) {
+        return potencia(10, pesos.length - 1);
+    }
+
+    private static long potencia(long base, int expoente) {
+        long potencia = 1;
+        for (int contador = 0; contador < expoente; contador++) {
+            potencia *= base;
+        }
+        return potencia;
+    }
+
+    // funo de mistura do SplitMix64
+    static long misturar(long valor) {
+        valor = (valor ^ (valor >>> 30)) * 0xBF58476D1CE4E5B9L;
+        valor = (valor ^ (valor >>> 27)) * 0x94D049BB133111EBL;
+        return valor ^ (valor >>> 31);
+    }
+
+    private final int[] pesos;
+    private final boolean alfanumerico;
+    private final int tamanho;
+    private final long limite;
+    private final char[] caracteres; // ltimo documento alfanumrico gerado
+
+    // modo aleatrio
+    private final SplittableRandom random;
+
+    // modo nico
+    private final long[] chaves;
+    private final int metade;
+    private final long mascara;
+    private long proximo;
+    private long fim;
+
+    private GeradorDocumentos(int[] pesos, boolean alfanumerico, SplittableRandom random, long[] chaves) {
+        this.pesos = pesos;
+        this.alfanumerico = alfanumerico;
+        this.tamanho = pesos.length + 1;
+        this.limite = alfanumerico ? potencia(CARACTERES_ALFANUMERICOS, pesos.length - 1) : limite(pesos);
+        this.caracteres = alfanumerico ? new char[tamanho] : null;
+        this.random = random;
+        this.chaves = chaves;
+        this.metade = (64 - Long.numberOfLeadingZeros(limite - 1) + 1) / 2; // cada metade da permutao tem a metade dos bits necessrios
+        this.mascara = (1L << metade) - 1;
+        this.proximo = 0;
+        this.fim = limite;
+    }
+
+    /**
+     * Divide este gerador, criando um novo gerador independente, com o mesmo tipo de documento e o mesmo modo.<BR>
+     * No modo aleatrio o novo gerador recebe uma nova sequncia, derivada da sequncia deste gerador.<BR>
+     * No modo nico, os documentos ainda no gerados so divididos entre os dois geradores, de forma que nenhum documento  gerado por ambos.<BR>
+     * Dividir os geradores sempre da mesma forma reproduz os mesmos documentos em cada gerador.
+     * 
+     * @return O novo gerador.
+     */
+    public GeradorDocumentos dividir() {
+        if (random != null) {
+            return new GeradorDocumentos(pesos, alfanumerico, random.split(), null);
+        }
+        final GeradorDocumentos outro = new GeradorDocumentos(pesos, alfanumerico, null, chaves);
+        final long meio = proximo + (fim - proximo) / 2;
+        outro.proximo = meio;
+        outro.fim = fim;
+        fim = meio;
+        return outro;
+    }
+
+    /**
+     * Gera documentos no array informado, um aps o outro, sem separadores.
+     * 
+     * @param destino
+     *            O array onde os documentos sero gravados, em ASCII.
+     * @param inicio
+     *            A posio do array onde o primeiro documento ser gravado.
+     * @param quantidade
+     *            A quantidade de documentos a serem gerados.
+     * 
+     * @return A quantidade de bytes gravados, ou seja, <code>quantidade * {@link #getComprimento()}</code>.
+     * 
+     * @throws NoSuchElementException
+     *             No modo nico, se todos os documentos possveis j foram gerados.
+     */
+    public int gerar(byte[] destino, int inicio, int quantidade) {
+        if (destino == null) {
+            throw new IllegalArgumentException("destino cannot be null");
+        }
+        verificarIntervalo(destino.length, inicio, quantidade);
+        int posicao = inicio;
+        for (int contador = 0; contador < quantidade; contador++) {
+            escreverProximo(destino, posicao);
+            posicao += tamanho;
+        }
+        return posicao - inicio;
+    }
+
+    /**
+     * Gera documentos no array informado, um aps o outro, sem separadores.
+     * 
+     * @param destino
+     *            O array onde os documentos sero gravados.
+     * @param inicio
+     *            A posio do array onde o primeiro documento ser gravado.
+     * @param quantidade
+     *            A quantidade de documentos a serem gerados.
+     * 
+     * @return A quantidade de caracteres gravados, ou seja, <code>quantidade * {@link #getComprimento()}</code>.
+     * 
+     * @throws NoSuchElementException
+     *             No modo nico, se todos os documentos possveis j foram gerados.
+     */
+    public int gerar(char[] destino, int inicio, int quantidade) {
+        if (destino == null) {
+            throw new IllegalArgumentException("destino cannot be null");
+        }
+        verificarIntervalo(destino.length, inicio, quantidade);
+        int posicao = inicio;
+        for (int contador = 0; contador < quantidade; contador++) {
+            escreverProximo(destino, posicao);
+            posicao += tamanho;
+        }
+        return posicao - inicio;
+    }
+
+    /**
+     * Gera documentos no stream informado, em ASCII, um por linha, cada um seguido de <code>\n</code>.<BR>
+     * O stream no  fechado.
+     * 
+     * @param saida
+     *            O stream onde os documentos sero gravados.
+     * @param quantidade
+     *            A quantidade de documentos a serem gerados.
+     * 
+     * @throws IOException
+     *             Se no for possvel gravar no stream.
+     * @throws NoSuchElementException
+     *             No modo nico, se todos os documentos possveis j foram gerados, os documentos gerados at ento so gravados no stream.
+     */
+    public void gerar(OutputStream saida, long quantidade) throws IOException {
+        if (saida == null) {
+            throw new IllegalArgumentException("saida cannot be null");
+        }
+        if (quantidade < 0) {
+            throw new IllegalArgumentException("quantidade cannot be negative");
+        }
+        final int linha = tamanho + 1;
+        final byte[] buffer = new byte[TAMANHO_BUFFER / linha * linha];
+        int posicao = 0;
+        try {
+            for (long contador = 0; contador < quantidade; contador++) {
+                escreverProximo(buffer, posicao);
+                buffer[posicao + tamanho] = '\n';
+                posicao += linha;
+                if (posicao == buffer.length) {
+                    posicao = 0; // zerada antes da gravao para que uma falha no grave o buffer novamente
+                    saida.write(buffer, 0, buffer.length);
+                }
+            }
+        } finally {
+            if (posicao > 0) {
+                saida.write(buffer, 0, posicao); // inclusive quando o gerador se esgota no modo nico
+            }
+        }
+    }
+
+    /**
+     * @return A quantidade de dgitos dos documentos gerados: 11 para CPFs e 14 para CNPJs.
+     */
+    public int getComprimento() {
+        return tamanho;
+    }
+
+    /**
+     * @return No modo nico, a quantidade mxima de documentos que ainda podem ser gerados, ou {@link Long#MAX_VALUE} no modo aleatrio.
+     */
+    public long getRestantes() {
+        return random != null ? Long.MAX_VALUE : fim - proximo;
+    }
+
+    /**
+     * @return <code>true</code> se este gerador nunca gera o mesmo documento duas vezes e <code>false</code> caso contrrio.
+     */
+    public boolean isUnico() {
+        return random == null;
+    }
+
+    /**
+     * Gera um documento.
+     * 
+     * @return O documento gerado.
+     * 
+     * @throws NoSuchElementException
+     *             No modo nico, se todos os documentos possveis j foram gerados.
+     */
+    public String proximo() {
+        final char[] texto = new char[tamanho];
+        escreverProximo(texto, 0);
+        return new String(texto);
+    }
+
+    private void escreverProximo(byte[] destino, int inicio) {
+        if (!alfanumerico) {
+            escrever(proximoDocumento(), destino, inicio, tamanho);
+            return;
+        }
+        proximoAlfanumerico();
+        for (int posicao = 0; posicao < tamanho; posicao++) {
+            destino[inicio + posicao] = (byte) caracteres[posicao];
+        }
+    }
+
+    private void escreverProximo(char[] destino, int inicio) {
+        if (!alfanumerico) {
+            escrever(proximoDocumento(), destino, inicio, tamanho);
+            return;
+        }
+        proximoAlfanumerico();
+        System.arraycopy(caracteres, 0, destino, inicio, tamanho);
+    }
+
+    // permutao de Feistel balanceada sobre 2 * metade bits
+    private long feistel(long valor) {
+        long esquerda = valor >>> metade;
+        long direita = valor & mascara;
+        for (long chave : chaves) {
+            long anterior = direita;
+            direita = esquerda ^ (misturar(direita ^ chave) & mascara);
+            esquerda = anterior;
+        }
+        return (esquerda << metade) | direita;
+    }
+
+    // aplica a permutao at que o resultado esteja entre as bases possveis, o que preserva a bijeo
+    private long permutar(long valor) {
+        do {
+            valor = feistel(valor);
+        } while (Long.compareUnsigned(valor, limite) >= 0); // sem sinal, pois a permutao do CNPJ alfanumrico utiliza os 64 bits
+        return valor;
+    }
+
+    // gera o prximo documento alfanumrico no array de caracteres
+    private void proximoAlfanumerico() {
+        while (!alfanumerico(proximaBase(), pesos, caracteres)) {}
+    }
+
+    private long proximaBase() {
+        if (random != null) {
+            return random.nextLong(limite);
+        }
+        if (proximo >= fim) {
+            throw new NoSuchElementException("generator exhausted");
+        }
+        return permutar(proximo++);
+    }
+
+    private long proximoDocumento() {
+        long documento;
+        do {
+            documento = documento(proximaBase(), pesos);
+        } while (documento < 0);
+        return documento;
+    }
+
+    private void verificarIntervalo(int comprimento, int inicio, int quantidade) {
+        if (inicio < 0 || quantidade < 0 || inicio > comprimento - (long) quantidade * tamanho) {
+            throw new IllegalArgumentException("invalid range: offset " + inicio + ", count " + quantidade + ", array length " + comprimento);
+        }
+    }
+}
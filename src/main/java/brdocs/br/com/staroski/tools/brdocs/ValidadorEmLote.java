@@ -0,0 +1,362 @@
+package br.com.staroski.tools.brdocs;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Validador de arquivos texto contendo um CPF ou CNPJ por linha.<BR>
+ * O arquivo  dividido em pedaos de tamanho fixo, que so mapeados em memria e validados em paralelo diretamente sobre os bytes mapeados, sem criar
+ * {@link String strings}. Cada linha pertence ao pedao onde comea, portanto linhas de qualquer tamanho so numeradas corretamente. A quantidade de
+ * pedaos em andamento  limitada e os resultados de cada pedao so gravados na ordem do arquivo assim que ficam prontos, de forma que a memria
+ * utilizada no cresce com o tamanho do arquivo. As linhas podem terminar com <code>\n</code> ou <code>\r\n</code> e devem estar codificadas em
+ * ASCII.<BR>
+ * <BR>
+ * Tambm pode ser executado pela linha de comando:
+ *
+ * <PRE>
+ * &lt;java&gt; br.com.staroski.tools.brdocs.ValidadorEmLote &lt;tipo&gt; &lt;arquivo&gt; [&lt;saida&gt;] [&lt;threads&gt;]
+ *
+ * Onde:
+ *     &lt;tipo&gt;     cpf, cnpj ou ambos
+ *     &lt;arquivo&gt;  o arquivo a ser validado
+ *     &lt;saida&gt;    o arquivo onde sero gravadas as linhas invlidas, por padro a sada padro
+ *     &lt;threads&gt;  a quantidade de threads, por padro a quantidade de processadores
+ * </PRE>
+ *
+ * Cada linha invlida  gravada na sada no formato <code>&lt;nmero da linha&gt;;&lt;posio em bytes&gt;</code>, onde a primeira linha  a linha
+ * <code>1</code> e a posio do primeiro byte do arquivo  <code>0</code>.
+ *
+ * @author <a href="https://github.com/staroski">Ricardo Artur Staroski</a>
+ */
+public final class ValidadorEmLote {
+
+    /**
+     * Tipos de documento aceitos pelo validador.
+     */
+    public static enum Tipo {
+        /**
+         * Aceita somente CPFs, veja {@link Documentos#cpfValido(ByteBuffer, int, int)}.
+         */
+        CPF {
+
+            @Override
+            boolean valido(ByteBuffer mapa, int inicio, int comprimento) {
+                return Documentos.cpfValido(mapa, inicio, comprimento);
+            }
+        },
+        /**
+         * Aceita somente CNPJs, veja {@link Documentos#cnpjValido(ByteBuffer, int, int)}.
+         */
+        CNPJ {
+
+            @Override
+            boolean valido(ByteBuffer mapa, int inicio, int comprimento) {
+                return Documentos.cnpjValido(mapa, inicio, comprimento);
+            }
+        },
+        /**
+         * Aceita CPFs e CNPJs.
+         */
+        AMBOS {
+
+            @Override
+            boolean valido(ByteBuffer mapa, int inicio, int comprimento) {
+                return Documentos.cpfValido(mapa, inicio, comprimento) || Documentos.cnpjValido(mapa, inicio, comprimento);
+            }
+        };
+
+        abstract boolean valido(ByteBuffer mapa, int inicio, int comprimento);
+    }
+
+    /**
+     * Totais de uma validao.
+     */
+    public static final class Resultado {
+
+        private final long linhas;
+        private final long invalidos;
+        private final long bytes;
+        private final long milissegundos;
+
+        private Resultado(long linhas, long invalidos, long bytes, long milissegundos) {
+            this.linhas = linhas;
+            this.invalidos = invalidos;
+            this.bytes = bytes;
+            this.milissegundos = milissegundos;
+        }
+
+        /**
+         * @return O tamanho, em bytes, do arquivo validado.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return A quantidade de linhas invlidas.
+         */
+        public long getInvalidos() {
+            return invalidos;
+        }
+
+        /**
+         * @return A quantidade de linhas do arquivo.
+         */
+        public long getLinhas() {
+            return linhas;
+        }
+
+        /**
+         * @return O tempo de validao, em milissegundos.
+         */
+        public long getMilissegundos() {
+            return milissegundos;
+        }
+
+        /**
+         * @return A quantidade de linhas vlidas.
+         */
+        public long getValidos() {
+            return linhas - invalidos;
+        }
+
+        @Override
+        public String toString() {
+            double megabytes = bytes / (1024.0 * 1024.0);
+            double segundos = Math.max(milissegundos, 1) / 1000.0;
+            return "linhas: " + linhas + ", vlidos: " + getValidos() + ", invlidos: " + invalidos + ", tempo: " + milissegundos + " ms, "
+                   + String.format("%.1f MB/s", megabytes / segundos);
+        }
+    }
+
+    /**
+     * Pedao do arquivo validado por uma nica thread, as linhas invlidas so numeradas a partir do incio do pedao.<BR>
+     * O pedao valida as linhas que comeam entre o seu incio e o seu fim, a linha que comea no pedao anterior  ignorada e a ltima linha  lida
+     * alm do fim do pedao, somente at o tamanho mximo de uma linha vlida.
+     */
+    private static final class Pedaco implements Callable<Pedaco> {
+
+        private final FileChannel canal;
+        private final Tipo tipo;
+        private final long inicio;
+        private final long fim;
+        private final long tamanho;
+
+        private long linhas;
+        private int invalidos;
+        private long[] linhasInvalidas = new long[16];
+        private long[] posicoesInvalidas = new long[16];
+
+        Pedaco(FileChannel canal, Tipo tipo, long inicio, long fim, long tamanho) {
+            this.canal = canal;
+            this.tipo = tipo;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.tamanho = tamanho;
+        }
+
+        @Override
+        public Pedaco call() throws IOException {
+            // mapeia tambm o byte anterior ao pedao, para saber se o pedao comea no incio de uma linha
+            final long base = inicio == 0 ? 0 : inicio - 1;
+            final long limite = Math.min(tamanho, fim + TAMANHO_MAXIMO_LINHA);
+            final MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, base, limite - base);
+            final int tamanhoMapa = mapa.limit();
+            final int fimPedaco = (int) (fim - base);
+            int comecoLinha = (int) (inicio - base);
+            while (comecoLinha < fimPedaco && comecoLinha > 0 && mapa.get(comecoLinha - 1) != '\n') {
+                comecoLinha++; // restante da linha que comea no pedao anterior
+            }
+            while (comecoLinha < fimPedaco) {
+                int quebra = comecoLinha;
+                while (quebra < tamanhoMapa && mapa.get(quebra) != '\n') {
+                    quebra++;
+                }
+                // sem quebra de linha no mapa: ltima linha do arquivo ou linha maior que o tamanho mximo, que  invlida
+                valida(mapa, comecoLinha, quebra - comecoLinha, base);
+                comecoLinha = quebra + 1;
+            }
+            return this;
+        }
+
+        private void valida(ByteBuffer mapa, int comecoLinha, int comprimento, long base) {
+            if (comprimento > 0 && comprimento <= TAMANHO_MAXIMO_LINHA && mapa.get(comecoLinha + comprimento - 1) == '\r') {
+                comprimento--;
+            }
+            if (comprimento >= TAMANHO_MAXIMO_LINHA || !tipo.valido(mapa, comecoLinha, comprimento)) {
+                invalida(linhas, base + comecoLinha);
+            }
+            linhas++;
+        }
+
+        private void invalida(long linha, long posicao) {
+            if (invalidos == linhasInvalidas.length) {
+                linhasInvalidas = Arrays.copyOf(linhasInvalidas, invalidos * 2);
+                posicoesInvalidas = Arrays.copyOf(posicoesInvalidas, invalidos * 2);
+            }
+            linhasInvalidas[invalidos] = linha;
+            posicoesInvalidas[invalidos] = posicao;
+            invalidos++;
+        }
+    }
+
+    // maior linha vlida  um CNPJ formatado seguido de '\r', linhas maiores so invlidas sem precisar valid-las
+    private static final int TAMANHO_MAXIMO_LINHA = 20;
+
+    // tamanhos mnimo e mximo de cada pedao mapeado em memria
+    private static final long TAMANHO_MINIMO_PEDACO = 1L * 1024 * 1024;
+    private static final long TAMANHO_MAXIMO_PEDACO = 64L * 1024 * 1024;
+
+    // quantidade de pedaos por thread, para equilibrar a carga entre as threads
+    private static final int PEDACOS_POR_THREAD = 4;
+
+    // quantidade mxima de pedaos em andamento por thread, limita a memria utilizada pelos resultados ainda no gravados
+    private static final int PEDACOS_EM_ANDAMENTO_POR_THREAD = 2;
+
+    /**
+     * Ponto de entrada do aplicativo.
+     *
+     * @param args
+     *            Array de {@link String} onde o primeiro argumento  o tipo de documento ( <code>cpf</code>, <code>cnpj</code> ou <code>ambos</code> ), o
+     *            segundo  o arquivo a ser validado, o terceiro, opcional,  o arquivo de sada das linhas invlidas e o quarto, opcional,  a quantidade de
+     *            threads.
+     */
+    public static void main(String... args) {
+        if (args.length < 2 || args.length > 4) {
+            System.out.println("uso: ");
+            System.out.println("    <java> " + ValidadorEmLote.class.getName() + " <tipo> <arquivo> [<saida>] [<threads>]");
+            System.out.println("onde");
+            System.out.println("    <java>     a JVM a ser executada");
+            System.out.println("    <tipo>     cpf, cnpj ou ambos");
+            System.out.println("    <arquivo>  o arquivo a ser validado, com um documento por linha");
+            System.out.println("    <saida>    o arquivo onde sero gravadas as linhas invlidas, por padro a sada padro");
+            System.out.println("    <threads>  a quantidade de threads, por padro a quantidade de processadores");
+            System.exit(0);
+        }
+        try {
+            Tipo tipo = Tipo.valueOf(args[0].toUpperCase());
+            Path arquivo = Paths.get(args[1]);
+            int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            Resultado resultado;
+            if (args.length > 2 && !"-".equals(args[2])) {
+                try (Writer saida = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(args[2]), StandardCharsets.US_ASCII), 1 << 16)) {
+                    resultado = validar(arquivo, tipo, threads, saida);
+                }
+            } else {
+                Writer saida = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII), 1 << 16);
+                resultado = validar(arquivo, tipo, threads, saida);
+                saida.flush();
+            }
+            System.err.println(resultado);
+        } catch (Throwable t) {
+            t.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Valida o arquivo informado, gravando na sada informada o nmero e a posio em bytes de cada linha invlida, em ordem crescente.
+     *
+     * @param arquivo
+     *            O arquivo a ser validado, com um documento por linha.
+     * @param tipo
+     *            O {@link Tipo tipo} de documento esperado.
+     * @param threads
+     *            A quantidade de threads utilizadas na validao.
+     * @param saida
+     *            Onde sero gravadas as linhas invlidas, no formato <code>&lt;nmero da linha&gt;;&lt;posio em bytes&gt;</code>.
+     * @return O {@link Resultado resultado} da validao.
+     * @throws IOException
+     *             Se no for possvel ler o arquivo ou gravar a sada.
+     */
+    public static Resultado validar(Path arquivo, Tipo tipo, int threads, Writer saida) throws IOException {
+        if (arquivo == null) {
+            throw new IllegalArgumentException("arquivo cannot be null");
+        }
+        if (tipo == null) {
+            throw new IllegalArgumentException("tipo cannot be null");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be greater than zero");
+        }
+        if (saida == null) {
+            throw new IllegalArgumentException("saida cannot be null");
+        }
+        final long inicio = System.currentTimeMillis();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            final long tamanho = canal.size();
+            final long tamanhoPedaco = Math.max(TAMANHO_MINIMO_PEDACO, Math.min(TAMANHO_MAXIMO_PEDACO, tamanho / ((long) threads * PEDACOS_POR_THREAD)));
+            final int emAndamento = threads * PEDACOS_EM_ANDAMENTO_POR_THREAD;
+            final Deque<Future<Pedaco>> futuros = new ArrayDeque<Future<Pedaco>>(emAndamento);
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                long proximo = 0;
+                long linhas = 0;
+                long invalidos = 0;
+                while (proximo < tamanho || !futuros.isEmpty()) {
+                    while (proximo < tamanho && futuros.size() < emAndamento) {
+                        final long fim = Math.min(proximo + tamanhoPedaco, tamanho);
+                        futuros.addLast(executor.submit(new Pedaco(canal, tipo, proximo, fim, tamanho)));
+                        proximo = fim;
+                    }
+                    // os pedaos so gravados na ordem do arquivo, cada um assim que termina
+                    Pedaco pedaco = aguardar(futuros.removeFirst());
+                    for (int indice = 0; indice < pedaco.invalidos; indice++) {
+                        saida.write(Long.toString(linhas + pedaco.linhasInvalidas[indice] + 1));
+                        saida.write(';');
+                        saida.write(Long.toString(pedaco.posicoesInvalidas[indice]));
+                        saida.write('\n');
+                    }
+                    linhas += pedaco.linhas;
+                    invalidos += pedaco.invalidos;
+                }
+                saida.flush();
+                return new Resultado(linhas, invalidos, tamanho, System.currentTimeMillis() - inicio);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static Pedaco aguardar(Future<Pedaco> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("validation interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+            throw new IOException(causa);
+        }
+    }
+
+    // classe utilitria no-instancivel
+    private ValidadorEmLote() {}
+}
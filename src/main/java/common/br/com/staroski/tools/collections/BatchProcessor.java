@@ -0,0 +1,30 @@
+package br.com.staroski.tools.collections;
+
+import java.util.List;
+
+/**
+ * Interface para {@link Processor processadores} capazes de processar vários objetos de uma só vez, útil quando o processamento envolve operações de
+ * entrada e saída, como gravações em bancos de dados ou arquivos.<BR>
+ * <B>Observações</B><BR>
+ * Quando o {@link Processor processador} informado ao {@link CollectionHandler} implementa esta interface, os objetos que atendem ao
+ * {@link Predicate predicado} são agrupados em lotes e processados através do método {@link #processBatch(List) processBatch(List)} ao invés do
+ * método {@link #process(Object) process(Object)}.
+ *
+ * @author Ricardo Artur Staroski
+ *
+ * @param <T>
+ *            Tipo de dado do objeto que será processado.
+ */
+public interface BatchProcessor<T> extends Processor<T> {
+
+    /**
+     * Processa o lote de objetos informado.<BR>
+     * A {@link List lista} informada é reaproveitada pelo {@link CollectionHandler} após o processamento do lote, portanto não deve ser referenciada
+     * após o retorno deste método.
+     *
+     * @param batch
+     *            Os objetos a serem processados, na ordem em que foram iterados.
+     * @return Os objetos processados, na mesma ordem do lote, nunca <code>null</code>, um lote sem objetos processados deve retornar uma lista vazia.
+     */
+    public List<T> processBatch(List<T> batch);
+}
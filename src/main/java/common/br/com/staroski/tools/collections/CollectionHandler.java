@@ -1,8 +1,17 @@
 package br.com.staroski.tools.collections;
 
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Classe utilitária para manipulação de coleções.
@@ -12,6 +21,154 @@ import java.util.List;
 @SuppressWarnings("unchecked")
 public final class CollectionHandler {
 
+    /**
+     * {@link Sink Destino} que adiciona os objetos recebidos a uma {@link Collection coleção}.
+     */
+    private static final class CollectionSink<T> implements Sink<T> {
+
+        private final Collection<? super T> collection;
+
+        CollectionSink(Collection<? super T> collection) {
+            this.collection = collection;
+        }
+
+        @Override
+        public void accept(T object) {
+            collection.add(object);
+        }
+    }
+
+    /**
+     * {@link Iterator Iterador} do processamento sob demanda, filtra e processa os objetos da origem somente quando eles são solicitados.
+     */
+    private static final class LazyIterator<T> implements Iterator<T> {
+
+        private final Iterator<T> source;
+        private final Predicate<T> predicate;
+        private final Processor<T> processor;
+
+        private boolean started;
+        private boolean finished;
+        private boolean available;
+        private T next;
+
+        LazyIterator(Iterator<T> source, Predicate<T> predicate, Processor<T> processor) {
+            this.source = source;
+            this.predicate = predicate;
+            this.processor = processor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (available) {
+                return true;
+            }
+            if (finished) {
+                return false;
+            }
+            if (!started) {
+                started = true;
+                processor.beforeStart();
+            }
+            while (source.hasNext()) {
+                T object = source.next();
+                if (predicate.apply(object)) {
+                    next = object;
+                    available = true;
+                    return true;
+                }
+            }
+            finished = true;
+            processor.afterFinish();
+            return false;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T object = next;
+            next = null; // não mantém referência ao objeto já entregue
+            available = false;
+            return processor.process(object);
+        }
+    }
+
+    /**
+     * Tarefa do processamento paralelo, responsável por um intervalo de partes da coleção.<BR>
+     * Cada parte armazena seus resultados em uma posição própria do array de resultados, preservando a ordem da coleção sem precisar concatenar listas
+     * intermediárias.
+     */
+    private static final class ParallelTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final List<T> source;
+        private final Predicate<T> predicate;
+        private final Processor<T> processor;
+        private final int threshold;
+        private final List<T>[] results;
+        private final SplittableProcessor<T>[] partials;
+        private final int firstPart;
+        private final int lastPart;
+
+        ParallelTask(List<T> source, Predicate<T> predicate, Processor<T> processor, int threshold, List<T>[] results, SplittableProcessor<T>[] partials,
+                     int firstPart, int lastPart) {
+            this.source = source;
+            this.predicate = predicate;
+            this.processor = processor;
+            this.threshold = threshold;
+            this.results = results;
+            this.partials = partials;
+            this.firstPart = firstPart;
+            this.lastPart = lastPart;
+        }
+
+        @Override
+        protected void compute() {
+            if (lastPart - firstPart > 1) {
+                int middlePart = (firstPart + lastPart) >>> 1;
+                invokeAll(new ParallelTask<T>(source, predicate, processor, threshold, results, partials, firstPart, middlePart),
+                          new ParallelTask<T>(source, predicate, processor, threshold, results, partials, middlePart, lastPart));
+                return;
+            }
+            if (lastPart == firstPart) {
+                return;
+            }
+            Processor<T> partProcessor = processor;
+            if (partials != null) {
+                SplittableProcessor<T> partial = ((SplittableProcessor<T>) processor).split();
+                partials[firstPart] = partial;
+                partProcessor = partial;
+            }
+            int from = firstPart * threshold;
+            int to = (int) Math.min(source.size(), (long) from + threshold);
+            List<T> list = new ArrayList<T>();
+            for (int index = from; index < to; index++) {
+                T object = source.get(index);
+                if (predicate.apply(object)) {
+                    list.add(partProcessor.process(object));
+                }
+            }
+            results[firstPart] = list;
+        }
+    }
+
+    /**
+     * Quantidade padrão de objetos de cada lote processado por um {@link BatchProcessor}.
+     *
+     * @see #filterAndProcess(Collection, Predicate, Processor, int)
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * Quantidade padrão de objetos processados por cada tarefa do processamento paralelo.
+     *
+     * @see #parallelFilterAndProcess(Collection, Predicate, Processor, ForkJoinPool, int)
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
     /**
      * Filtra uma {@link Collection coleção} de objetos, retornando uma {@link List lista} com aqueles que atendem ao {@link Predicate predicado}
      * informado.<BR>
@@ -33,6 +190,7 @@ public final class CollectionHandler {
      * Filtra e processa uma {@link Collection coleção} de objetos, retornando uma {@link List lista} com aqueles que atendem ao {@link Predicate predicado}
      * informado.<BR>
      * Durante a filtragem, os objetos que atendem ao {@link Predicate predicado}, são processados através do {@link Processor processador} informado.<BR>
+     * Se o {@link Processor processador} for um {@link BatchProcessor}, os objetos são processados em lotes de até {@link #DEFAULT_BATCH_SIZE} objetos.<BR>
      * <B>Observações</B><BR>
      * O método {@link Processor#beforeStart() beforeStart()} do {@link Processor processador} é invocado uma única vez antes da coleção ser iterada.<BR>
      * O método {@link Predicate#apply(Object) apply(Object)} do {@link Predicate predicado} é invocado para cada objeto iterado na coleção.<BR>
@@ -46,9 +204,69 @@ public final class CollectionHandler {
      *            O {@link Processor processador} utilizado para processar o objeto que atendeu ao {@link Predicate predicado}.
      * @return Uma {@link List lista} contendo os objetos processados que atenderam ao {@link Predicate predicado}.
      * @see #filter(Collection, Predicate)
+     * @see #filterAndProcess(Collection, Predicate, Processor, int)
      * @see #process(Collection, Processor)
      */
     public static <T> List<T> filterAndProcess(Collection<T> collection, Predicate<T> predicate, Processor<T> processor) {
+        return filterAndProcess(collection, predicate, processor, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Filtra e processa uma {@link Collection coleção} de objetos, retornando uma {@link List lista} com aqueles que atendem ao {@link Predicate predicado}
+     * informado.<BR>
+     * Se o {@link Processor processador} for um {@link BatchProcessor}, os objetos que atendem ao {@link Predicate predicado} são agrupados em lotes de até
+     * <code>batchSize</code> objetos e processados através do método {@link BatchProcessor#processBatch(List) processBatch(List)}, caso contrário são
+     * processados um a um, como no método {@link #filterAndProcess(Collection, Predicate, Processor) filterAndProcess}.<BR>
+     * <B>Observações</B><BR>
+     * O método {@link Processor#beforeStart() beforeStart()} do {@link Processor processador} é invocado uma única vez antes da coleção ser iterada.<BR>
+     * O método {@link Predicate#apply(Object) apply(Object)} do {@link Predicate predicado} é invocado para cada objeto iterado na coleção.<BR>
+     * O último lote, mesmo incompleto, é processado antes do método {@link Processor#afterFinish() afterFinish()}.<BR>
+     * O método {@link Processor#afterFinish() afterFinish()} do {@link Processor processador} é invocado uma única vez após a coleção ser iterada.
+     * 
+     * @param collection
+     *            A {@link Collection coleção} a ser filtrada.
+     * @param predicate
+     *            O {@link Predicate predicado} utilizado para filtrar a {@link Collection coleção}.
+     * @param processor
+     *            O {@link Processor processador} utilizado para processar o objeto que atendeu ao {@link Predicate predicado}.
+     * @param batchSize
+     *            A quantidade máxima de objetos de cada lote, utilizada somente se o processador for um {@link BatchProcessor}.
+     * @return Uma {@link List lista} contendo os objetos processados que atenderam ao {@link Predicate predicado}.
+     * @see #filterAndProcess(Collection, Predicate, Processor)
+     */
+    public static <T> List<T> filterAndProcess(Collection<T> collection, Predicate<T> predicate, Processor<T> processor, int batchSize) {
+        final List<T> list = new ArrayList<T>();
+        filterAndProcess(collection, predicate, processor, batchSize, new CollectionSink<T>(list));
+        return list;
+    }
+
+    /**
+     * Filtra e processa uma {@link Collection coleção} de objetos, entregando ao {@link Sink destino} informado aqueles que atendem ao
+     * {@link Predicate predicado} informado.<BR>
+     * Nenhuma lista de resultados é criada, os objetos processados são entregues ao destino na mesma ordem da coleção.<BR>
+     * Se o {@link Processor processador} for um {@link BatchProcessor}, os objetos que atendem ao {@link Predicate predicado} são agrupados em lotes de até
+     * <code>batchSize</code> objetos e processados através do método {@link BatchProcessor#processBatch(List) processBatch(List)}.<BR>
+     * <B>Observações</B><BR>
+     * O método {@link Processor#beforeStart() beforeStart()} do {@link Processor processador} é invocado uma única vez antes da coleção ser iterada.<BR>
+     * O método {@link Predicate#apply(Object) apply(Object)} do {@link Predicate predicado} é invocado para cada objeto iterado na coleção.<BR>
+     * O último lote, mesmo incompleto, é processado antes do método {@link Processor#afterFinish() afterFinish()}.<BR>
+     * O método {@link Processor#afterFinish() afterFinish()} do {@link Processor processador} é invocado uma única vez após a coleção ser iterada.
+     * 
+     * @param collection
+     *            A {@link Collection coleção} a ser filtrada.
+     * @param predicate
+     *            O {@link Predicate predicado} utilizado para filtrar a {@link Collection coleção}.
+     * @param processor
+     *            O {@link Processor processador} utilizado para processar o objeto que atendeu ao {@link Predicate predicado}.
+     * @param batchSize
+     *            A quantidade máxima de objetos de cada lote, utilizada somente se o processador for um {@link BatchProcessor}.
+     * @param sink
+     *            O {@link Sink destino} dos objetos processados, {@link Sink.Null#object() Sink.Null.object()} descarta os objetos processados.
+     * @see #filterAndProcess(Collection, Predicate, Processor, Sink)
+     * @see #reduce(Collection, Predicate, Processor)
+     */
+    public static <T> void filterAndProcess(Collection<T> collection, Predicate<T> predicate, Processor<T> processor, int batchSize,
+                                            Sink<? super T> sink) {
         if (collection == null) {
             throw new IllegalArgumentException("collection cannot be null");
         }
@@ -58,16 +276,611 @@ public final class CollectionHandler {
         if (processor == null) {
             throw new IllegalArgumentException("processor cannot be null");
         }
-        final List<T> list = new ArrayList<T>();
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be greater than zero");
+        }
+        if (sink == null) {
+            throw new IllegalArgumentException("sink cannot be null");
+        }
         synchronized (processor) { // só pra garantir que ninguém de fora manipule o processador enquanto estiver processando
             processor.beforeStart();
-            for (T object : collection) {
-                if (predicate.apply(object)) {
-                    list.add(processor.process(object));
+            if (processor instanceof BatchProcessor) {
+                final BatchProcessor<T> batchProcessor = (BatchProcessor<T>) processor;
+                final List<T> batch = new ArrayList<T>(Math.min(batchSize, collection.size()));
+                for (T object : collection) {
+                    if (predicate.apply(object)) {
+                        batch.add(object);
+                        if (batch.size() == batchSize) {
+                            processBatch(batchProcessor, batch, sink);
+                        }
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    processBatch(batchProcessor, batch, sink);
+                }
+            } else {
+                for (T object : collection) {
+                    if (predicate.apply(object)) {
+                        sink.accept(processor.process(object));
+                    }
+                }
+            }
+            processor.afterFinish();
+        }
+    }
+
+    /**
+     * Filtra e processa uma {@link Collection coleção} de objetos, adicionando à {@link Collection coleção} de destino informada aqueles que atendem ao
+     * {@link Predicate predicado} informado.<BR>
+     * Permite utilizar uma coleção de destino previamente dimensionada, evitando o redimensionamento da lista criada pelo método
+     * {@link #filterAndProcess(Collection, Predicate, Processor) filterAndProcess}.
+     * 
+     * @param collection
+     *            A {@link Collection coleção} a ser filtrada.
+     * @param predicate
+     *            O {@link Predicate predicado} utilizado para filtrar a {@link Collection coleção}.
+     * @param processor
+     *            O {@link Processor processador} utilizado para processar o objeto que atendeu ao {@link Predicate predicado}.
+     * @param target
+     *            A {@link Collection coleção} onde os objetos processados serão adicionados.
+     * @return A própria {@link Collection coleção} de destino.
+     * @see #filterAndProcess(Collection, Predicate, Processor, int, Sink)
+     */
+    public static <T, C extends Collection<? super T>> C filterAndProcess(Collection<T> collection, Predicate<T> predicate, Processor<T> processor,
+                                                                          C target) {
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        filterAndProcess(collection, predicate, processor, DEFAULT_BATCH_SIZE, new CollectionSink<T>(target));
+        return target;
+    }
+
+    /**
+     * Filtra e processa uma {@link Collection coleção} de objetos, entregando ao {@link Sink destino} informado aqueles que atendem ao
+     * {@link Predicate predicado} informado.
+     * 
+     * @param collection
+     *            A {@link Collection coleção} a ser filtrada.
+     * @param predicate
+     *            O {@link Predicate predicado} utilizado para filtrar a {@link Collection coleção}.
+     * @param processor
+     *            O {@link Processor processador} utilizado para processar o objeto que atendeu ao {@link Predicate predicado}.
+     * @param sink
+     *            O {@link Sink destino} dos objetos processados.
+     * @see #filterAndProcess(Collection, Predicate, Processor, int, Sink)
+     */
+    public static <T> void filterAndProcess(Collection<T> collection, Predicate<T> predicate, Processor<T> processor, Sink<? super T> sink) {
+        filterAndProcess(collection, predicate, processor, DEFAULT_BATCH_SIZE, sink);
+    }
+
+    /**
+     * Filtra e processa um array de valores <code>int</code>, retornando um novo array com aqueles que atendem ao {@link IntPredicate predicado}
+     * informado.<BR>
+     * Os valores não são convertidos para objetos, portanto nenhum objeto é criado por valor iterado.<BR>
+     * <B>Observações</B><BR>
+     * O método {@link IntProcessor#beforeStart() beforeStart()} do {@link IntProcessor processador} é invocado uma única vez antes do array ser
+     * iterado.<BR>
+     * O método {@link IntPredicate#apply(int) apply(int)} do {@link IntPredicate predicado} é invocado para cada valor iterado no array.<BR>
+     * O método {@link IntProcessor#afterFinish() afterFinish()} do {@link IntProcessor processador} é invocado uma única vez após o array ser iterado.
+     * 
+     * @param array
+     *            O array a ser filtrado.
+     * @param predicate
+     *            O {@link IntPredicate predicado} utilizado para filtrar o array.
+     * @param processor
+     *            O {@link IntProcessor processador} utilizado para processar o valor que atendeu ao {@link IntPredicate predicado}.
+     * @return Um array contendo os valores processados que atenderam ao {@link IntPredicate predicado}.
+     * @see #filterAndProcess(int[], int, int, IntPredicate, IntProcessor, int[], int)
+     */
+    public static int[] filterAndProcess(int[] array, IntPredicate predicate, IntProcessor processor) {
+        if (array == null) {
+            throw new IllegalArgumentException("array cannot be null");
+        }
+        final int[] target = new int[array.length];
+        final int count = filterAndProcess(array, 0, array.length, predicate, processor, target, 0);
+        return count == target.length ? target : Arrays.copyOf(target, count);
+    }
+
+    /**
+     * Filtra e processa um intervalo de um array de valores <code>int</code>, gravando em outro array os valores processados que atendem ao
+     * {@link IntPredicate predicado} informado.<BR>
+     * Os valores não são convertidos para objetos e nenhum array intermediário é criado.<BR>
+     * <B>Observações</B><BR>
+     * O array de destino deve comportar <code>length</code> valores a partir de <code>targetOffset</code>. O array de origem pode ser o próprio array de
+     * destino, desde que <code>targetOffset</code> não seja maior que <code>offset</code>.<BR>
+     * O método {@link IntProcessor#beforeStart() beforeStart()} do {@link IntProcessor processador} é invocado uma única vez antes do array ser
+     * iterado.<BR>
+     * O método {@link IntPredicate#apply(int) apply(int)} do {@link IntPredicate predicado} é invocado para cada valor iterado no array.<BR>
+     * O método {@link IntProcessor#afterFinish() afterFinish()} do {@link IntProcessor processador} é invocado uma única vez após o array ser iterado.
+     * 
+     * @param source
+     *            O array a ser filtrado.
+     * @param offset
+     *            A posição do primeiro valor a ser filtrado.
+     * @param length
+     *            A quantidade de valores a serem filtrados.
+     * @param predicate
+     *            O {@link IntPredicate predicado} utilizado para filtrar o array.
+     * @param processor
+     *            O {@link IntProcessor processador} utilizado para processar o valor que atendeu ao {@link IntPredicate predicado}.
+     * @param target
+     *            O array onde os valores processados serão gravados.
+     * @param targetOffset
+     *            A posição do array de destino onde será gravado o primeiro valor processado.
+     * @return A quantidade de valores gravados no array de destino.
+     * @see #filterAndProcess(int[], IntPredicate, IntProcessor)
+     * @see #filterAndProcess(IntBuffer, IntPredicate, IntProcessor, IntBuffer)
+     */
+    public static int filterAndProcess(int[] source, int offset, int length, IntPredicate predicate, IntProcessor processor, int[] target,
+                                       int targetOffset) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (predicate == null) {
+            throw new IllegalArgumentException("predicate cannot be null");
+        }
+        if (processor == null) {
+            throw new IllegalArgumentException("processor cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        checkRange(source.length, offset, length);
+        checkRange(target.length, targetOffset, length);
+        int count = 0;
+        synchronized (processor) { // só pra garantir que ninguém de fora manipule o processador enquanto estiver processando
+            processor.beforeStart();
+            final int end = offset + length;
+            for (int index = offset; index < end; index++) {
+                int value = source[index];
+                if (predicate.apply(value)) {
+                    target[targetOffset + count++] = processor.process(value);
+                }
+            }
+            processor.afterFinish();
+        }
+        return count;
+    }
+
+    /**
+     * Filtra e processa os valores restantes de um {@link IntBuffer}, gravando em outro {@link IntBuffer} os valores processados que atendem ao
+     * {@link IntPredicate predicado} informado.<BR>
+     * Os valores são lidos e gravados a partir das posições atuais dos buffers, que são avançadas conforme o processamento.<BR>
+     * <B>Observações</B><BR>
+     * O método {@link IntProcessor#beforeStart() beforeStart()} do {@link IntProcessor processador} é invocado uma única vez antes do buffer ser
+     * iterado.<BR>
+     * O método {@link IntPredicate#apply(int) apply(int)} do {@link IntPredicate predicado} é invocado para cada valor iterado no buffer.<BR>
+     * O método {@link IntProcessor#afterFinish() afterFinish()} do {@link IntProcessor processador} é invocado uma única vez após o buffer ser
+     * iterado.
+     * 
+     * @param source
+     *            O {@link IntBuffer} a ser filtrado.
+     * @param predicate
+     *            O {@link IntPredicate predicado} utilizado para filtrar o buffer.
+     * @param processor
+     *            O {@link IntProcessor processador} utilizado para processar o valor que atendeu ao {@link IntPredicate predicado}.
+     * @param target
+     *            O {@link IntBuffer} onde os valores processados serão gravados.
+     * @return A quantidade de valores gravados no buffer de destino.
+     * @throws java.nio.BufferOverflowException
+     *             Se o buffer de destino não comportar os valores processados.
+     * @see #filterAndProcess(int[], int, int, IntPredicate, IntProcessor, int[], int)
+     */
+    public static int filterAndProcess(IntBuffer source, IntPredicate predicate, IntProcessor processor, IntBuffer target) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (predicate == null) {
+            throw new IllegalArgumentException("predicate cannot be null");
+        }
+        if (processor == null) {
+            throw new IllegalArgumentException("processor cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        int count = 0;
+        synchronized (processor) { // só pra garantir que ninguém de fora manipule o processador enquanto estiver processando
+            processor.beforeStart();
+            while (source.hasRemaining()) {
+                int value = source.get();
+                if (predicate.apply(value)) {
+                    target.put(processor.process(value));
+                    count++;
+                }
+            }
+            processor.afterFinish();
+        }
+        return count;
+    }
+
+    /**
+     * Filtra e processa um array de valores <code>long</code>, retornando um novo array com aqueles que atendem ao {@link LongPredicate predicado}
+     * informado.
+     * 
+     * @param array
+     *            O array a ser filtrado.
+     * @param predicate
+     *            O {@link LongPredicate predicado} utilizado para filtrar o array.
+     * @param processor
+     *            O {@link LongProcessor processador} utilizado para processar o valor que atendeu ao {@link LongPredicate predicado}.
+     * @return Um array contendo os valores processados que atenderam ao {@link LongPredicate predicado}.
+     * @see #filterAndProcess(int[], IntPredicate, IntProcessor)
+     */
+    public static long[] filterAndProcess(long[] array, LongPredicate predicate, LongProcessor processor) {
+        if (array == null) {
+            throw new IllegalArgumentException("array cannot be null");
+        }
+        final long[] target = new long[array.length];
+        final int count = filterAndProcess(array, 0, array.length, predicate, processor, target, 0);
+        return count == target.length ? target : Arrays.copyOf(target, count);
+    }
+
+    /**
+     * Filtra e processa um intervalo de um array de valores <code>long</code>, gravando em outro array os valores processados que atendem ao
+     * {@link LongPredicate predicado} informado.
+     * 
+     * @param source
+     *            O array a ser filtrado.
+     * @param offset
+     *            A posição do primeiro valor a ser filtrado.
+     * @param length
+     *            A quantidade de valores a serem filtrados.
+     * @param predicate
+     *            O {@link LongPredicate predicado} utilizado para filtrar o array.
+     * @param processor
+     *            O {@link LongProcessor processador} utilizado para processar o valor que atendeu ao {@link LongPredicate predicado}.
+     * @param target
+     *            O array onde os valores processados serão gravados.
+     * @param targetOffset
+     *            A posição do array de destino onde será gravado o primeiro valor processado.
+     * @return A quantidade de valores gravados no array de destino.
+     * @see #filterAndProcess(int[], int, int, IntPredicate, IntProcessor, int[], int)
+     */
+    public static int filterAndProcess(long[] source, int offset, int length, LongPredicate predicate, LongProcessor processor, long[] target,
+                                       int targetOffset) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (predicate == null) {
+            throw new IllegalArgumentException("predicate cannot be null");
+        }
+        if (processor == null) {
+            throw new IllegalArgumentException("processor cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        checkRange(source.length, offset, length);
+        checkRange(target.length, targetOffset, length);
+        int count = 0;
+        synchronized (processor) { // só pra garantir que ninguém de fora manipule o processador enquanto estiver processando
+            processor.beforeStart();
+            final int end = offset + length;
+            for (int index = offset; index < end; index++) {
+                long value = source[index];
+                if (predicate.apply(value)) {
+                    target[targetOffset + count++] = processor.process(value);
+                }
+            }
+            processor.afterFinish();
+        }
+        return count;
+    }
+
+    /**
+     * Filtra e processa os valores restantes de um {@link LongBuffer}, gravando em outro {@link LongBuffer} os valores processados que atendem ao
+     * {@link LongPredicate predicado} informado.
+     * 
+     * @param source
+     *            O {@link LongBuffer} a ser filtrado.
+     * @param predicate
+     *            O {@link LongPredicate predicado} utilizado para filtrar o buffer.
+     * @param processor
+     *            O {@link LongProcessor processador} utilizado para processar o valor que atendeu ao {@link LongPredicate predicado}.
+     * @param target
+     *            O {@link LongBuffer} onde os valores processados serão gravados.
+     * @return A quantidade de valores gravados no buffer de destino.
+     * @throws java.nio.BufferOverflowException
+     *             Se o buffer de destino não comportar os valores processados.
+     * @see #filterAndProcess(IntBuffer, IntPredicate, IntProcessor, IntBuffer)
+     */
+    public static int filterAndProcess(LongBuffer source, LongPredicate predicate, LongProcessor processor, LongBuffer target) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (predicate == null) {
+            throw new IllegalArgumentException("predicate cannot be null");
+        }
+        if (processor == null) {
+            throw new IllegalArgumentException("processor cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        int count = 0;
+        synchronized (processor) { // só pra garantir que ninguém de fora manipule o processador enquanto estiver processando
+            processor.beforeStart();
+            while (source.hasRemaining()) {
+                long value = source.get();
+                if (predicate.apply(value)) {
+                    target.put(processor.process(value));
+                    count++;
+                }
+            }
+            processor.afterFinish();
+        }
+        return count;
+    }
+
+    /**
+     * Filtra e processa um array de valores <code>double</code>, retornando um novo array com aqueles que atendem ao {@link DoublePredicate predicado}
+     * informado.
+     * 
+     * @param array
+     *            O array a ser filtrado.
+     * @param predicate
+     *            O {@link DoublePredicate predicado} utilizado para filtrar o array.
+     * @param processor
+     *            O {@link DoubleProcessor processador} utilizado para processar o valor que atendeu ao {@link DoublePredicate predicado}.
+     * @return Um array contendo os valores processados que atenderam ao {@link DoublePredicate predicado}.
+     * @see #filterAndProcess(int[], IntPredicate, IntProcessor)
+     */
+    public static double[] filterAndProcess(double[] array, DoublePredicate predicate, DoubleProcessor processor) {
+        if (array == null) {
+            throw new IllegalArgumentException("array cannot be null");
+        }
+        final double[] target = new double[array.length];
+        final int count = filterAndProcess(array, 0, array.length, predicate, processor, target, 0);
+        return count == target.length ? target : Arrays.copyOf(target, count);
+    }
+
+    /**
+     * Filtra e processa um intervalo de um array de valores <code>double</code>, gravando em outro array os valores processados que atendem ao
+     * {@link DoublePredicate predicado} informado.
+     * 
+     * @param source
+     *            O array a ser filtrado.
+     * @param offset
+     *            A posição do primeiro valor a ser filtrado.
+     * @param length
+     *            A quantidade de valores a serem filtrados.
+     * @param predicate
+     *            O {@link DoublePredicate predicado} utilizado para filtrar o array.
+     * @param processor
+     *            O {@link DoubleProcessor processador} utilizado para processar o valor que atendeu ao {@link DoublePredicate predicado}.
+     * @param target
+     *            O array onde os valores processados serão gravados.
+     * @param targetOffset
+     *            A posição do array de destino onde será gravado o primeiro valor processado.
+     * @return A quantidade de valores gravados no array de destino.
+     * @see #filterAndProcess(int[], int, int, IntPredicate, IntProcessor, int[], int)
+     */
+    public static int filterAndProcess(double[] source, int offset, int length, DoublePredicate predicate, DoubleProcessor processor, double[] target,
+                                       int targetOffset) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (predicate == null) {
+            throw new IllegalArgumentException("predicate cannot be null");
+        }
+        if (processor == null) {
+            throw new IllegalArgumentException("processor cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        checkRange(source.length, offset, length);
+        checkRange(target.length, targetOffset, length);
+        int count = 0;
+        synchronized (processor) { // só pra garantir que ninguém de fora manipule o processador enquanto estiver processando
+            processor.beforeStart();
+            final int end = offset + length;
+            for (int index = offset; index < end; index++) {
+                double value = source[index];
+                if (predicate.apply(value)) {
+                    target[targetOffset + count++] = processor.process(value);
+                }
+            }
+            processor.afterFinish();
+        }
+        return count;
+    }
+
+    /**
+     * Filtra e processa os valores restantes de um {@link DoubleBuffer}, gravando em outro {@link DoubleBuffer} os valores processados que atendem ao
+     * {@link DoublePredicate predicado} informado.
+     * 
+     * @param source
+     *            O {@link DoubleBuffer} a ser filtrado.
+     * @param predicate
+     *            O {@link DoublePredicate predicado} utilizado para filtrar o buffer.
+     * @param processor
+     *            O {@link DoubleProcessor processador} utilizado para processar o valor que atendeu ao {@link DoublePredicate predicado}.
+     * @param target
+     *            O {@link DoubleBuffer} onde os valores processados serão gravados.
+     * @return A quantidade de valores gravados no buffer de destino.
+     * @throws java.nio.BufferOverflowException
+     *             Se o buffer de destino não comportar os valores processados.
+     * @see #filterAndProcess(IntBuffer, IntPredicate, IntProcessor, IntBuffer)
+     */
+    public static int filterAndProcess(DoubleBuffer source, DoublePredicate predicate, DoubleProcessor processor, DoubleBuffer target) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (predicate == null) {
+            throw new IllegalArgumentException("predicate cannot be null");
+        }
+        if (processor == null) {
+            throw new IllegalArgumentException("processor cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        int count = 0;
+        synchronized (processor) { // só pra garantir que ninguém de fora manipule o processador enquanto estiver processando
+            processor.beforeStart();
+            while (source.hasRemaining()) {
+                double value = source.get();
+                if (predicate.apply(value)) {
+                    target.put(processor.process(value));
+                    count++;
                 }
             }
             processor.afterFinish();
         }
+        return count;
+    }
+
+    /**
+     * Filtra e processa sob demanda os objetos de um {@link Iterable}.
+     * 
+     * @param iterable
+     *            O {@link Iterable} cujos objetos serão filtrados.
+     * @param predicate
+     *            O {@link Predicate predicado} utilizado para filtrar os objetos.
+     * @param processor
+     *            O {@link Processor processador} utilizado para processar o objeto que atendeu ao {@link Predicate predicado}.
+     * @return Um {@link Iterator iterador} dos objetos processados que atenderam ao {@link Predicate predicado}.
+     * @see #lazyFilterAndProcess(Iterator, Predicate, Processor)
+     */
+    public static <T> Iterator<T> lazyFilterAndProcess(Iterable<T> iterable, Predicate<T> predicate, Processor<T> processor) {
+        if (iterable == null) {
+            throw new IllegalArgumentException("iterable cannot be null");
+        }
+        return lazyFilterAndProcess(iterable.iterator(), predicate, processor);
+    }
+
+    /**
+     * Filtra e processa sob demanda os objetos de um {@link Iterator iterador}, retornando um {@link Iterator iterador} com aqueles que atendem ao
+     * {@link Predicate predicado} informado.<BR>
+     * Nenhuma lista de resultados é criada: cada objeto é filtrado e processado somente quando solicitado ao iterador retornado, portanto a memória
+     * utilizada não depende da quantidade de objetos da origem.<BR>
+     * <B>Observações</B><BR>
+     * O método {@link Processor#beforeStart() beforeStart()} do {@link Processor processador} é invocado uma única vez, na primeira chamada aos métodos
+     * {@link Iterator#hasNext() hasNext()} ou {@link Iterator#next() next()} do iterador retornado.<BR>
+     * O método {@link Predicate#apply(Object) apply(Object)} do {@link Predicate predicado} é invocado para cada objeto iterado na origem.<BR>
+     * O método {@link Processor#process(Object) process(Object)} do {@link Processor processador} é invocado a cada chamada ao método
+     * {@link Iterator#next() next()} do iterador retornado.<BR>
+     * O método {@link Processor#afterFinish() afterFinish()} do {@link Processor processador} é invocado uma única vez, quando o iterador retornado
+     * constata que a origem chegou ao fim.<BR>
+     * Diferente do método {@link #filterAndProcess(Collection, Predicate, Processor) filterAndProcess}, o processador não fica sincronizado durante a
+     * iteração. Para utilizar o resultado como {@link java.util.Spliterator Spliterator}, utilize
+     * {@link java.util.Spliterators#spliteratorUnknownSize(Iterator, int) Spliterators.spliteratorUnknownSize}.
+     * 
+     * @param iterator
+     *            O {@link Iterator iterador} cujos objetos serão filtrados.
+     * @param predicate
+     *            O {@link Predicate predicado} utilizado para filtrar os objetos.
+     * @param processor
+     *            O {@link Processor processador} utilizado para processar o objeto que atendeu ao {@link Predicate predicado}.
+     * @return Um {@link Iterator iterador} dos objetos processados que atenderam ao {@link Predicate predicado}.
+     * @see #filterAndProcess(Collection, Predicate, Processor)
+     * @see #lazyFilterAndProcess(Iterable, Predicate, Processor)
+     */
+    public static <T> Iterator<T> lazyFilterAndProcess(Iterator<T> iterator, Predicate<T> predicate, Processor<T> processor) {
+        if (iterator == null) {
+            throw new IllegalArgumentException("iterator cannot be null");
+        }
+        if (predicate == null) {
+            throw new IllegalArgumentException("predicate cannot be null");
+        }
+        if (processor == null) {
+            throw new IllegalArgumentException("processor cannot be null");
+        }
+        return new LazyIterator<T>(iterator, predicate, processor);
+    }
+
+    /**
+     * Filtra e processa paralelamente uma {@link Collection coleção} de objetos, utilizando o {@link ForkJoinPool#commonPool() pool comum} e a quantidade
+     * padrão de {@link #DEFAULT_PARALLEL_THRESHOLD objetos por tarefa}.
+     * 
+     * @param collection
+     *            A {@link Collection coleção} a ser filtrada.
+     * @param predicate
+     *            O {@link Predicate predicado} utilizado para filtrar a {@link Collection coleção}.
+     * @param processor
+     *            O {@link Processor processador} utilizado para processar o objeto que atendeu ao {@link Predicate predicado}.
+     * @return Uma {@link List lista} contendo os objetos processados que atenderam ao {@link Predicate predicado}, na mesma ordem da coleção.
+     * @see #parallelFilterAndProcess(Collection, Predicate, Processor, ForkJoinPool, int)
+     */
+    public static <T> List<T> parallelFilterAndProcess(Collection<T> collection, Predicate<T> predicate, Processor<T> processor) {
+        return parallelFilterAndProcess(collection, predicate, processor, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Filtra e processa paralelamente uma {@link Collection coleção} de objetos, retornando uma {@link List lista} com aqueles que atendem ao
+     * {@link Predicate predicado} informado, na mesma ordem em que seriam retornados pelo método
+     * {@link #filterAndProcess(Collection, Predicate, Processor) filterAndProcess}.<BR>
+     * A coleção é dividida em partes de até <code>threshold</code> objetos, que são filtradas e processadas pelas threads do {@link ForkJoinPool pool}
+     * informado.<BR>
+     * <B>Observações</B><BR>
+     * O método {@link Processor#beforeStart() beforeStart()} do {@link Processor processador} é invocado uma única vez antes da coleção ser iterada.<BR>
+     * O método {@link Predicate#apply(Object) apply(Object)} do {@link Predicate predicado} é invocado concorrentemente, portanto o predicado deve ser
+     * thread-safe.<BR>
+     * Se o processador for um {@link SplittableProcessor}, cada parte é processada por um {@link SplittableProcessor#split() processador parcial}, e os
+     * processadores parciais são {@link SplittableProcessor#combine(SplittableProcessor) combinados} no processador informado, na ordem da coleção, antes
+     * do método {@link Processor#afterFinish() afterFinish()}. Caso contrário, o método {@link Processor#process(Object) process(Object)} é invocado
+     * concorrentemente e o processador deve ser thread-safe.<BR>
+     * O método {@link Processor#afterFinish() afterFinish()} do {@link Processor processador} é invocado uma única vez após a coleção ser iterada.
+     * 
+     * @param collection
+     *            A {@link Collection coleção} a ser filtrada.
+     * @param predicate
+     *            O {@link Predicate predicado} utilizado para filtrar a {@link Collection coleção}.
+     * @param processor
+     *            O {@link Processor processador} utilizado para processar o objeto que atendeu ao {@link Predicate predicado}.
+     * @param pool
+     *            O {@link ForkJoinPool pool} cujas threads executarão o processamento.
+     * @param threshold
+     *            A quantidade máxima de objetos processados por cada tarefa.
+     * @return Uma {@link List lista} contendo os objetos processados que atenderam ao {@link Predicate predicado}, na mesma ordem da coleção.
+     * @see #filterAndProcess(Collection, Predicate, Processor)
+     * @see #parallelFilterAndProcess(Collection, Predicate, Processor)
+     */
+    public static <T> List<T> parallelFilterAndProcess(Collection<T> collection, Predicate<T> predicate, Processor<T> processor, ForkJoinPool pool,
+                                                       int threshold) {
+        if (collection == null) {
+            throw new IllegalArgumentException("collection cannot be null");
+        }
+        if (predicate == null) {
+            throw new IllegalArgumentException("predicate cannot be null");
+        }
+        if (processor == null) {
+            throw new IllegalArgumentException("processor cannot be null");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("pool cannot be null");
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be greater than zero");
+        }
+        // listas de acesso aleatório podem ser divididas diretamente, as demais coleções são copiadas uma única vez
+        final List<T> source = collection instanceof List && collection instanceof RandomAccess ? (List<T>) collection : new ArrayList<T>(collection);
+        final int parts = (int) ((source.size() + (long) threshold - 1) / threshold);
+        @SuppressWarnings("rawtypes") // não é possível criar arrays de tipos genéricos
+        final List<T>[] results = new List[parts];
+        @SuppressWarnings("rawtypes")
+        final SplittableProcessor<T>[] partials = processor instanceof SplittableProcessor ? new SplittableProcessor[parts] : null;
+        synchronized (processor) { // só pra garantir que ninguém de fora manipule o processador enquanto estiver processando
+            processor.beforeStart();
+            pool.invoke(new ParallelTask<T>(source, predicate, processor, threshold, results, partials, 0, parts));
+            if (partials != null) {
+                SplittableProcessor<T> splittable = (SplittableProcessor<T>) processor;
+                for (SplittableProcessor<T> partial : partials) {
+                    splittable.combine(partial);
+                }
+            }
+            processor.afterFinish();
+        }
+        int size = 0;
+        for (List<T> result : results) {
+            size += result.size();
+        }
+        final List<T> list = new ArrayList<T>(size);
+        for (List<T> result : results) {
+            list.addAll(result);
+        }
         return list;
     }
 
@@ -89,6 +902,54 @@ public final class CollectionHandler {
         return filterAndProcess(collection, (Predicate<T>) Predicate.Null.object(), processor);
     }
 
+    /**
+     * Filtra e processa uma {@link Collection coleção} de objetos somente para obter o {@link Processor#getResult() resultado} acumulado pelo
+     * {@link Processor processador}, sem criar uma lista com os objetos processados.<BR>
+     * <B>Observações</B><BR>
+     * O método {@link Processor#beforeStart() beforeStart()} do {@link Processor processador} é invocado uma única vez antes da coleção ser iterada.<BR>
+     * O método {@link Predicate#apply(Object) apply(Object)} do {@link Predicate predicado} é invocado para cada objeto iterado na coleção.<BR>
+     * O método {@link Processor#afterFinish() afterFinish()} do {@link Processor processador} é invocado uma única vez após a coleção ser iterada.<BR>
+     * O método {@link Processor#getResult() getResult()} do {@link Processor processador} é invocado após o método
+     * {@link Processor#afterFinish() afterFinish()}.
+     * 
+     * @param collection
+     *            A {@link Collection coleção} a ser filtrada.
+     * @param predicate
+     *            O {@link Predicate predicado} utilizado para filtrar a {@link Collection coleção}.
+     * @param processor
+     *            O {@link Processor processador} que acumula o resultado.
+     * @return O {@link Processor#getResult() resultado} do {@link Processor processador}.
+     * @see #filterAndProcess(Collection, Predicate, Processor, int, Sink)
+     */
+    public static <T, V> V reduce(Collection<T> collection, Predicate<T> predicate, Processor<T> processor) {
+        if (processor == null) {
+            throw new IllegalArgumentException("processor cannot be null");
+        }
+        synchronized (processor) { // o resultado é obtido antes de liberar o processador
+            filterAndProcess(collection, predicate, processor, DEFAULT_BATCH_SIZE, (Sink<T>) Sink.Null.object());
+            return processor.getResult();
+        }
+    }
+
+    // processa o lote informado, entrega os objetos processados ao destino e esvazia o lote para ser reaproveitado
+    private static <T> void processBatch(BatchProcessor<T> processor, List<T> batch, Sink<? super T> sink) {
+        final List<T> processed = processor.processBatch(batch);
+        if (processed == null) {
+            throw new IllegalArgumentException("processBatch result cannot be null");
+        }
+        for (T object : processed) {
+            sink.accept(object);
+        }
+        batch.clear();
+    }
+
+    // verifica se o intervalo informado está contido em um array do tamanho informado
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IllegalArgumentException("invalid range: offset " + offset + ", length " + length + ", array length " + arrayLength);
+        }
+    }
+
     // classe utilitária não instanciável
     private CollectionHandler() {}
 }
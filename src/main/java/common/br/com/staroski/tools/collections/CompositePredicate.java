@@ -0,0 +1,279 @@
+package br.com.staroski.tools.collections;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Predicate Predicado} composto por outros predicados, combinados através de <B>E</B> ou <B>OU</B> lógico com curto-circuito.<BR>
+ * Para obter instâncias desta classe, utilize os métodos da classe {@link Predicates}.<BR>
+ * <B>Observações</B><BR>
+ * Um predicado composto não adaptativo somente avalia seus componentes, na ordem informada, sem nenhuma contabilização, e seus métodos de consulta
+ * dos contadores lançam {@link IllegalStateException}.<BR>
+ * Em predicados compostos adaptativos, para cada predicado componente são contabilizadas a quantidade de avaliações e a quantidade de objetos aceitos,
+ * e o tempo de avaliação é medido por amostragem.<BR>
+ * Um predicado composto adaptativo reordena periodicamente seus componentes, priorizando os mais baratos e mais seletivos, de forma a reduzir o custo
+ * total de avaliação. A reordenação não altera o resultado, somente a ordem em que os componentes são avaliados, portanto os componentes não devem
+ * depender da ordem de avaliação.<BR>
+ * As instâncias desta classe são thread-safe desde que os predicados componentes também sejam.
+ *
+ * @author Ricardo Artur Staroski
+ *
+ * @param <T>
+ *            Tipo de dado do objeto que será submetido ao predicado.
+ */
+public final class CompositePredicate<T> implements Predicate<T> {
+
+    // a cada quantas avaliações, em média, o tempo de avaliação é medido
+    private static final int SAMPLE_RATE = 64;
+
+    // a cada quantas avaliações, em média, a ordem dos componentes é recalculada
+    private static final int REORDER_RATE = 4096;
+
+    // quantidade mínima de medições de um componente para que ele participe da reordenação
+    private static final int MIN_SAMPLES = 16;
+
+    private final Predicate<T>[] predicates;
+    private final boolean conjunction;
+    private final boolean adaptive;
+
+    // contadores de cada componente, somente em predicados adaptativos
+    private final LongAdder[] evaluations;
+    private final LongAdder[] matches;
+    private final LongAdder[] samples;
+    private final LongAdder[] sampledNanos;
+
+    private final AtomicBoolean reordering = new AtomicBoolean();
+
+    private volatile int[] order;
+
+    // o array informado já é uma cópia defensiva, veja Predicates
+    CompositePredicate(Predicate<T>[] predicates, boolean conjunction, boolean adaptive) {
+        for (Predicate<T> predicate : predicates) {
+            if (predicate == null) {
+                throw new IllegalArgumentException("predicates cannot contain null");
+            }
+        }
+        this.predicates = predicates;
+        this.conjunction = conjunction;
+        this.adaptive = adaptive;
+        int size = predicates.length;
+        evaluations = adaptive ? counters(size) : null;
+        matches = adaptive ? counters(size) : null;
+        samples = adaptive ? counters(size) : null;
+        sampledNanos = adaptive ? counters(size) : null;
+        int[] order = new int[size];
+        for (int index = 0; index < size; index++) {
+            order[index] = index;
+        }
+        this.order = order;
+    }
+
+    @Override
+    public boolean apply(T object) {
+        if (!adaptive) {
+            for (Predicate<T> predicate : predicates) {
+                if (predicate.apply(object) != conjunction) { // curto-circuito: falso no "E" ou verdadeiro no "OU"
+                    return !conjunction;
+                }
+            }
+            return conjunction;
+        }
+        final int[] order = this.order;
+        final boolean sampling = ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0;
+        boolean result = conjunction;
+        for (int index : order) {
+            boolean matched;
+            if (sampling) {
+                long start = System.nanoTime();
+                matched = predicates[index].apply(object);
+                sampledNanos[index].add(System.nanoTime() - start);
+                samples[index].increment();
+            } else {
+                matched = predicates[index].apply(object);
+            }
+            evaluations[index].increment();
+            if (matched) {
+                matches[index].increment();
+            }
+            if (matched != conjunction) { // curto-circuito: falso no "E" ou verdadeiro no "OU"
+                result = matched;
+                break;
+            }
+        }
+        if (ThreadLocalRandom.current().nextInt(REORDER_RATE) == 0) {
+            reorder();
+        }
+        return result;
+    }
+
+    /**
+     * @param index
+     *            A posição original do predicado componente.
+     * @return O tempo médio, em nanossegundos, de avaliação do predicado componente informado ou <code>-1</code> se o tempo ainda não foi medido.
+     * @throws IllegalStateException
+     *             Se este predicado não for adaptativo.
+     */
+    public double getAverageNanos(int index) {
+        checkAdaptive();
+        long count = samples[index].sum();
+        return count == 0 ? -1 : sampledNanos[index].sum() / (double) count;
+    }
+
+    /**
+     * @param index
+     *            A posição original do predicado componente.
+     * @return A quantidade de vezes que o predicado componente informado foi avaliado.
+     * @throws IllegalStateException
+     *             Se este predicado não for adaptativo.
+     */
+    public long getEvaluations(int index) {
+        checkAdaptive();
+        return evaluations[index].sum();
+    }
+
+    /**
+     * @param index
+     *            A posição original do predicado componente.
+     * @return A quantidade de objetos aceitos pelo predicado componente informado.
+     * @throws IllegalStateException
+     *             Se este predicado não for adaptativo.
+     */
+    public long getMatches(int index) {
+        checkAdaptive();
+        return matches[index].sum();
+    }
+
+    /**
+     * @return As posições originais dos predicados componentes, na ordem em que estão sendo avaliados.
+     */
+    public int[] getOrder() {
+        return order.clone();
+    }
+
+    /**
+     * @param index
+     *            A posição original do predicado componente.
+     * @return O predicado componente informado.
+     */
+    public Predicate<T> getPredicate(int index) {
+        return predicates[index];
+    }
+
+    /**
+     * @return <code>true</code> se este predicado reordena seus componentes e <code>false</code> caso contrário.
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @return <code>true</code> se este predicado combina seus componentes com <B>E</B> lógico e <code>false</code> se combina com <B>OU</B> lógico.
+     */
+    public boolean isConjunction() {
+        return conjunction;
+    }
+
+    /**
+     * Zera os contadores de todos os predicados componentes, a ordem de avaliação atual é mantida.
+     * 
+     * @throws IllegalStateException
+     *             Se este predicado não for adaptativo.
+     */
+    public void reset() {
+        checkAdaptive();
+        for (int index = 0; index < predicates.length; index++) {
+            evaluations[index].reset();
+            matches[index].reset();
+            samples[index].reset();
+            sampledNanos[index].reset();
+        }
+    }
+
+    /**
+     * @return A quantidade de predicados componentes.
+     */
+    public int size() {
+        return predicates.length;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(conjunction ? "AND" : "OR").append('[');
+        int[] order = this.order;
+        for (int position = 0; position < order.length; position++) {
+            int index = order[position];
+            if (position > 0) {
+                text.append(", ");
+            }
+            text.append('#').append(index);
+            if (adaptive) {
+                text.append(" evaluations=").append(getEvaluations(index)) //
+                    .append(" matches=").append(getMatches(index)) //
+                    .append(" avgNanos=").append(getAverageNanos(index));
+            }
+        }
+        return text.append(']').toString();
+    }
+
+    private void checkAdaptive() {
+        if (!adaptive) {
+            throw new IllegalStateException("counters are only kept by adaptive predicates");
+        }
+    }
+
+    // custo esperado de um componente por objeto descartado (no "E") ou aceito (no "OU"), quanto menor, mais cedo deve ser avaliado
+    private double rank(int index) {
+        long count = samples[index].sum();
+        long evaluated = evaluations[index].sum();
+        if (count < MIN_SAMPLES || evaluated == 0) {
+            return Double.NaN;
+        }
+        double cost = sampledNanos[index].sum() / (double) count;
+        double passRate = matches[index].sum() / (double) evaluated;
+        double decisive = conjunction ? 1 - passRate : passRate;
+        return decisive <= 0 ? Double.POSITIVE_INFINITY : cost / decisive;
+    }
+
+    private void reorder() {
+        if (!reordering.compareAndSet(false, true)) {
+            return; // outra thread já está reordenando
+        }
+        try {
+            final int size = predicates.length;
+            final double[] ranks = new double[size];
+            for (int index = 0; index < size; index++) {
+                double rank = rank(index);
+                ranks[index] = Double.isNaN(rank) ? Double.MAX_VALUE : rank; // componentes ainda sem medições suficientes ficam por último
+            }
+            Integer[] sorted = new Integer[size];
+            for (int position = 0; position < size; position++) {
+                sorted[position] = order[position];
+            }
+            Arrays.sort(sorted, new Comparator<Integer>() { // ordenação estável, empates mantêm a ordem atual
+
+                @Override
+                public int compare(Integer a, Integer b) {
+                    return Double.compare(ranks[a], ranks[b]);
+                }
+            });
+            int[] newOrder = new int[size];
+            for (int position = 0; position < size; position++) {
+                newOrder[position] = sorted[position];
+            }
+            order = newOrder;
+        } finally {
+            reordering.set(false);
+        }
+    }
+
+    private static LongAdder[] counters(int size) {
+        LongAdder[] counters = new LongAdder[size];
+        for (int index = 0; index < size; index++) {
+            counters[index] = new LongAdder();
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.staroski.tools.collections;
+
+/**
+ * Interface para predicados de valores <code>double</code>, evita a conversão dos valores para objetos.
+ * 
+ * @author Ricardo Artur Staroski
+ * 
+ * @see Predicate
+ */
+public interface DoublePredicate {
+
+    /**
+     * @see #object() DoublePredicate.Null.object()
+     */
+    public static final class Null {
+
+        /**
+         * @return Uma instância padrão <I>Null Object</I> da interface {@link DoublePredicate}
+         */
+        public static DoublePredicate object() {
+            return new DoublePredicate() {
+
+                @Override
+                public boolean apply(double value) {
+                    return true;
+                }
+            };
+        }
+
+        // não instanciável
+        private Null() {}
+    }
+
+    /**
+     * Verifica se o valor informado atende à este {@link DoublePredicate predicado} .
+     * 
+     * @param value
+     *            O valor a ser verificado.
+     * @return <code>true</code> se o valor atende à este {@link DoublePredicate predicado} e <code>false</code> caso contrário.
+     */
+    public boolean apply(double value);
+}
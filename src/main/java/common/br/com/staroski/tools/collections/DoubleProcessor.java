@@ -0,0 +1,57 @@
+package br.com.staroski.tools.collections;
+
+/**
+ * Interface para processadores de valores <code>double</code>, evita a conversão dos valores para objetos.
+ * 
+ * @author Ricardo Artur Staroski
+ * 
+ * @see Processor
+ */
+public interface DoubleProcessor {
+
+    /**
+     * @see #object() DoubleProcessor.Null.object()
+     */
+    public static final class Null {
+
+        /**
+         * @return Uma instância padrão <I>Null Object</I> da interface {@link DoubleProcessor}
+         */
+        public static DoubleProcessor object() {
+            return new DoubleProcessorAdapter() {
+
+                @Override
+                public double process(double value) {
+                    return value;
+                }
+            };
+        }
+
+        // não instanciável
+        private Null() {}
+    }
+
+    /**
+     * Invocado após finalizar o processamento.
+     */
+    public void afterFinish();
+
+    /**
+     * Invocado antes de iniciar o processamento.
+     */
+    public void beforeStart();
+
+    /**
+     * @return O resultado do processamento ou <code>null</code>.
+     */
+    public <V> V getResult();
+
+    /**
+     * Processa o valor informado.
+     * 
+     * @param value
+     *            O valor a ser processado
+     * @return O valor processado
+     */
+    public double process(double value);
+}
@@ -0,0 +1,18 @@
+package br.com.staroski.tools.collections;
+
+/**
+ * @author Ricardo Artur Staroski
+ */
+public abstract class DoubleProcessorAdapter implements DoubleProcessor {
+
+    @Override
+    public void afterFinish() {}
+
+    @Override
+    public void beforeStart() {}
+
+    @Override
+    public <V> V getResult() {
+        return null;
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.staroski.tools.collections;
+
+/**
+ * Interface para predicados de valores <code>int</code>, evita a conversão dos valores para objetos.
+ * 
+ * @author Ricardo Artur Staroski
+ * 
+ * @see Predicate
+ */
+public interface IntPredicate {
+
+    /**
+     * @see #object() IntPredicate.Null.object()
+     */
+    public static final class Null {
+
+        /**
+         * @return Uma instância padrão <I>Null Object</I> da interface {@link IntPredicate}
+         */
+        public static IntPredicate object() {
+            return new IntPredicate() {
+
+                @Override
+                public boolean apply(int value) {
+                    return true;
+                }
+            };
+        }
+
+        // não instanciável
+        private Null() {}
+    }
+
+    /**
+     * Verifica se o valor informado atende à este {@link IntPredicate predicado} .
+     * 
+     * @param value
+     *            O valor a ser verificado.
+     * @return <code>true</code> se o valor atende à este {@link IntPredicate predicado} e <code>false</code> caso contrário.
+     */
+    public boolean apply(int value);
+}
@@ -0,0 +1,42 @@
+package br.com.staroski.tools.collections;
+
+/**
+ * Interface para predicados de valores <code>long</code>, evita a conversão dos valores para objetos.
+ * 
+ * @author Ricardo Artur Staroski
+ * 
+ * @see Predicate
+ */
+public interface LongPredicate {
+
+    /**
+     * @see #object() LongPredicate.Null.object()
+     */
+    public static final class Null {
+
+        /**
+         * @return Uma instância padrão <I>Null Object</I> da interface {@link LongPredicate}
+         */
+        public static LongPredicate object() {
+            return new LongPredicate() {
+
+                @Override
+                public boolean apply(long value) {
+                    return true;
+                }
+            };
+        }
+
+        // não instanciável
+        private Null() {}
+    }
+
+    /**
+     * Verifica se o valor informado atende à este {@link LongPredicate predicado} .
+     * 
+     * @param value
+     *            O valor a ser verificado.
+     * @return <code>true</code> se o valor atende à este {@link LongPredicate predicado} e <code>false</code> caso contrário.
+     */
+    public boolean apply(long value);
+}
@@ -0,0 +1,57 @@
+package br.com.staroski.tools.collections;
+
+/**
+ * Interface para processadores de valores <code>long</code>, evita a conversão dos valores para objetos.
+ * 
+ * @author Ricardo Artur Staroski
+ * 
+ * @see Processor
+ */
+public interface LongProcessor {
+
+    /**
+     * @see #object() LongProcessor.Null.object()
+     */
+    public static final class Null {
+
+        /**
+         * @return Uma instância padrão <I>Null Object</I> da interface {@link LongProcessor}
+         */
+        public static LongProcessor object() {
+            return new LongProcessorAdapter() {
+
+                @Override
+                public long process(long value) {
+                    return value;
+                }
+            };
+        }
+
+        // não instanciável
+        private Null() {}
+    }
+
+    /**
+     * Invocado após finalizar o processamento.
+     */
+    public void afterFinish();
+
+    /**
+     * Invocado antes de iniciar o processamento.
+     */
+    public void beforeStart();
+
+    /**
+     * @return O resultado do processamento ou <code>null</code>.
+     */
+    public <V> V getResult();
+
+    /**
+     * Processa o valor informado.
+     * 
+     * @param value
+     *            O valor a ser processado
+     * @return O valor processado
+     */
+    public long process(long value);
+}
@@ -0,0 +1,374 @@
+package br.com.staroski.tools.collections;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorador de {@link Processor processadores} que memoriza os resultados do método {@link Processor#process(Object) process(Object)} em um cache de
+ * tamanho limitado, evitando processar novamente objetos já processados.<BR>
+ * <B>Observações</B><BR>
+ * Só deve ser utilizado com processadores cujo resultado dependa exclusivamente do objeto processado, os objetos devem implementar corretamente os
+ * métodos {@link Object#equals(Object) equals} e {@link Object#hashCode() hashCode}.<BR>
+ * Quando o cache está cheio, o objeto a ser descartado é escolhido conforme a {@link Eviction política de descarte} informada. Se houver um tempo de
+ * validade, os resultados expirados são descartados ao serem consultados.<BR>
+ * Os métodos {@link Processor#beforeStart() beforeStart()} e {@link Processor#afterFinish() afterFinish()} são repassados ao processador decorado e o
+ * cache é mantido entre um processamento e outro.<BR>
+ * O método {@link #getResult()} retorna as {@link Statistics estatísticas} do cache, que também dão acesso ao resultado do processador decorado.<BR>
+ * As instâncias desta classe são thread-safe, o processador decorado é invocado fora da seção crítica, portanto deve ser thread-safe caso o
+ * decorador seja utilizado concorrentemente.
+ *
+ * @author Ricardo Artur Staroski
+ *
+ * @param <T>
+ *            Tipo de dado do objeto que será processado.
+ */
+public final class MemoizingProcessor<T> implements Processor<T> {
+
+    /**
+     * Políticas de descarte de objetos do cache.
+     */
+    public static enum Eviction {
+        /**
+         * Descarta o objeto menos recentemente utilizado.
+         */
+        LRU,
+        /**
+         * Descarta o objeto menos frequentemente utilizado, em caso de empate descarta o menos recentemente utilizado.
+         */
+        LFU
+    }
+
+    /**
+     * Estatísticas de utilização do cache de um {@link MemoizingProcessor}.
+     */
+    public static final class Statistics {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final int size;
+        private final Object result;
+
+        private Statistics(long hits, long misses, long evictions, long expirations, int size, Object result) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.size = size;
+            this.result = result;
+        }
+
+        /**
+         * @return A quantidade de objetos descartados por falta de espaço no cache.
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * @return A quantidade de objetos descartados por terem expirado.
+         */
+        public long getExpirations() {
+            return expirations;
+        }
+
+        /**
+         * @return A quantidade de objetos cujo resultado foi obtido do cache.
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * @return A proporção de objetos cujo resultado foi obtido do cache, entre <code>0</code> e <code>1</code>.
+         */
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : hits / (double) total;
+        }
+
+        /**
+         * @return A quantidade de objetos que precisaram ser processados pelo processador decorado.
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return O {@link Processor#getResult() resultado} do processador decorado.
+         */
+        @SuppressWarnings("unchecked")
+        public <V> V getResult() {
+            return (V) result;
+        }
+
+        /**
+         * @return A quantidade de objetos no cache.
+         */
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", misses=" + misses + ", hitRate=" + getHitRate() + ", evictions=" + evictions + ", expirations=" + expirations
+                   + ", size=" + size;
+        }
+    }
+
+    /**
+     * Grupo de objetos do cache utilizados a mesma quantidade de vezes, os grupos formam uma lista em ordem crescente de frequência.<BR>
+     * Na política {@link Eviction#LRU LRU} existe um único grupo, cuja frequência não é atualizada.
+     */
+    private static final class Bucket<T> {
+
+        final long frequency;
+        Bucket<T> previous;
+        Bucket<T> next;
+        Entry<T> first; // mais recentemente utilizado
+        Entry<T> last; // menos recentemente utilizado
+
+        Bucket(long frequency) {
+            this.frequency = frequency;
+        }
+    }
+
+    private static final class Entry<T> {
+
+        final T key;
+        final T value;
+        final long expiration;
+        Bucket<T> bucket;
+        Entry<T> previous;
+        Entry<T> next;
+
+        Entry(T key, T value, long expiration) {
+            this.key = key;
+            this.value = value;
+            this.expiration = expiration;
+        }
+    }
+
+    private final Processor<T> delegate;
+    private final Eviction eviction;
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+
+    // não utiliza o próprio decorador como monitor, pois o CollectionHandler o mantém sincronizado durante todo o processamento
+    private final Object lock = new Object();
+
+    private final Map<T, Entry<T>> entries = new HashMap<T, Entry<T>>();
+    private Bucket<T> lowest; // grupo de menor frequência, de onde os objetos são descartados
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * Cria um decorador cujos resultados nunca expiram.
+     *
+     * @param delegate
+     *            O {@link Processor processador} decorado.
+     * @param eviction
+     *            A {@link Eviction política de descarte} do cache.
+     * @param maximumSize
+     *            A quantidade máxima de objetos no cache.
+     */
+    public MemoizingProcessor(Processor<T> delegate, Eviction eviction, int maximumSize) {
+        this(delegate, eviction, maximumSize, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Cria um decorador cujos resultados expiram após o tempo informado.
+     *
+     * @param delegate
+     *            O {@link Processor processador} decorado.
+     * @param eviction
+     *            A {@link Eviction política de descarte} do cache.
+     * @param maximumSize
+     *            A quantidade máxima de objetos no cache.
+     * @param timeToLive
+     *            O tempo de validade de cada resultado, contado a partir do seu processamento, ou <code>0</code> para resultados que nunca expiram.
+     * @param unit
+     *            A {@link TimeUnit unidade} do tempo de validade.
+     */
+    public MemoizingProcessor(Processor<T> delegate, Eviction eviction, int maximumSize, long timeToLive, TimeUnit unit) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate cannot be null");
+        }
+        if (eviction == null) {
+            throw new IllegalArgumentException("eviction cannot be null");
+        }
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be greater than zero");
+        }
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("timeToLive cannot be negative");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit cannot be null");
+        }
+        this.delegate = delegate;
+        this.eviction = eviction;
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+    }
+
+    @Override
+    public void afterFinish() {
+        delegate.afterFinish();
+    }
+
+    @Override
+    public void beforeStart() {
+        delegate.beforeStart();
+    }
+
+    /**
+     * Descarta todos os objetos do cache, as estatísticas são mantidas.
+     */
+    public void clear() {
+        synchronized (lock) {
+            entries.clear();
+            lowest = null;
+        }
+    }
+
+    /**
+     * @return As {@link Statistics estatísticas} do cache no momento da chamada.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> V getResult() {
+        Object result = delegate.getResult();
+        synchronized (lock) {
+            return (V) new Statistics(hits, misses, evictions, expirations, entries.size(), result);
+        }
+    }
+
+    @Override
+    public T process(T object) {
+        synchronized (lock) {
+            Entry<T> entry = entries.get(object);
+            if (entry != null) {
+                if (timeToLiveNanos == 0 || System.nanoTime() - entry.expiration < 0) {
+                    hits++;
+                    touch(entry);
+                    return entry.value;
+                }
+                expirations++;
+                remove(entry);
+            }
+            misses++;
+        }
+        T value = delegate.process(object); // processado fora da seção crítica para não bloquear as demais threads
+        long expiration = timeToLiveNanos == 0 ? 0 : System.nanoTime() + timeToLiveNanos;
+        synchronized (lock) {
+            Entry<T> existing = entries.get(object);
+            if (existing != null) {
+                remove(existing); // outra thread processou o mesmo objeto ao mesmo tempo
+            } else if (entries.size() >= maximumSize) {
+                evictions++;
+                remove(lowest.last);
+            }
+            insert(new Entry<T>(object, value, expiration));
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "MemoizingProcessor[" + eviction + ", maximumSize=" + maximumSize + ", " + getResult() + "]";
+    }
+
+    // adiciona o objeto como o mais recentemente utilizado do grupo de frequência 1
+    private void insert(Entry<T> entry) {
+        Bucket<T> bucket = lowest;
+        if (bucket == null || bucket.frequency != 1) {
+            bucket = new Bucket<T>(1);
+            link(bucket, null, lowest);
+        }
+        addFirst(bucket, entry);
+        entries.put(entry.key, entry);
+    }
+
+    private void remove(Entry<T> entry) {
+        entries.remove(entry.key);
+        unlink(entry);
+    }
+
+    // registra a utilização do objeto, conforme a política de descarte
+    private void touch(Entry<T> entry) {
+        Bucket<T> bucket = entry.bucket;
+        if (eviction == Eviction.LRU) {
+            if (bucket.first != entry) {
+                unlink(entry);
+                addFirst(bucket, entry);
+            }
+            return;
+        }
+        Bucket<T> next = bucket.next;
+        if (next == null || next.frequency != bucket.frequency + 1) {
+            next = new Bucket<T>(bucket.frequency + 1);
+            link(next, bucket, bucket.next);
+        }
+        unlink(entry);
+        addFirst(next, entry);
+    }
+
+    private void addFirst(Bucket<T> bucket, Entry<T> entry) {
+        entry.bucket = bucket;
+        entry.previous = null;
+        entry.next = bucket.first;
+        if (bucket.first != null) {
+            bucket.first.previous = entry;
+        } else {
+            bucket.last = entry;
+        }
+        bucket.first = entry;
+    }
+
+    // insere o grupo entre os grupos informados
+    private void link(Bucket<T> bucket, Bucket<T> previous, Bucket<T> next) {
+        bucket.previous = previous;
+        bucket.next = next;
+        if (previous != null) {
+            previous.next = bucket;
+        } else {
+            lowest = bucket;
+        }
+        if (next != null) {
+            next.previous = bucket;
+        }
+    }
+
+    // retira o objeto do seu grupo, descartando o grupo se ficar vazio
+    private void unlink(Entry<T> entry) {
+        Bucket<T> bucket = entry.bucket;
+        if (entry.previous != null) {
+            entry.previous.next = entry.next;
+        } else {
+            bucket.first = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.previous = entry.previous;
+        } else {
+            bucket.last = entry.previous;
+        }
+        entry.previous = null;
+        entry.next = null;
+        if (bucket.first == null) {
+            if (bucket.previous != null) {
+                bucket.previous.next = bucket.next;
+            } else {
+                lowest = bucket.next;
+            }
+            if (bucket.next != null) {
+                bucket.next.previous = bucket.previous;
+            }
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package br.com.staroski.tools.collections;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Encadeamento de vários estágios de filtragem e processamento executados concorrentemente.<BR>
+ * Cada {@link Stage estágio} possui suas próprias threads e uma fila de entrada limitada, de forma que um estágio lento bloqueia os estágios anteriores
+ * quando sua fila enche, ao invés de acumular objetos na memória.<BR>
+ * Para obter instâncias desta classe, utilize o {@link Builder construtor} retornado pelo método {@link #builder()}:
+ *
+ * <pre>
+ * Pipeline&lt;Pedido&gt; pipeline = Pipeline.&lt;Pedido&gt; builder()
+ *                                     .filter(pedidosValidos)
+ *                                     .process(enriquecedor, 4, 1000)
+ *                                     .process(gravador, 2, 100)
+ *                                     .build();
+ * List&lt;Pedido&gt; gravados = pipeline.run(pedidos);
+ * </pre>
+ *
+ * Para que a memória utilizada não cresça com a quantidade de objetos processados, utilize o método {@link #run(Iterable, Sink)}, que entrega os
+ * objetos que passaram por todos os estágios a um {@link Sink destino} ao invés de acumulá-los em uma lista.
+ *
+ * <B>Observações</B><BR>
+ * Quando um estágio possui mais de uma thread, a ordem dos objetos não é preservada e o {@link Predicate predicado} ou {@link Processor processador}
+ * do estágio é invocado concorrentemente, portanto deve ser thread-safe.<BR>
+ * O método {@link Processor#beforeStart() beforeStart()} de cada {@link Processor processador} é invocado uma única vez antes do processamento iniciar.
+ * <BR>
+ * O método {@link Processor#afterFinish() afterFinish()} de cada {@link Processor processador} é invocado uma única vez, assim que todas as threads do
+ * seu estágio terminam, inclusive quando o processamento é interrompido por uma exceção, mas somente se o seu método
+ * {@link Processor#beforeStart() beforeStart()} foi executado com sucesso.<BR>
+ * Assim como no {@link CollectionHandler}, os objetos e os resultados dos processadores podem ser <code>null</code>.
+ *
+ * @author Ricardo Artur Staroski
+ *
+ * @param <T>
+ *            Tipo de dado dos objetos processados.
+ */
+public final class Pipeline<T> {
+
+    /**
+     * Construtor de {@link Pipeline pipelines}, os estágios são executados na ordem em que são adicionados.
+     *
+     * @param <T>
+     *            Tipo de dado dos objetos processados.
+     */
+    public static final class Builder<T> {
+
+        private final List<Stage<T>> stages = new ArrayList<Stage<T>>();
+
+        private Builder() {}
+
+        /**
+         * @return O {@link Pipeline} com os estágios adicionados até o momento.
+         */
+        public Pipeline<T> build() {
+            return new Pipeline<T>(stages);
+        }
+
+        /**
+         * Adiciona um estágio de filtragem com uma única thread e fila de tamanho {@link Pipeline#DEFAULT_QUEUE_CAPACITY}.
+         *
+         * @param predicate
+         *            O {@link Predicate predicado} do estágio.
+         * @return Este construtor.
+         */
+        public Builder<T> filter(Predicate<T> predicate) {
+            return filter(predicate, 1, DEFAULT_QUEUE_CAPACITY);
+        }
+
+        /**
+         * Adiciona um estágio de filtragem, somente os objetos que atendem ao {@link Predicate predicado} seguem para o próximo estágio.
+         *
+         * @param predicate
+         *            O {@link Predicate predicado} do estágio.
+         * @param workers
+         *            A quantidade de threads do estágio.
+         * @param queueCapacity
+         *            A quantidade máxima de objetos aguardando na fila de entrada do estágio.
+         * @return Este construtor.
+         */
+        public Builder<T> filter(Predicate<T> predicate, int workers, int queueCapacity) {
+            if (predicate == null) {
+                throw new IllegalArgumentException("predicate cannot be null");
+            }
+            return add(new Stage<T>(stages.size() + 1 + ":filter", predicate, null, workers, queueCapacity));
+        }
+
+        /**
+         * Adiciona um estágio de processamento com uma única thread e fila de tamanho {@link Pipeline#DEFAULT_QUEUE_CAPACITY}.
+         *
+         * @param processor
+         *            O {@link Processor processador} do estágio.
+         * @return Este construtor.
+         */
+        public Builder<T> process(Processor<T> processor) {
+            return process(processor, 1, DEFAULT_QUEUE_CAPACITY);
+        }
+
+        /**
+         * Adiciona um estágio de processamento, os objetos processados pelo {@link Processor processador} seguem para o próximo estágio.
+         *
+         * @param processor
+         *            O {@link Processor processador} do estágio.
+         * @param workers
+         *            A quantidade de threads do estágio.
+         * @param queueCapacity
+         *            A quantidade máxima de objetos aguardando na fila de entrada do estágio.
+         * @return Este construtor.
+         */
+        public Builder<T> process(Processor<T> processor, int workers, int queueCapacity) {
+            if (processor == null) {
+                throw new IllegalArgumentException("processor cannot be null");
+            }
+            return add(new Stage<T>(stages.size() + 1 + ":process", null, processor, workers, queueCapacity));
+        }
+
+        private Builder<T> add(Stage<T> stage) {
+            stages.add(stage);
+            return this;
+        }
+    }
+
+    /**
+     * Estágio de um {@link Pipeline}, disponibiliza os contadores de vazão e de ocupação da fila do estágio.<BR>
+     * Os contadores são zerados a cada execução do {@link Pipeline} e podem ser consultados por outras threads durante a execução.
+     *
+     * @param <T>
+     *            Tipo de dado dos objetos processados.
+     */
+    public static final class Stage<T> {
+
+        private final String name;
+        private final Predicate<T> predicate;
+        private final Processor<T> processor;
+        private final int workers;
+        private final int queueCapacity;
+
+        private final LongAdder input = new LongAdder();
+        private final LongAdder output = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final AtomicInteger peakQueueDepth = new AtomicInteger();
+        private final AtomicInteger runningWorkers = new AtomicInteger();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private volatile boolean started;
+        private volatile BlockingQueue<Object> queue;
+        private volatile long startNanos;
+        private volatile long finishNanos;
+
+        private Stage(String name, Predicate<T> predicate, Processor<T> processor, int workers, int queueCapacity) {
+            if (workers < 1) {
+                throw new IllegalArgumentException("workers must be greater than zero");
+            }
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("queueCapacity must be greater than zero");
+            }
+            this.name = name;
+            this.predicate = predicate;
+            this.processor = processor;
+            this.workers = workers;
+            this.queueCapacity = queueCapacity;
+        }
+
+        /**
+         * @return O tempo total, em nanossegundos, que as threads do estágio passaram filtrando ou processando objetos.
+         */
+        public long getBusyNanos() {
+            return busyNanos.sum();
+        }
+
+        /**
+         * @return A quantidade de objetos recebidos pelo estágio.
+         */
+        public long getInputCount() {
+            return input.sum();
+        }
+
+        /**
+         * @return O nome do estágio, composto pela sua posição e pelo seu tipo.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return A quantidade de objetos repassados pelo estágio.
+         */
+        public long getOutputCount() {
+            return output.sum();
+        }
+
+        /**
+         * @return A maior quantidade de objetos que aguardaram ao mesmo tempo na fila de entrada do estágio.
+         */
+        public int getPeakQueueDepth() {
+            return peakQueueDepth.get();
+        }
+
+        /**
+         * @return A capacidade da fila de entrada do estágio.
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * @return A quantidade de objetos aguardando na fila de entrada do estágio neste momento.
+         */
+        public int getQueueDepth() {
+            BlockingQueue<Object> queue = this.queue;
+            return queue == null ? 0 : queue.size();
+        }
+
+        /**
+         * @return A quantidade de objetos recebidos pelo estágio por segundo, desde o início da execução até o fim do estágio.
+         */
+        public double getThroughput() {
+            long start = startNanos;
+            if (start == 0) {
+                return 0;
+            }
+            long finish = finishNanos;
+            long elapsed = (finish == 0 ? System.nanoTime() : finish) - start;
+            return elapsed <= 0 ? 0 : input.sum() * 1e9 / elapsed;
+        }
+
+        /**
+         * @return A quantidade de threads do estágio.
+         */
+        public int getWorkers() {
+            return workers;
+        }
+
+        @Override
+        public String toString() {
+            return name + " [in=" + getInputCount() + ", out=" + getOutputCount() + ", queue=" + getQueueDepth() + "/" + queueCapacity + ", peak="
+                   + getPeakQueueDepth() + ", throughput=" + (long) getThroughput() + "/s]";
+        }
+
+        // chamado uma única vez por execução, antes das threads serem iniciadas
+        private void reset(long start) {
+            input.reset();
+            output.reset();
+            busyNanos.reset();
+            peakQueueDepth.set(0);
+            runningWorkers.set(workers);
+            started = false;
+            finished.set(false);
+            queue = new ArrayBlockingQueue<Object>(queueCapacity);
+            startNanos = start;
+            finishNanos = 0;
+        }
+
+        // invoca o beforeStart do processador, o estágio somente é finalizado se este método terminar sem exceção
+        private void start() {
+            if (processor != null) {
+                processor.beforeStart();
+            }
+            started = true;
+        }
+
+        // invoca o afterFinish do processador, somente na primeira chamada de cada execução e se o estágio foi iniciado
+        private void finish() {
+            if (started && finished.compareAndSet(false, true)) {
+                finishNanos = System.nanoTime();
+                if (processor != null) {
+                    processor.afterFinish();
+                }
+            }
+        }
+
+        private void put(Object object) throws InterruptedException {
+            BlockingQueue<Object> queue = this.queue;
+            queue.put(object == null ? NULL : object); // as filas não aceitam null
+            int depth = queue.size();
+            int peak;
+            while (depth > (peak = peakQueueDepth.get()) && !peakQueueDepth.compareAndSet(peak, depth)) {
+                // tenta novamente até registrar o pico ou até outra thread registrar um pico maior
+            }
+        }
+    }
+
+    /**
+     * Capacidade padrão da fila de entrada de cada estágio.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    // marcador de fim da entrada, cada thread de um estágio termina ao recebê-lo
+    private static final Object END = new Object();
+
+    // representa um objeto null nas filas dos estágios
+    private static final Object NULL = new Object();
+
+    /**
+     * @return Um novo {@link Builder construtor} de {@link Pipeline pipelines}.
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<T>();
+    }
+
+    private final List<Stage<T>> stages;
+
+    private final List<Thread> threads = new ArrayList<Thread>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    private volatile Thread caller;
+    private volatile boolean callerInterrupted; // indica que fail() interrompeu a thread chamadora
+
+    private Pipeline(List<Stage<T>> stages) {
+        this.stages = Collections.unmodifiableList(new ArrayList<Stage<T>>(stages));
+    }
+
+    /**
+     * @return Os {@link Stage estágios} deste pipeline, na ordem de execução.
+     */
+    public List<Stage<T>> getStages() {
+        return stages;
+    }
+
+    /**
+     * Executa este pipeline sobre os objetos informados, retornando uma {@link List lista} com os objetos que passaram por todos os estágios.<BR>
+     * A lista acumula todos os objetos que passaram pelo último estágio, para grandes quantidades de objetos utilize o método
+     * {@link #run(Iterable, Sink)}.
+     *
+     * @param source
+     *            Os objetos a serem processados.
+     * @return Uma {@link List lista} contendo os objetos que passaram por todos os estágios.
+     * @see #run(Iterable, Sink)
+     */
+    public List<T> run(Iterable<T> source) {
+        final List<T> results = new ArrayList<T>();
+        run(source, new Sink<T>() {
+
+            @Override
+            public void accept(T object) {
+                results.add(object); // o destino nunca é invocado concorrentemente
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Executa este pipeline sobre os objetos informados, entregando ao {@link Sink destino} informado os objetos que passaram por todos os estágios.<BR>
+     * O método retorna somente após todos os estágios terminarem. Se algum estágio ou o destino lançar uma exceção, as threads de todos os estágios são
+     * interrompidas, o método {@link Processor#afterFinish() afterFinish()} dos processadores que ainda não terminaram é invocado e a exceção é
+     * relançada.<BR>
+     * <B>Observações</B><BR>
+     * O destino é invocado pelas threads do último estágio, uma de cada vez, portanto não precisa ser thread-safe. Um destino lento bloqueia o último
+     * estágio e, através das filas limitadas, todos os estágios anteriores, de forma que a memória utilizada não cresce com a quantidade de objetos.<BR>
+     * Quando o último estágio possui mais de uma thread, a ordem dos objetos entregues ao destino não é preservada.
+     *
+     * @param source
+     *            Os objetos a serem processados.
+     * @param sink
+     *            O {@link Sink destino} dos objetos que passaram por todos os estágios, {@link Sink.Null#object() Sink.Null.object()} descarta os
+     *            objetos.
+     * @see #run(Iterable)
+     */
+    public synchronized void run(Iterable<T> source, Sink<? super T> sink) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (sink == null) {
+            throw new IllegalArgumentException("sink cannot be null");
+        }
+        if (stages.isEmpty()) {
+            for (T object : source) {
+                sink.accept(object);
+            }
+            return;
+        }
+        failure.set(null);
+        threads.clear();
+        callerInterrupted = false;
+        caller = Thread.currentThread();
+        boolean interrupted = false; // a thread chamadora foi interrompida por outra thread que não deste pipeline
+        try {
+            long start = System.nanoTime();
+            for (Stage<T> stage : stages) {
+                stage.reset(start);
+            }
+            for (Stage<T> stage : stages) {
+                stage.start();
+            }
+            for (int index = 0; index < stages.size(); index++) {
+                Stage<T> stage = stages.get(index);
+                Stage<T> next = index + 1 < stages.size() ? stages.get(index + 1) : null;
+                for (int worker = 1; worker <= stage.workers; worker++) {
+                    Thread thread = new Thread(new Worker(stage, next, sink), "Pipeline stage " + stage.name + " worker " + worker);
+                    thread.setDaemon(true);
+                    threads.add(thread);
+                }
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            Stage<T> first = stages.get(0);
+            for (T object : source) {
+                if (failure.get() != null) {
+                    break;
+                }
+                first.put(object);
+            }
+            if (failure.get() == null) {
+                for (int worker = 0; worker < first.workers; worker++) {
+                    first.put(END);
+                }
+            }
+        } catch (Throwable e) {
+            interrupted = e instanceof InterruptedException && !callerInterrupted;
+            fail(e);
+        } finally {
+            shutdown();
+        }
+        Throwable error = failure.get();
+        if (error != null) {
+            if (callerInterrupted) {
+                Thread.interrupted(); // descarta somente a interrupção feita pelas threads ao sinalizar a falha
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt(); // preserva a interrupção recebida de fora do pipeline
+            }
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            if (error instanceof Error) {
+                throw (Error) error;
+            }
+            throw new IllegalStateException("pipeline interrupted", error);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Pipeline" + stages;
+    }
+
+    // registra a primeira falha e interrompe todas as threads, inclusive a que está alimentando o pipeline
+    private void fail(Throwable error) {
+        if (failure.compareAndSet(null, error)) {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+            Thread caller = this.caller;
+            if (caller != null && caller != Thread.currentThread()) {
+                callerInterrupted = true;
+                caller.interrupt();
+            }
+        }
+    }
+
+    // aguarda todas as threads terminarem e garante que o afterFinish de todos os processadores seja invocado
+    private void shutdown() {
+        for (Thread thread : threads) {
+            boolean interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted && failure.get() == null) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        caller = null;
+        for (Stage<T> stage : stages) {
+            try {
+                stage.finish();
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            } catch (Error e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    /**
+     * Thread de um estágio, consome a fila do estágio e repassa os objetos ao próximo estágio ou ao destino.
+     */
+    private final class Worker implements Runnable {
+
+        private final Stage<T> stage;
+        private final Stage<T> next;
+        private final Sink<? super T> sink;
+
+        Worker(Stage<T> stage, Stage<T> next, Sink<? super T> sink) {
+            this.stage = stage;
+            this.next = next;
+            this.sink = sink;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void run() {
+            try {
+                final BlockingQueue<Object> queue = stage.queue;
+                for (Object item = queue.take(); item != END; item = queue.take()) {
+                    stage.input.increment();
+                    long start = System.nanoTime();
+                    T object = item == NULL ? null : (T) item;
+                    boolean accepted = true;
+                    if (stage.predicate != null) {
+                        accepted = stage.predicate.apply(object);
+                    } else {
+                        object = stage.processor.process(object);
+                    }
+                    stage.busyNanos.add(System.nanoTime() - start);
+                    if (accepted) {
+                        stage.output.increment();
+                        if (next == null) {
+                            synchronized (sink) { // o destino é invocado por uma thread de cada vez
+                                sink.accept(object);
+                            }
+                        } else {
+                            next.put(object);
+                        }
+                    }
+                }
+                if (stage.runningWorkers.decrementAndGet() == 0) { // última thread do estágio
+                    stage.finish();
+                    if (next != null) {
+                        for (int worker = 0; worker < next.workers; worker++) {
+                            next.put(END);
+                        }
+                    }
+                }
+            } catch (Throwable e) {
+                fail(e); // inclusive InterruptedException, quando outro estágio falhou
+            }
+        }
+    }
+}
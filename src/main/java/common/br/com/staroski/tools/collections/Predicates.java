@@ -0,0 +1,104 @@
+package br.com.staroski.tools.collections;
+
+/**
+ * Classe utilitária para combinação de {@link Predicate predicados}.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+public final class Predicates {
+
+    /**
+     * Combina os {@link Predicate predicados} informados através de <B>E</B> lógico.<BR>
+     * Os predicados são avaliados na ordem informada e a avaliação é interrompida no primeiro predicado que não aceitar o objeto.
+     * 
+     * @param predicates
+     *            Os {@link Predicate predicados} a serem combinados.
+     * @return O {@link CompositePredicate predicado composto}.
+     * @see #adaptiveAnd(Predicate...)
+     * @see #or(Predicate...)
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs") // o array é copiado e nunca exposto
+    public static <T> CompositePredicate<T> and(Predicate<T>... predicates) {
+        return new CompositePredicate<T>(copy(predicates), true, false);
+    }
+
+    /**
+     * Combina os {@link Predicate predicados} informados através de <B>E</B> lógico, reordenando-os periodicamente conforme o custo e a seletividade
+     * medidos de cada um.<BR>
+     * A avaliação é interrompida no primeiro predicado que não aceitar o objeto.
+     * 
+     * @param predicates
+     *            Os {@link Predicate predicados} a serem combinados.
+     * @return O {@link CompositePredicate predicado composto} adaptativo.
+     * @see #and(Predicate...)
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs") // o array é copiado e nunca exposto
+    public static <T> CompositePredicate<T> adaptiveAnd(Predicate<T>... predicates) {
+        return new CompositePredicate<T>(copy(predicates), true, true);
+    }
+
+    /**
+     * Combina os {@link Predicate predicados} informados através de <B>OU</B> lógico, reordenando-os periodicamente conforme o custo e a seletividade
+     * medidos de cada um.<BR>
+     * A avaliação é interrompida no primeiro predicado que aceitar o objeto.
+     * 
+     * @param predicates
+     *            Os {@link Predicate predicados} a serem combinados.
+     * @return O {@link CompositePredicate predicado composto} adaptativo.
+     * @see #or(Predicate...)
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs") // o array é copiado e nunca exposto
+    public static <T> CompositePredicate<T> adaptiveOr(Predicate<T>... predicates) {
+        return new CompositePredicate<T>(copy(predicates), false, true);
+    }
+
+    /**
+     * Nega o {@link Predicate predicado} informado.
+     * 
+     * @param predicate
+     *            O {@link Predicate predicado} a ser negado.
+     * @return Um {@link Predicate predicado} que aceita somente os objetos não aceitos pelo predicado informado.
+     */
+    public static <T> Predicate<T> not(final Predicate<T> predicate) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("predicate cannot be null");
+        }
+        return new Predicate<T>() {
+
+            @Override
+            public boolean apply(T object) {
+                return !predicate.apply(object);
+            }
+        };
+    }
+
+    /**
+     * Combina os {@link Predicate predicados} informados através de <B>OU</B> lógico.<BR>
+     * Os predicados são avaliados na ordem informada e a avaliação é interrompida no primeiro predicado que aceitar o objeto.
+     * 
+     * @param predicates
+     *            Os {@link Predicate predicados} a serem combinados.
+     * @return O {@link CompositePredicate predicado composto}.
+     * @see #adaptiveOr(Predicate...)
+     * @see #and(Predicate...)
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs") // o array é copiado e nunca exposto
+    public static <T> CompositePredicate<T> or(Predicate<T>... predicates) {
+        return new CompositePredicate<T>(copy(predicates), false, false);
+    }
+
+    // cópia defensiva, o array informado pelo chamador pode ser alterado depois
+    private static <T> Predicate<T>[] copy(Predicate<T>[] predicates) {
+        if (predicates == null) {
+            throw new IllegalArgumentException("predicates cannot be null");
+        }
+        return predicates.clone();
+    }
+
+    // classe utilitária não instanciável
+    private Predicates() {}
+}
@@ -0,0 +1,40 @@
+package br.com.staroski.tools.collections;
+
+/**
+ * Interface para destinos dos objetos processados pelo {@link CollectionHandler}.
+ * 
+ * @author Ricardo Artur Staroski
+ *
+ * @param <T>
+ *            Tipo de dado do objeto que será recebido.
+ */
+public interface Sink<T> {
+
+    /**
+     * @see #object() Sink.Null.object()
+     */
+    public static final class Null {
+
+        /**
+         * @return Uma instância padrão <I>Null Object</I> da interface {@link Sink}, que descarta os objetos recebidos.
+         */
+        public static <T> Sink<T> object() {
+            return new Sink<T>() {
+
+                @Override
+                public void accept(T object) {}
+            };
+        }
+
+        // não instanciável
+        private Null() {}
+    }
+
+    /**
+     * Recebe um objeto processado.
+     * 
+     * @param object
+     *            O objeto processado.
+     */
+    public void accept(T object);
+}
@@ -0,0 +1,34 @@
+package br.com.staroski.tools.collections;
+
+/**
+ * Interface para {@link Processor processadores} capazes de dividir o processamento em partes independentes e, ao final, combinar os resultados parciais.<BR>
+ * <B>Observações</B><BR>
+ * Utilizada pelo processamento paralelo do {@link CollectionHandler}, onde cada parte da coleção é processada por um {@link #split() processador
+ * parcial} e os processadores parciais são {@link #combine(SplittableProcessor) combinados} no processador original, na mesma ordem da coleção.
+ *
+ * @author Ricardo Artur Staroski
+ *
+ * @param <T>
+ *            Tipo de dado do objeto que será processado.
+ */
+public interface SplittableProcessor<T> extends Processor<T> {
+
+    /**
+     * Combina neste {@link Processor processador} o resultado parcial de um processador obtido através do método {@link #split()}.<BR>
+     * Os processadores parciais são combinados um de cada vez, na mesma ordem em que suas partes aparecem na coleção.
+     *
+     * @param partial
+     *            O processador parcial a ser combinado.
+     */
+    public void combine(SplittableProcessor<T> partial);
+
+    /**
+     * Cria um novo {@link Processor processador}, independente deste, para processar uma parte da coleção.<BR>
+     * Os métodos {@link #beforeStart() beforeStart()} e {@link #afterFinish() afterFinish()} nunca são invocados em processadores parciais.<BR>
+     * Este método é invocado concorrentemente pelas threads do pool, uma vez para cada parte, portanto deve ser thread-safe e não deve alterar o
+     * estado deste processador.
+     *
+     * @return O processador parcial.
+     */
+    public SplittableProcessor<T> split();
+}
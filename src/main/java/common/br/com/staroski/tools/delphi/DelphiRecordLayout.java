@@ -0,0 +1,244 @@
+package br.com.staroski.tools.delphi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Descri&ccedil;&atilde;o do layout de registros bin&aacute;rios de tamanho fixo gravados pelo <B>Delphi</B>, utilizado pelo
+ * {@link DelphiRecordReader}<BR>
+ * Cada campo &eacute; definido pelo seu nome, pela sua posi&ccedil;&atilde;o em bytes a partir do in&iacute;cio do registro e pelo seu
+ * {@link FieldType tipo}, por exemplo, para o registro:
+ * 
+ * <PRE>
+ * TVenda = packed record
+ *   Codigo: Integer;    // posi&ccedil;&atilde;o 0
+ *   Data: TDateTime;    // posi&ccedil;&atilde;o 4
+ *   Valor: Double;      // posi&ccedil;&atilde;o 12
+ * end;
+ * </PRE>
+ * 
+ * utiliza-se:
+ * 
+ * <PRE>
+ * DelphiRecordLayout layout = new DelphiRecordLayout(20);
+ * Field codigo = layout.add(&quot;Codigo&quot;, 0, FieldType.INTEGER);
+ * Field data = layout.add(&quot;Data&quot;, 4, FieldType.TDATETIME);
+ * Field valor = layout.add(&quot;Valor&quot;, 12, FieldType.DOUBLE);
+ * </PRE>
+ * 
+ * <B>Observa&ccedil;&otilde;es</B><BR>
+ * Registros que n&atilde;o s&atilde;o <code>packed</code> t&ecirc;m os campos alinhados pelo compilador do <B>Delphi</B>, neste caso as
+ * posi&ccedil;&otilde;es e o tamanho do registro devem considerar os bytes de alinhamento.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+public final class DelphiRecordLayout {
+
+    /**
+     * Campo de um registro
+     * 
+     * @author Ricardo Artur Staroski
+     */
+    public static final class Field {
+
+        private final DelphiRecordLayout layout;
+        private final String name;
+        private final int offset;
+        private final FieldType type;
+
+        private Field(DelphiRecordLayout layout, String name, int offset, FieldType type) {
+            this.layout = layout;
+            this.name = name;
+            this.offset = offset;
+            this.type = type;
+        }
+
+        /**
+         * @return O nome do campo
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return A posi&ccedil;&atilde;o do campo em bytes a partir do in&iacute;cio do registro
+         */
+        public int getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return O tipo do campo
+         */
+        public FieldType getType() {
+            return type;
+        }
+
+        @Override
+        public String toString() {
+            return name + "@" + offset + ":" + type;
+        }
+    }
+
+    /**
+     * Tipos de campo do <B>Delphi</B> suportados, todos gravados em little-endian
+     * 
+     * @author Ricardo Artur Staroski
+     */
+    public enum FieldType {
+
+        /**
+         * <code>Byte</code>, inteiro de 8 bits sem sinal
+         */
+        BYTE(1),
+
+        /**
+         * <code>ShortInt</code>, inteiro de 8 bits com sinal
+         */
+        SHORTINT(1),
+
+        /**
+         * <code>Word</code>, inteiro de 16 bits sem sinal
+         */
+        WORD(2),
+
+        /**
+         * <code>SmallInt</code>, inteiro de 16 bits com sinal
+         */
+        SMALLINT(2),
+
+        /**
+         * <code>Cardinal</code> ou <code>LongWord</code>, inteiro de 32 bits sem sinal
+         */
+        CARDINAL(4),
+
+        /**
+         * <code>Integer</code> ou <code>LongInt</code>, inteiro de 32 bits com sinal
+         */
+        INTEGER(4),
+
+        /**
+         * <code>Int64</code>, inteiro de 64 bits com sinal
+         */
+        INT64(8),
+
+        /**
+         * <code>Single</code>, ponto flutuante de 32 bits
+         */
+        SINGLE(4),
+
+        /**
+         * <code>Double</code>, ponto flutuante de 64 bits
+         */
+        DOUBLE(8),
+
+        /**
+         * <code>TDateTime</code>, ponto flutuante de 64 bits com a data e hora, veja {@link JavaAndDelphiTimes}
+         */
+        TDATETIME(8);
+
+        private final int size;
+
+        private FieldType(int size) {
+            this.size = size;
+        }
+
+        /**
+         * @return O tamanho do campo em bytes
+         */
+        public int getSize() {
+            return size;
+        }
+    }
+
+    private final int recordSize;
+    private final List<Field> fields = new ArrayList<>();
+
+    /**
+     * Cria um layout sem campos
+     * 
+     * @param recordSize
+     *            O tamanho de cada registro em bytes
+     */
+    public DelphiRecordLayout(int recordSize) {
+        if (recordSize < 1) {
+            throw new IllegalArgumentException("recordSize must be positive");
+        }
+        this.recordSize = recordSize;
+    }
+
+    /**
+     * Inclui um campo no layout
+     * 
+     * @param name
+     *            O nome do campo
+     * @param offset
+     *            A posi&ccedil;&atilde;o do campo em bytes a partir do in&iacute;cio do registro
+     * @param type
+     *            O tipo do campo
+     * 
+     * @return O campo inclu&iacute;do, a ser utilizado nas leituras do {@link DelphiRecordReader}
+     */
+    public Field add(String name, int offset, FieldType type) {
+        if (name == null) {
+            throw new IllegalArgumentException("name cannot be null");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("type cannot be null");
+        }
+        if (offset < 0 || offset > recordSize - type.getSize()) {
+            throw new IllegalArgumentException("field " + name + " at offset " + offset + " does not fit in a record of " + recordSize + " bytes");
+        }
+        if (getField(name) != null) {
+            throw new IllegalArgumentException("duplicated field " + name);
+        }
+        Field field = new Field(this, name, offset, type);
+        fields.add(field);
+        return field;
+    }
+
+    /**
+     * @param field
+     *            Um campo
+     * 
+     * @return <code>true</code> se o campo foi inclu&iacute;do neste layout
+     */
+    public boolean contains(Field field) {
+        return field != null && field.layout == this;
+    }
+
+    /**
+     * @param name
+     *            O nome do campo
+     * 
+     * @return O campo com o nome informado ou <code>null</code> se n&atilde;o existir
+     */
+    public Field getField(String name) {
+        for (Field field : fields) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Os campos do layout, na ordem em que foram inclu&iacute;dos
+     */
+    public List<Field> getFields() {
+        return Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * @return O tamanho de cada registro em bytes
+     */
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    @Override
+    public String toString() {
+        return "DelphiRecordLayout[recordSize=" + recordSize + ", fields=" + fields + "]";
+    }
+}
@@ -0,0 +1,350 @@
+package br.com.staroski.tools.delphi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.function.LongFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import br.com.staroski.tools.delphi.DelphiRecordLayout.Field;
+import br.com.staroski.tools.delphi.DelphiRecordLayout.FieldType;
+
+/**
+ * Leitor de arquivos de registros bin&aacute;rios de tamanho fixo gravados pelo <B>Delphi</B>, descritos por um {@link DelphiRecordLayout}<BR>
+ * - Para ler um campo de um registro, utilize os m&eacute;todos como {@link #getMillis(long, Field)} ou {@link #getDouble(long, Field)}<BR>
+ * - Para ler um campo de muitos registros, utilize os m&eacute;todos {@link #readMillis(Field, long, long[], int, int)} e
+ * {@link #readDelphi(Field, long, double[], int, int)}<BR>
+ * - Para percorrer um campo de todos os registros, utilize os m&eacute;todos {@link #millis(Field)} e {@link #instants(Field)}<BR>
+ * .<BR>
+ * <B>Observa&ccedil;&otilde;es</B><BR>
+ * O arquivo &eacute; mapeado em mem&oacute;ria em janelas de at&eacute; 1 GB alinhadas ao tamanho do registro e os campos s&atilde;o decodificados
+ * diretamente da mem&oacute;ria mapeada, em little-endian, sem copiar os registros para o heap.<BR>
+ * Bytes no final do arquivo que n&atilde;o formam um registro completo s&atilde;o ignorados.<BR>
+ * As inst&acirc;ncias desta classe s&atilde;o thread-safe, portanto os streams podem ser paralelos.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+public final class DelphiRecordReader implements Closeable {
+
+    // tamanho m&aacute;ximo de cada janela mapeada
+    private static final int WINDOW_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final DelphiRecordLayout layout;
+    private final int recordSize;
+    private final long recordCount;
+    private final int recordsPerWindow;
+    private final ByteBuffer[] windows;
+
+    /**
+     * Abre o arquivo informado para leitura
+     * 
+     * @param file
+     *            O arquivo de registros
+     * @param layout
+     *            O layout dos registros
+     * 
+     * @throws IOException
+     *             Se n&atilde;o for poss&iacute;vel abrir ou mapear o arquivo
+     */
+    public DelphiRecordReader(Path file, DelphiRecordLayout layout) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file cannot be null");
+        }
+        if (layout == null) {
+            throw new IllegalArgumentException("layout cannot be null");
+        }
+        this.layout = layout;
+        this.recordSize = layout.getRecordSize();
+        this.recordsPerWindow = Math.max(1, WINDOW_SIZE / recordSize);
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            recordCount = channel.size() / recordSize;
+            final long windowBytes = (long) recordsPerWindow * recordSize;
+            windows = new ByteBuffer[(int) ((recordCount + recordsPerWindow - 1) / recordsPerWindow)];
+            for (int window = 0; window < windows.length; window++) {
+                final long start = window * windowBytes;
+                final long size = Math.min(windowBytes, recordCount * recordSize - start);
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+                windows[window] = buffer.order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * L&ecirc; um campo num&eacute;rico de ponto flutuante
+     * 
+     * @param record
+     *            O &iacute;ndice do registro, a partir de 0
+     * @param field
+     *            Um campo do tipo {@link FieldType#SINGLE SINGLE}, {@link FieldType#DOUBLE DOUBLE} ou {@link FieldType#TDATETIME TDATETIME}
+     * 
+     * @return O valor do campo
+     */
+    public double getDouble(long record, Field field) {
+        final ByteBuffer window = window(record);
+        final int position = position(record, field);
+        switch (field.getType()) {
+            case SINGLE:
+                return window.getFloat(position);
+            case DOUBLE:
+            case TDATETIME:
+                return window.getDouble(position);
+            default:
+                throw new IllegalArgumentException("field " + field.getName() + " is not a floating point field");
+        }
+    }
+
+    /**
+     * L&ecirc; um campo <code>TDateTime</code> como um {@link Instant}, veja {@link JavaAndDelphiTimes#delphiToInstant(double)}
+     * 
+     * @param record
+     *            O &iacute;ndice do registro, a partir de 0
+     * @param field
+     *            Um campo do tipo {@link FieldType#TDATETIME TDATETIME}
+     * 
+     * @return O valor do campo
+     */
+    public Instant getInstant(long record, Field field) {
+        return JavaAndDelphiTimes.delphiToInstant(getDelphi(record, field));
+    }
+
+    /**
+     * L&ecirc; um campo num&eacute;rico inteiro
+     * 
+     * @param record
+     *            O &iacute;ndice do registro, a partir de 0
+     * @param field
+     *            Um campo de tipo inteiro, os tipos sem sinal s&atilde;o convertidos para valores positivos
+     * 
+     * @return O valor do campo
+     */
+    public long getLong(long record, Field field) {
+        final ByteBuffer window = window(record);
+        final int position = position(record, field);
+        switch (field.getType()) {
+            case BYTE:
+                return window.get(position) & 0xFF;
+            case SHORTINT:
+                return window.get(position);
+            case WORD:
+                return window.getShort(position) & 0xFFFF;
+            case SMALLINT:
+                return window.getShort(position);
+            case CARDINAL:
+                return window.getInt(position) & 0xFFFFFFFFL;
+            case INTEGER:
+                return window.getInt(position);
+            case INT64:
+                return window.getLong(position);
+            default:
+                throw new IllegalArgumentException("field " + field.getName() + " is not an integer field");
+        }
+    }
+
+    /**
+     * @return O layout dos registros
+     */
+    public DelphiRecordLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * L&ecirc; um campo <code>TDateTime</code> como a quantidade de milissegundos desde 01/01/1970, veja
+     * {@link JavaAndDelphiTimes#delphiToJava(double)}
+     * 
+     * @param record
+     *            O &iacute;ndice do registro, a partir de 0
+     * @param field
+     *            Um campo do tipo {@link FieldType#TDATETIME TDATETIME}
+     * 
+     * @return O valor do campo
+     */
+    public long getMillis(long record, Field field) {
+        return JavaAndDelphiTimes.delphiToJava(getDelphi(record, field));
+    }
+
+    /**
+     * @return A quantidade de registros completos do arquivo
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Percorre um campo <code>TDateTime</code> de todos os registros como {@link Instant instantes}
+     * 
+     * @param field
+     *            Um campo do tipo {@link FieldType#TDATETIME TDATETIME}
+     * 
+     * @return O stream sequencial, que pode ser tornado paralelo, dos valores do campo na ordem dos registros
+     */
+    public Stream<Instant> instants(final Field field) {
+        checkDateTime(field);
+        return LongStream.range(0, recordCount).mapToObj(new LongFunction<Instant>() {
+
+            @Override
+            public Instant apply(long record) {
+                return getInstant(record, field);
+            }
+        });
+    }
+
+    /**
+     * Percorre um campo <code>TDateTime</code> de todos os registros como quantidades de milissegundos desde 01/01/1970
+     * 
+     * @param field
+     *            Um campo do tipo {@link FieldType#TDATETIME TDATETIME}
+     * 
+     * @return O stream sequencial, que pode ser tornado paralelo, dos valores do campo na ordem dos registros
+     */
+    public LongStream millis(final Field field) {
+        checkDateTime(field);
+        return LongStream.range(0, recordCount).map(new LongUnaryOperator() {
+
+            @Override
+            public long applyAsLong(long record) {
+                return getMillis(record, field);
+            }
+        });
+    }
+
+    /**
+     * L&ecirc; um campo <code>TDateTime</code> de registros consecutivos sem convert&ecirc;-lo, por exemplo para convers&otilde;es em lote pelo
+     * {@link JavaAndDelphiTimes}
+     * 
+     * @param field
+     *            Um campo do tipo {@link FieldType#TDATETIME TDATETIME}
+     * @param firstRecord
+     *            O &iacute;ndice do primeiro registro a ser lido
+     * @param target
+     *            O array onde os valores ser&atilde;o gravados
+     * @param offset
+     *            A posi&ccedil;&atilde;o do primeiro valor no array
+     * @param length
+     *            A quantidade m&aacute;xima de registros a serem lidos
+     * 
+     * @return A quantidade de registros lidos, menor que a solicitada somente no final do arquivo
+     */
+    public int readDelphi(Field field, long firstRecord, double[] target, int offset, int length) {
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        final int count = checkBatch(field, firstRecord, target.length, offset, length);
+        long record = firstRecord;
+        int index = offset;
+        final int end = offset + count;
+        while (index < end) {
+            // percorre os registros de cada janela com um &iacute;ndice absoluto
+            final ByteBuffer window = windows[(int) (record / recordsPerWindow)];
+            final int first = (int) (record % recordsPerWindow);
+            final int last = index + Math.min(end - index, recordsPerWindow - first);
+            record += last - index;
+            for (int position = first * recordSize + field.getOffset(); index < last; index++, position += recordSize) {
+                target[index] = window.getDouble(position);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * L&ecirc; um campo <code>TDateTime</code> de registros consecutivos como quantidades de milissegundos desde 01/01/1970
+     * 
+     * @param field
+     *            Um campo do tipo {@link FieldType#TDATETIME TDATETIME}
+     * @param firstRecord
+     *            O &iacute;ndice do primeiro registro a ser lido
+     * @param target
+     *            O array onde os valores ser&atilde;o gravados
+     * @param offset
+     *            A posi&ccedil;&atilde;o do primeiro valor no array
+     * @param length
+     *            A quantidade m&aacute;xima de registros a serem lidos
+     * 
+     * @return A quantidade de registros lidos, menor que a solicitada somente no final do arquivo
+     */
+    public int readMillis(Field field, long firstRecord, long[] target, int offset, int length) {
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        final int count = checkBatch(field, firstRecord, target.length, offset, length);
+        long record = firstRecord;
+        int index = offset;
+        final int end = offset + count;
+        while (index < end) {
+            // percorre os registros de cada janela com um &iacute;ndice absoluto
+            final ByteBuffer window = windows[(int) (record / recordsPerWindow)];
+            final int first = (int) (record % recordsPerWindow);
+            final int last = index + Math.min(end - index, recordsPerWindow - first);
+            record += last - index;
+            for (int position = first * recordSize + field.getOffset(); index < last; index++, position += recordSize) {
+                target[index] = JavaAndDelphiTimes.delphiToJava(window.getDouble(position));
+            }
+        }
+        return count;
+    }
+
+    // valida o campo e o intervalo uma &uacute;nica vez por lote, retornando a quantidade de registros a serem lidos
+    private int checkBatch(Field field, long firstRecord, int arrayLength, int offset, int length) {
+        checkDateTime(field);
+        checkField(field);
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IllegalArgumentException("invalid range: offset " + offset + ", length " + length + ", array length " + arrayLength);
+        }
+        if (firstRecord < 0 || firstRecord > recordCount) {
+            throw new IndexOutOfBoundsException("record " + firstRecord + " out of bounds [0.." + recordCount + "]");
+        }
+        return (int) Math.min(length, recordCount - firstRecord);
+    }
+
+    private void checkDateTime(Field field) {
+        if (field == null) {
+            throw new IllegalArgumentException("field cannot be null");
+        }
+        if (field.getType() != FieldType.TDATETIME) {
+            throw new IllegalArgumentException("field " + field.getName() + " is not a TDateTime field");
+        }
+    }
+
+    private void checkField(Field field) {
+        if (field == null) {
+            throw new IllegalArgumentException("field cannot be null");
+        }
+        if (!layout.contains(field)) {
+            throw new IllegalArgumentException("field " + field.getName() + " does not belong to this layout");
+        }
+    }
+
+    private double getDelphi(long record, Field field) {
+        checkDateTime(field);
+        return window(record).getDouble(position(record, field));
+    }
+
+    private int position(long record, Field field) {
+        checkField(field);
+        return (int) (record % recordsPerWindow) * recordSize + field.getOffset();
+    }
+
+    private ByteBuffer window(long record) {
+        if (record < 0 || record >= recordCount) {
+            throw new IndexOutOfBoundsException("record " + record + " out of bounds [0.." + recordCount + ")");
+        }
+        return windows[(int) (record / recordsPerWindow)];
+    }
+}
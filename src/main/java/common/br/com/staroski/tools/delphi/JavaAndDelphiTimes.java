@@ -1,12 +1,112 @@
 package br.com.staroski.tools.delphi;
 
+import java.nio.BufferOverflowException;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Classe para convers&otilde;es de datas entre o <B>Java</B> e o <B>Delphi</B>
+ * Classe para convers&otilde;es de datas entre o <B>Java</B> e o <B>Delphi</B><BR>
+ * - Para converter um &uacute;nico valor, utilize os m&eacute;todos {@link #delphiToJava(double)}, {@link #delphiToEpoch(double, TimeUnit)},
+ * {@link #delphiToInstant(double)}, {@link #delphiToLocalDateTime(double)} e seus inversos<BR>
+ * - Para converter muitos valores, utilize os m&eacute;todos que recebem arrays ou buffers<BR>
+ * .<BR>
+ * <B>Observa&ccedil;&otilde;es</B><BR>
+ * No <B>Delphi</B> o instante &eacute; um <B>double</B> ( <code>TDateTime</code> ) cuja <B>parte inteira</B> corresponde a <B>quantidade de dias</B>
+ * que se passaram <B>desde 30/12/1899</B> e a <B>parte fracion&aacute;ria</B> &eacute; uma <B>fra&ccedil;&atilde;o das 24 horas de um dia</B>.<BR>
+ * Para datas anteriores a 30/12/1899 o valor &eacute; negativo, mas a parte fracion&aacute;ria continua sendo a hora <B>a partir da meia-noite</B>
+ * do dia, por exemplo <code>-1.25</code> corresponde a 29/12/1899 06:00 e n&atilde;o a 28/12/1899 18:00. Todos os m&eacute;todos desta classe
+ * respeitam esta regra.<BR>
+ * O <code>TDateTime</code> n&atilde;o possui fuso hor&aacute;rio, os m&eacute;todos que n&atilde;o recebem um {@link ZoneId} consideram que o
+ * instante do <B>Delphi</B> est&aacute; em UTC e os que recebem convertem entre a hora local do fuso e o instante, utilizando tabelas de
+ * deslocamento pr&eacute;-calculadas por fuso e a {@link OffsetPolicy pol&iacute;tica} informada para as horas locais que n&atilde;o existem ou
+ * que se repetem nas transi&ccedil;&otilde;es do hor&aacute;rio de ver&atilde;o.<BR>
+ * As convers&otilde;es em lote com pelo menos {@link #PARALLEL_THRESHOLD} valores s&atilde;o divididas entre as threads do
+ * {@link ForkJoinPool#commonPool() pool comum}.
  * 
  * @author Ricardo Artur Staroski
  */
 public final class JavaAndDelphiTimes {
 
+    /**
+     * Tarefa que converte um intervalo de valores, dividindo-o enquanto for maior que o {@link #PARALLEL_THRESHOLD}
+     */
+    private static final class ConversionTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final double[] delphi;
+        private final int delphiOffset;
+        private final long[] epoch;
+        private final int epochOffset;
+        private final DoubleBuffer delphiBuffer;
+        private final LongBuffer epochBuffer;
+        private final boolean toDelphi;
+        private final long unitsPerDay;
+        private final ZoneOffsetTable zone;
+        private final OffsetPolicy policy;
+        private final int start;
+        private final int end;
+
+        ConversionTask(double[] delphi, int delphiOffset, long[] epoch, int epochOffset, DoubleBuffer delphiBuffer, LongBuffer epochBuffer,
+                       boolean toDelphi, long unitsPerDay, ZoneOffsetTable zone, OffsetPolicy policy, int start, int end) {
+            this.delphi = delphi;
+            this.delphiOffset = delphiOffset;
+            this.epoch = epoch;
+            this.epochOffset = epochOffset;
+            this.delphiBuffer = delphiBuffer;
+            this.epochBuffer = epochBuffer;
+            this.toDelphi = toDelphi;
+            this.unitsPerDay = unitsPerDay;
+            this.zone = zone;
+            this.policy = policy;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > PARALLEL_THRESHOLD) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new ConversionTask(delphi, delphiOffset, epoch, epochOffset, delphiBuffer, epochBuffer, toDelphi, unitsPerDay, zone, policy,
+                                             start, middle),
+                          new ConversionTask(delphi, delphiOffset, epoch, epochOffset, delphiBuffer, epochBuffer, toDelphi, unitsPerDay, zone, policy,
+                                             middle, end));
+                return;
+            }
+            if (zone != null) {
+                if (toDelphi) {
+                    toDelphi(epoch, epochOffset + start, delphi, delphiOffset + start, end - start, zone);
+                } else {
+                    toEpoch(delphi, delphiOffset + start, epoch, epochOffset + start, end - start, zone, policy);
+                }
+            } else if (delphi != null) {
+                if (toDelphi) {
+                    toDelphi(epoch, epochOffset + start, delphi, delphiOffset + start, end - start, unitsPerDay);
+                } else {
+                    toEpoch(delphi, delphiOffset + start, epoch, epochOffset + start, end - start, unitsPerDay);
+                }
+            } else {
+                if (toDelphi) {
+                    toDelphi(epochBuffer, delphiBuffer, start, end - start, unitsPerDay);
+                } else {
+                    toEpoch(delphiBuffer, epochBuffer, start, end - start, unitsPerDay);
+                }
+            }
+        }
+    }
+
+    /**
+     * Quantidade m&iacute;nima de valores para que uma convers&atilde;o em lote seja executada em paralelo
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
     /**
      * Diferen&ccedil;a em dias entre a "data inicial" do Java (01/01/1970) e a "data inicial" do Delphi (30/12/1899), o que coresponde a 25569 dias
      * 
@@ -26,8 +126,141 @@ public final class JavaAndDelphiTimes {
      */
     private static final int MILLIS_PER_DAY = 86400000;
 
+    private static final int SECONDS_PER_DAY = 86400;
+
+    private static final int NANOS_PER_MILLI = 1000000;
+
     /**
-     * Converte um instante de tempo do formato do <B>Delphi</B> para o formato do <B>Java</B><BR>
+     * Converte um instante de tempo do formato do <B>Delphi</B> para a quantidade de unidades de tempo que se passaram desde 01/01/1970<BR>
+     * A parte fracion&aacute;ria &eacute; arredondada para a unidade de tempo mais pr&oacute;xima.
+     * 
+     * @param delphiDays
+     *            O instante no formato do <B>Delphi</B>
+     * @param unit
+     *            A unidade de tempo desejada, por exemplo {@link TimeUnit#MICROSECONDS} ou {@link TimeUnit#NANOSECONDS}
+     * 
+     * @return A quantidade de unidades de tempo desde 01/01/1970
+     * 
+     * @throws ArithmeticException
+     *             Se o resultado n&atilde;o couber em um <code>long</code>, o que acontece em nanossegundos para datas fora do intervalo de 1677 a 2262
+     */
+    public static long delphiToEpoch(final double delphiDays, final TimeUnit unit) {
+        return toEpoch(delphiDays, unitsPerDay(unit));
+    }
+
+    /**
+     * Converte os valores de um intervalo do array de origem, no formato do <B>Delphi</B>, para a quantidade de unidades de tempo desde 01/01/1970,
+     * veja {@link #delphiToEpoch(double, TimeUnit)}
+     * 
+     * @param source
+     *            O array com os instantes no formato do <B>Delphi</B>
+     * @param sourceOffset
+     *            A posi&ccedil;&atilde;o do primeiro valor no array de origem
+     * @param target
+     *            O array onde os valores convertidos ser&atilde;o gravados
+     * @param targetOffset
+     *            A posi&ccedil;&atilde;o do primeiro valor no array de destino
+     * @param length
+     *            A quantidade de valores a serem convertidos
+     * @param unit
+     *            A unidade de tempo desejada
+     */
+    public static void delphiToEpoch(double[] source, int sourceOffset, long[] target, int targetOffset, int length, TimeUnit unit) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        checkRange(source.length, sourceOffset, length);
+        checkRange(target.length, targetOffset, length);
+        final long unitsPerDay = unitsPerDay(unit);
+        if (length < PARALLEL_THRESHOLD) {
+            toEpoch(source, sourceOffset, target, targetOffset, length, unitsPerDay);
+        } else {
+            ForkJoinPool.commonPool().invoke(new ConversionTask(source, sourceOffset, target, targetOffset, null, null, false, unitsPerDay, null, null, 0, length));
+        }
+    }
+
+    /**
+     * Converte os valores restantes do buffer de origem, no formato do <B>Delphi</B>, para a quantidade de unidades de tempo desde 01/01/1970, veja
+     * {@link #delphiToEpoch(double, TimeUnit)}<BR>
+     * As posi&ccedil;&otilde;es dos dois buffers s&atilde;o avan&ccedil;adas pela quantidade de valores convertidos.
+     * 
+     * @param source
+     *            O buffer com os instantes no formato do <B>Delphi</B>
+     * @param target
+     *            O buffer onde os valores convertidos ser&atilde;o gravados
+     * @param unit
+     *            A unidade de tempo desejada
+     * 
+     * @throws BufferOverflowException
+     *             Se o buffer de destino n&atilde;o tiver espa&ccedil;o para todos os valores restantes do buffer de origem
+     */
+    public static void delphiToEpoch(DoubleBuffer source, LongBuffer target, TimeUnit unit) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        final int length = source.remaining();
+        if (target.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        final long unitsPerDay = unitsPerDay(unit);
+        final int sourcePosition = source.position();
+        final int targetPosition = target.position();
+        if (source.hasArray() && target.hasArray() && !target.isReadOnly()) {
+            delphiToEpoch(source.array(), source.arrayOffset() + sourcePosition, target.array(), target.arrayOffset() + targetPosition, length, unit);
+        } else {
+            final DoubleBuffer delphi = slice(source, sourcePosition, length);
+            final LongBuffer epoch = slice(target, targetPosition, length);
+            if (length < PARALLEL_THRESHOLD) {
+                toEpoch(delphi, epoch, 0, length, unitsPerDay);
+            } else {
+                ForkJoinPool.commonPool().invoke(new ConversionTask(null, 0, null, 0, delphi, epoch, false, unitsPerDay, null, null, 0, length));
+            }
+        }
+        source.position(sourcePosition + length);
+        target.position(targetPosition + length);
+    }
+
+    /**
+     * Converte um instante de tempo do formato do <B>Delphi</B> para um {@link Instant}, considerando que o instante do <B>Delphi</B> est&aacute; em
+     * UTC<BR>
+     * O resultado &eacute; arredondado para o milissegundo mais pr&oacute;ximo, que &eacute; a precis&atilde;o do <code>TDateTime</code>, para
+     * precis&otilde;es maiores utilize {@link #delphiToEpoch(double, TimeUnit)}.
+     * 
+     * @param delphiDays
+     *            O instante no formato do <B>Delphi</B>
+     * 
+     * @return O {@link Instant} correspondente
+     */
+    public static Instant delphiToInstant(final double delphiDays) {
+        final long millis = toEpoch(delphiDays, MILLIS_PER_DAY);
+        return Instant.ofEpochSecond(Math.floorDiv(millis, 1000L), (int) Math.floorMod(millis, 1000L) * NANOS_PER_MILLI);
+    }
+
+    /**
+     * Converte um instante de tempo do formato do <B>Delphi</B>, na hora local do fuso informado, para um {@link Instant}, veja
+     * {@link #delphiToJava(double, ZoneId, OffsetPolicy)}
+     * 
+     * @param delphiDays
+     *            O instante no formato do <B>Delphi</B>, na hora local do fuso
+     * @param zone
+     *            O fuso hor&aacute;rio
+     * @param policy
+     *            A pol&iacute;tica para horas locais que n&atilde;o existem ou que se repetem no fuso
+     * 
+     * @return O {@link Instant} correspondente
+     */
+    public static Instant delphiToInstant(final double delphiDays, final ZoneId zone, final OffsetPolicy policy) {
+        return Instant.ofEpochMilli(delphiToJava(delphiDays, zone, policy));
+    }
+
+    /**
+     * Converte um instante de tempo do formato do <B>Delphi</B> para a quantidade de milissegundos que se passaram desde 01/01/1970<BR>
      * <BR>
      * - No <B>Delphi</B> o instante &eacute; um <B>double</B> cuja <B>parte inteira</B> corresponde a <B>quantidade de dias</B> que se passaram <B>desde
      * 30/12/1899</B> e a <B>parte fracion&aacute;ria</B> &eacute; uma <B>fra&ccedil;&atilde;o das 24 horas de um dia</B><BR>
@@ -35,7 +268,205 @@ public final class JavaAndDelphiTimes {
      * - No <B>Java</B> o instante &eacute; um <B>long</B> que corresponde a <B>quantidade de milisegundos</B> que passaram <B>desde 01/01/1970</B>
      */
     public static long delphiToJava(final double delphiDays) {
-        return Math.round((delphiDays - DAYS_DIFERENCE) * MILLIS_PER_DAY);
+        return toEpoch(delphiDays, MILLIS_PER_DAY);
+    }
+
+    /**
+     * Converte um instante de tempo do formato do <B>Delphi</B>, na hora local do fuso informado, para a quantidade de milissegundos que se passaram
+     * desde 01/01/1970
+     * 
+     * @param delphiDays
+     *            O instante no formato do <B>Delphi</B>, na hora local do fuso
+     * @param zone
+     *            O fuso hor&aacute;rio
+     * @param policy
+     *            A pol&iacute;tica para horas locais que n&atilde;o existem ou que se repetem no fuso
+     * 
+     * @return A quantidade de milissegundos desde 01/01/1970
+     * 
+     * @throws java.time.DateTimeException
+     *             Se a hora local n&atilde;o existir ou se repetir no fuso e a pol&iacute;tica for {@link OffsetPolicy#STRICT STRICT}
+     */
+    public static long delphiToJava(final double delphiDays, final ZoneId zone, final OffsetPolicy policy) {
+        return toEpoch(delphiDays, ZoneOffsetTable.of(zone), checkPolicy(policy));
+    }
+
+    /**
+     * Converte os valores de um intervalo do array de origem, no formato do <B>Delphi</B> e na hora local do fuso informado, para quantidades de
+     * milissegundos desde 01/01/1970, veja {@link #delphiToJava(double, ZoneId, OffsetPolicy)}
+     * 
+     * @param source
+     *            O array com os instantes no formato do <B>Delphi</B>, na hora local do fuso
+     * @param sourceOffset
+     *            A posi&ccedil;&atilde;o do primeiro valor no array de origem
+     * @param target
+     *            O array onde os valores convertidos ser&atilde;o gravados
+     * @param targetOffset
+     *            A posi&ccedil;&atilde;o do primeiro valor no array de destino
+     * @param length
+     *            A quantidade de valores a serem convertidos
+     * @param zone
+     *            O fuso hor&aacute;rio
+     * @param policy
+     *            A pol&iacute;tica para horas locais que n&atilde;o existem ou que se repetem no fuso
+     */
+    public static void delphiToJava(double[] source, int sourceOffset, long[] target, int targetOffset, int length, ZoneId zone, OffsetPolicy policy) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        checkRange(source.length, sourceOffset, length);
+        checkRange(target.length, targetOffset, length);
+        final ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+        checkPolicy(policy);
+        if (length < PARALLEL_THRESHOLD) {
+            toEpoch(source, sourceOffset, target, targetOffset, length, table, policy);
+        } else {
+            ForkJoinPool.commonPool().invoke(new ConversionTask(source, sourceOffset, target, targetOffset, null, null, false, MILLIS_PER_DAY, table, policy, 0,
+                                                                length));
+        }
+    }
+
+    /**
+     * Converte um instante de tempo do formato do <B>Delphi</B> para um {@link LocalDateTime}, sem considerar fuso hor&aacute;rio, assim como o
+     * <code>TDateTime</code><BR>
+     * O resultado &eacute; arredondado para o milissegundo mais pr&oacute;ximo, que &eacute; a precis&atilde;o do <code>TDateTime</code>.
+     * 
+     * @param delphiDays
+     *            O instante no formato do <B>Delphi</B>
+     * 
+     * @return O {@link LocalDateTime} correspondente
+     */
+    public static LocalDateTime delphiToLocalDateTime(final double delphiDays) {
+        final long millis = toEpoch(delphiDays, MILLIS_PER_DAY);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L), (int) Math.floorMod(millis, 1000L) * NANOS_PER_MILLI, ZoneOffset.UTC);
+    }
+
+    /**
+     * Converte uma quantidade de unidades de tempo que se passaram desde 01/01/1970 para o formato do <B>Delphi</B>
+     * 
+     * @param epoch
+     *            A quantidade de unidades de tempo desde 01/01/1970
+     * @param unit
+     *            A unidade de tempo do valor informado
+     * 
+     * @return O instante no formato do <B>Delphi</B>
+     */
+    public static double epochToDelphi(final long epoch, final TimeUnit unit) {
+        return fromEpoch(epoch, unitsPerDay(unit));
+    }
+
+    /**
+     * Converte os valores de um intervalo do array de origem, em unidades de tempo desde 01/01/1970, para o formato do <B>Delphi</B>, veja
+     * {@link #epochToDelphi(long, TimeUnit)}
+     * 
+     * @param source
+     *            O array com as quantidades de unidades de tempo desde 01/01/1970
+     * @param sourceOffset
+     *            A posi&ccedil;&atilde;o do primeiro valor no array de origem
+     * @param target
+     *            O array onde os instantes no formato do <B>Delphi</B> ser&atilde;o gravados
+     * @param targetOffset
+     *            A posi&ccedil;&atilde;o do primeiro valor no array de destino
+     * @param length
+     *            A quantidade de valores a serem convertidos
+     * @param unit
+     *            A unidade de tempo dos valores de origem
+     */
+    public static void epochToDelphi(long[] source, int sourceOffset, double[] target, int targetOffset, int length, TimeUnit unit) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        checkRange(source.length, sourceOffset, length);
+        checkRange(target.length, targetOffset, length);
+        final long unitsPerDay = unitsPerDay(unit);
+        if (length < PARALLEL_THRESHOLD) {
+            toDelphi(source, sourceOffset, target, targetOffset, length, unitsPerDay);
+        } else {
+            ForkJoinPool.commonPool().invoke(new ConversionTask(target, targetOffset, source, sourceOffset, null, null, true, unitsPerDay, null, null, 0, length));
+        }
+    }
+
+    /**
+     * Converte os valores restantes do buffer de origem, em unidades de tempo desde 01/01/1970, para o formato do <B>Delphi</B>, veja
+     * {@link #epochToDelphi(long, TimeUnit)}<BR>
+     * As posi&ccedil;&otilde;es dos dois buffers s&atilde;o avan&ccedil;adas pela quantidade de valores convertidos.
+     * 
+     * @param source
+     *            O buffer com as quantidades de unidades de tempo desde 01/01/1970
+     * @param target
+     *            O buffer onde os instantes no formato do <B>Delphi</B> ser&atilde;o gravados
+     * @param unit
+     *            A unidade de tempo dos valores de origem
+     * 
+     * @throws BufferOverflowException
+     *             Se o buffer de destino n&atilde;o tiver espa&ccedil;o para todos os valores restantes do buffer de origem
+     */
+    public static void epochToDelphi(LongBuffer source, DoubleBuffer target, TimeUnit unit) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        final int length = source.remaining();
+        if (target.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        final long unitsPerDay = unitsPerDay(unit);
+        final int sourcePosition = source.position();
+        final int targetPosition = target.position();
+        if (source.hasArray() && target.hasArray() && !target.isReadOnly()) {
+            epochToDelphi(source.array(), source.arrayOffset() + sourcePosition, target.array(), target.arrayOffset() + targetPosition, length, unit);
+        } else {
+            final LongBuffer epoch = slice(source, sourcePosition, length);
+            final DoubleBuffer delphi = slice(target, targetPosition, length);
+            if (length < PARALLEL_THRESHOLD) {
+                toDelphi(epoch, delphi, 0, length, unitsPerDay);
+            } else {
+                ForkJoinPool.commonPool().invoke(new ConversionTask(null, 0, null, 0, delphi, epoch, true, unitsPerDay, null, null, 0, length));
+            }
+        }
+        source.position(sourcePosition + length);
+        target.position(targetPosition + length);
+    }
+
+    /**
+     * Converte um {@link Instant} para o formato do <B>Delphi</B>, em UTC
+     * 
+     * @param instant
+     *            O instante
+     * 
+     * @return O instante no formato do <B>Delphi</B>
+     */
+    public static double instantToDelphi(final Instant instant) {
+        if (instant == null) {
+            throw new IllegalArgumentException("instant cannot be null");
+        }
+        return fromEpochSecond(instant.getEpochSecond(), instant.getNano());
+    }
+
+    /**
+     * Converte um {@link Instant} para o formato do <B>Delphi</B>, na hora local do fuso informado
+     * 
+     * @param instant
+     *            O instante
+     * @param zone
+     *            O fuso hor&aacute;rio
+     * 
+     * @return O instante no formato do <B>Delphi</B>, na hora local do fuso
+     */
+    public static double instantToDelphi(final Instant instant, final ZoneId zone) {
+        if (instant == null) {
+            throw new IllegalArgumentException("instant cannot be null");
+        }
+        final long epochSecond = instant.getEpochSecond();
+        return fromEpochSecond(epochSecond + ZoneOffsetTable.of(zone).offset(epochSecond), instant.getNano());
     }
 
     /**
@@ -47,7 +478,187 @@ public final class JavaAndDelphiTimes {
      * 30/12/1899</B> e a <B>parte fracion&aacute;ria</B> &eacute; uma <B>fra&ccedil;&atilde;o das 24 horas de um dia</B>
      */
     public static double javaToDelphi(final long javaMillis) {
-        return (javaMillis / (double) MILLIS_PER_DAY) + DAYS_DIFERENCE;
+        return fromEpoch(javaMillis, MILLIS_PER_DAY);
+    }
+
+    /**
+     * Converte uma quantidade de milissegundos que se passaram desde 01/01/1970 para o formato do <B>Delphi</B>, na hora local do fuso informado
+     * 
+     * @param javaMillis
+     *            A quantidade de milissegundos desde 01/01/1970
+     * @param zone
+     *            O fuso hor&aacute;rio
+     * 
+     * @return O instante no formato do <B>Delphi</B>, na hora local do fuso
+     */
+    public static double javaToDelphi(final long javaMillis, final ZoneId zone) {
+        return fromEpoch(javaMillis, ZoneOffsetTable.of(zone));
+    }
+
+    /**
+     * Converte os valores de um intervalo do array de origem, em milissegundos desde 01/01/1970, para o formato do <B>Delphi</B> na hora local do
+     * fuso informado, veja {@link #javaToDelphi(long, ZoneId)}
+     * 
+     * @param source
+     *            O array com as quantidades de milissegundos desde 01/01/1970
+     * @param sourceOffset
+     *            A posi&ccedil;&atilde;o do primeiro valor no array de origem
+     * @param target
+     *            O array onde os instantes no formato do <B>Delphi</B> ser&atilde;o gravados
+     * @param targetOffset
+     *            A posi&ccedil;&atilde;o do primeiro valor no array de destino
+     * @param length
+     *            A quantidade de valores a serem convertidos
+     * @param zone
+     *            O fuso hor&aacute;rio
+     */
+    public static void javaToDelphi(long[] source, int sourceOffset, double[] target, int targetOffset, int length, ZoneId zone) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        checkRange(source.length, sourceOffset, length);
+        checkRange(target.length, targetOffset, length);
+        final ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+        if (length < PARALLEL_THRESHOLD) {
+            toDelphi(source, sourceOffset, target, targetOffset, length, table);
+        } else {
+            ForkJoinPool.commonPool().invoke(new ConversionTask(target, targetOffset, source, sourceOffset, null, null, true, MILLIS_PER_DAY, table, null, 0,
+                                                                length));
+        }
+    }
+
+    /**
+     * Converte um {@link LocalDateTime} para o formato do <B>Delphi</B>, sem considerar fuso hor&aacute;rio
+     * 
+     * @param dateTime
+     *            A data e hora
+     * 
+     * @return O instante no formato do <B>Delphi</B>
+     */
+    public static double localDateTimeToDelphi(final LocalDateTime dateTime) {
+        if (dateTime == null) {
+            throw new IllegalArgumentException("dateTime cannot be null");
+        }
+        return fromEpochSecond(dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano());
+    }
+
+    private static OffsetPolicy checkPolicy(OffsetPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy cannot be null");
+        }
+        return policy;
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IllegalArgumentException("invalid range: offset " + offset + ", length " + length + ", array length " + arrayLength);
+        }
+    }
+
+    private static DoubleBuffer slice(DoubleBuffer buffer, int position, int length) {
+        DoubleBuffer slice = buffer.duplicate();
+        slice.limit(position + length);
+        slice.position(position);
+        return slice.slice();
+    }
+
+    private static LongBuffer slice(LongBuffer buffer, int position, int length) {
+        LongBuffer slice = buffer.duplicate();
+        slice.limit(position + length);
+        slice.position(position);
+        return slice.slice();
+    }
+
+    /**
+     * Monta o valor do <B>Delphi</B> a partir do dia e da fra&ccedil;&atilde;o do dia<BR>
+     * Para dias anteriores a 30/12/1899 a fra&ccedil;&atilde;o &eacute; subtra&iacute;da, pois o sinal do valor vale para a parte inteira e para a
+     * parte fracion&aacute;ria.
+     */
+    private static double compose(long epochDay, double fraction) {
+        final long delphiDay = epochDay + DAYS_DIFERENCE;
+        return delphiDay < 0 ? delphiDay - fraction : delphiDay + fraction;
+    }
+
+    private static double fromEpoch(long epoch, long unitsPerDay) {
+        return compose(Math.floorDiv(epoch, unitsPerDay), Math.floorMod(epoch, unitsPerDay) / (double) unitsPerDay);
+    }
+
+    // hora local do fuso, a partir do deslocamento em vigor no instante
+    private static double fromEpoch(long millis, ZoneOffsetTable zone) {
+        return fromEpoch(millis + zone.offset(Math.floorDiv(millis, 1000L)) * 1000L, MILLIS_PER_DAY);
+    }
+
+    private static double fromEpochSecond(long epochSecond, int nano) {
+        final double secondOfDay = Math.floorMod(epochSecond, (long) SECONDS_PER_DAY) + nano / 1e9;
+        return compose(Math.floorDiv(epochSecond, (long) SECONDS_PER_DAY), secondOfDay / SECONDS_PER_DAY);
+    }
+
+    private static void toDelphi(long[] source, int sourceOffset, double[] target, int targetOffset, int length, long unitsPerDay) {
+        for (int index = 0; index < length; index++) {
+            target[targetOffset + index] = fromEpoch(source[sourceOffset + index], unitsPerDay);
+        }
+    }
+
+    private static void toDelphi(long[] source, int sourceOffset, double[] target, int targetOffset, int length, ZoneOffsetTable zone) {
+        for (int index = 0; index < length; index++) {
+            target[targetOffset + index] = fromEpoch(source[sourceOffset + index], zone);
+        }
+    }
+
+    // acessa os buffers somente por posi&ccedil;&otilde;es absolutas, portanto pode ser executado por v&aacute;rias threads ao mesmo tempo
+    private static void toDelphi(LongBuffer source, DoubleBuffer target, int start, int length, long unitsPerDay) {
+        for (int index = start, end = start + length; index < end; index++) {
+            target.put(index, fromEpoch(source.get(index), unitsPerDay));
+        }
+    }
+
+    /**
+     * Separa o valor do <B>Delphi</B> em dia, a parte inteira truncada, e fra&ccedil;&atilde;o do dia, a parte fracion&aacute;ria sem sinal, e
+     * converte para unidades de tempo desde 01/01/1970
+     */
+    private static long toEpoch(double delphiDays, long unitsPerDay) {
+        if (Double.isNaN(delphiDays) || Double.isInfinite(delphiDays)) {
+            throw new IllegalArgumentException("invalid Delphi date: " + delphiDays);
+        }
+        final long delphiDay = (long) delphiDays;
+        final double fraction = Math.abs(delphiDays - delphiDay);
+        final long epochDay = delphiDay - DAYS_DIFERENCE;
+        return Math.addExact(Math.multiplyExact(epochDay, unitsPerDay), Math.round(fraction * unitsPerDay));
+    }
+
+    // instante da hora local do fuso, resolvendo lacunas e sobreposi&ccedil;&otilde;es pela pol&iacute;tica
+    private static long toEpoch(double delphiDays, ZoneOffsetTable zone, OffsetPolicy policy) {
+        final long local = toEpoch(delphiDays, MILLIS_PER_DAY);
+        return local - zone.localOffset(Math.floorDiv(local, 1000L), policy) * 1000L;
+    }
+
+    private static void toEpoch(double[] source, int sourceOffset, long[] target, int targetOffset, int length, ZoneOffsetTable zone, OffsetPolicy policy) {
+        for (int index = 0; index < length; index++) {
+            target[targetOffset + index] = toEpoch(source[sourceOffset + index], zone, policy);
+        }
+    }
+
+    private static void toEpoch(double[] source, int sourceOffset, long[] target, int targetOffset, int length, long unitsPerDay) {
+        for (int index = 0; index < length; index++) {
+            target[targetOffset + index] = toEpoch(source[sourceOffset + index], unitsPerDay);
+        }
+    }
+
+    // acessa os buffers somente por posi&ccedil;&otilde;es absolutas, portanto pode ser executado por v&aacute;rias threads ao mesmo tempo
+    private static void toEpoch(DoubleBuffer source, LongBuffer target, int start, int length, long unitsPerDay) {
+        for (int index = start, end = start + length; index < end; index++) {
+            target.put(index, toEpoch(source.get(index), unitsPerDay));
+        }
+    }
+
+    private static long unitsPerDay(TimeUnit unit) {
+        if (unit == null) {
+            throw new IllegalArgumentException("unit cannot be null");
+        }
+        return unit.convert(1, TimeUnit.DAYS);
     }
 
     // classe utilitria no-instancivel
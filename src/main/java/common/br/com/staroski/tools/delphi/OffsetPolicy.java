@@ -0,0 +1,34 @@
+package br.com.staroski.tools.delphi;
+
+/**
+ * Pol&iacute;tica para resolver datas e horas locais que n&atilde;o correspondem a exatamente um instante, por causa das transi&ccedil;&otilde;es de
+ * fuso hor&aacute;rio como o in&iacute;cio e o fim do hor&aacute;rio de ver&atilde;o<BR>
+ * - Na <B>lacuna</B> ( gap ) a hora local n&atilde;o existe, por exemplo quando o rel&oacute;gio &eacute; adiantado de 00:00 para 01:00<BR>
+ * - Na <B>sobreposi&ccedil;&atilde;o</B> ( overlap ) a hora local existe duas vezes, por exemplo quando o rel&oacute;gio &eacute; atrasado de 00:00
+ * para 23:00<BR>
+ * .<BR>
+ * Veja {@link JavaAndDelphiTimes#delphiToJava(double, java.time.ZoneId, OffsetPolicy)}
+ * 
+ * @author Ricardo Artur Staroski
+ */
+public enum OffsetPolicy {
+
+    /**
+     * Utiliza o deslocamento em vigor antes da transi&ccedil;&atilde;o<BR>
+     * Na sobreposi&ccedil;&atilde;o resulta no primeiro dos dois instantes e na lacuna a hora local &eacute; adiantada pela dura&ccedil;&atilde;o da
+     * lacuna, assim como em {@link java.time.ZonedDateTime#of(java.time.LocalDateTime, java.time.ZoneId)}.
+     */
+    EARLIER_OFFSET,
+
+    /**
+     * Utiliza o deslocamento em vigor depois da transi&ccedil;&atilde;o<BR>
+     * Na sobreposi&ccedil;&atilde;o resulta no segundo dos dois instantes e na lacuna a hora local &eacute; atrasada pela dura&ccedil;&atilde;o da
+     * lacuna.
+     */
+    LATER_OFFSET,
+
+    /**
+     * Lan&ccedil;a uma {@link java.time.DateTimeException} para horas locais na lacuna ou na sobreposi&ccedil;&atilde;o
+     */
+    STRICT;
+}
@@ -0,0 +1,182 @@
+package br.com.staroski.tools.delphi;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Tabela com as transi&ccedil;&otilde;es de deslocamento de um fuso hor&aacute;rio entre 1900 e 2100, pr&eacute;-calculadas a partir das
+ * {@link ZoneRules regras do fuso} para que cada convers&atilde;o custe somente uma busca bin&aacute;ria<BR>
+ * <B>Observa&ccedil;&otilde;es</B><BR>
+ * As tabelas s&atilde;o criadas uma &uacute;nica vez por fuso e mantidas em cache, fora do intervalo da tabela as convers&otilde;es consultam as
+ * regras do fuso diretamente.<BR>
+ * As inst&acirc;ncias desta classe s&atilde;o imut&aacute;veis e thread-safe.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+final class ZoneOffsetTable {
+
+    // 01/01/1900 e 01/01/2100 em segundos desde 01/01/1970
+    private static final long START = -2208988800L;
+    private static final long END = 4102444800L;
+
+    // as transi&ccedil;&otilde;es s&atilde;o carregadas com um dia de margem, que &eacute; maior que qualquer deslocamento
+    private static final long MARGIN = 86400;
+
+    private static final ConcurrentMap<ZoneId, ZoneOffsetTable> CACHE = new ConcurrentHashMap<>();
+
+    private static final Function<ZoneId, ZoneOffsetTable> FACTORY = new Function<ZoneId, ZoneOffsetTable>() {
+
+        @Override
+        public ZoneOffsetTable apply(ZoneId zone) {
+            return new ZoneOffsetTable(zone);
+        }
+    };
+
+    /**
+     * @param zone
+     *            O fuso hor&aacute;rio
+     * 
+     * @return A tabela do fuso informado
+     */
+    static ZoneOffsetTable of(ZoneId zone) {
+        if (zone == null) {
+            throw new IllegalArgumentException("zone cannot be null");
+        }
+        return CACHE.computeIfAbsent(zone, FACTORY);
+    }
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final boolean fixed;
+
+    // instantes das transi&ccedil;&otilde;es, em segundos desde 01/01/1970
+    private final long[] transitions;
+
+    // in&iacute;cio, em hora local, da lacuna ou sobreposi&ccedil;&atilde;o de cada transi&ccedil;&atilde;o
+    private final long[] localStarts;
+
+    // deslocamentos em segundos, offsets[i] est&aacute; em vigor antes da transi&ccedil;&atilde;o i e offsets[i + 1] depois dela
+    private final int[] offsets;
+
+    private ZoneOffsetTable(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.fixed = rules.isFixedOffset();
+        final List<ZoneOffsetTransition> list = new ArrayList<>();
+        if (!fixed) {
+            Instant cursor = Instant.ofEpochSecond(START - MARGIN);
+            ZoneOffsetTransition transition;
+            while ((transition = rules.nextTransition(cursor)) != null && transition.toEpochSecond() < END + MARGIN) {
+                list.add(transition);
+                cursor = transition.getInstant();
+            }
+        }
+        final int count = list.size();
+        transitions = new long[count];
+        localStarts = new long[count];
+        offsets = new int[count + 1];
+        offsets[0] = count > 0 ? list.get(0).getOffsetBefore().getTotalSeconds() : rules.getOffset(Instant.ofEpochSecond(START)).getTotalSeconds();
+        for (int index = 0; index < count; index++) {
+            final ZoneOffsetTransition transition = list.get(index);
+            final int before = transition.getOffsetBefore().getTotalSeconds();
+            final int after = transition.getOffsetAfter().getTotalSeconds();
+            transitions[index] = transition.toEpochSecond();
+            localStarts[index] = transitions[index] + Math.min(before, after);
+            offsets[index + 1] = after;
+        }
+    }
+
+    /**
+     * @param epochSecond
+     *            Um instante, em segundos desde 01/01/1970
+     * 
+     * @return O deslocamento em segundos em vigor no instante informado
+     */
+    int offset(long epochSecond) {
+        if (fixed) {
+            return offsets[0];
+        }
+        if (epochSecond < START - MARGIN || epochSecond >= END + MARGIN) {
+            return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        }
+        return offsets[upperBound(transitions, epochSecond)];
+    }
+
+    /**
+     * @param localSecond
+     *            Uma data e hora local, em segundos desde 01/01/1970
+     * @param policy
+     *            A pol&iacute;tica para horas locais na lacuna ou na sobreposi&ccedil;&atilde;o de uma transi&ccedil;&atilde;o
+     * 
+     * @return O deslocamento em segundos a ser subtra&iacute;do da hora local para obter o instante
+     * 
+     * @throws DateTimeException
+     *             Se a hora local estiver na lacuna ou na sobreposi&ccedil;&atilde;o e a pol&iacute;tica for {@link OffsetPolicy#STRICT STRICT}
+     */
+    int localOffset(long localSecond, OffsetPolicy policy) {
+        if (fixed) {
+            return offsets[0];
+        }
+        if (localSecond < START || localSecond >= END) {
+            return fallbackOffset(localSecond, policy);
+        }
+        final int count = upperBound(localStarts, localSecond);
+        if (count == 0) {
+            return offsets[0];
+        }
+        final int index = count - 1;
+        final int before = offsets[index];
+        final int after = offsets[index + 1];
+        if (localSecond < transitions[index] + Math.max(before, after)) {
+            return resolve(localSecond, before, after, policy);
+        }
+        return after;
+    }
+
+    private int fallbackOffset(long localSecond, OffsetPolicy policy) {
+        final LocalDateTime dateTime = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+        final List<ZoneOffset> valid = rules.getValidOffsets(dateTime);
+        if (valid.size() == 1) {
+            return valid.get(0).getTotalSeconds();
+        }
+        final ZoneOffsetTransition transition = rules.getTransition(dateTime);
+        return resolve(localSecond, transition.getOffsetBefore().getTotalSeconds(), transition.getOffsetAfter().getTotalSeconds(), policy);
+    }
+
+    private int resolve(long localSecond, int before, int after, OffsetPolicy policy) {
+        switch (policy) {
+            case EARLIER_OFFSET:
+                return before;
+            case LATER_OFFSET:
+                return after;
+            default:
+                throw new DateTimeException(LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC) + " is " + (after > before ? "in a gap" : "ambiguous")
+                                            + " in time zone " + zone);
+        }
+    }
+
+    // quantidade de elementos menores ou iguais ao valor informado
+    private static int upperBound(long[] values, long value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
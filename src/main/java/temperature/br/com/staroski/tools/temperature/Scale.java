@@ -0,0 +1,60 @@
+package br.com.staroski.tools.temperature;
+
+import java.math.BigDecimal;
+
+/**
+ * Escalas de temperatura suportadas pelo {@link TemperatureConverter}<BR>
+ * <B>Observa&ccedil;&otilde;es</B><BR>
+ * Cada escala &eacute; definida por uma transforma&ccedil;&atilde;o afim a partir da escala Celsius: <code>valor = celsius * fator + deslocamento</code>,
+ * onde o fator &eacute; uma fra&ccedil;&atilde;o e o deslocamento &eacute; um decimal exato, de forma que as convers&otilde;es entre quaisquer duas
+ * escalas possam ser calculadas sem perda de precis&atilde;o.
+ *
+ * @author Ricardo Artur Staroski
+ */
+public enum Scale {
+
+    /**
+     * Escala Celsius, veja {@link Unit.Celsius}
+     */
+    CELSIUS(1, 1, "0"),
+
+    /**
+     * Escala Farenheit: <code>F = C * 9/5 + 32</code>, veja {@link Unit.Farenheit}
+     */
+    FARENHEIT(9, 5, "32"),
+
+    /**
+     * Escala Kelvin: <code>K = C + 273.15</code>, veja {@link Unit.Kelvin}
+     */
+    KELVIN(1, 1, "273.15"),
+
+    /**
+     * Escala Rankine: <code>Ra = C * 9/5 + 491.67</code>, veja {@link Unit.Rankine}
+     */
+    RANKINE(9, 5, "491.67"),
+
+    /**
+     * Escala R&eacute;aumur: <code>R&eacute; = C * 4/5</code>, veja {@link Unit.Reaumur}
+     */
+    REAUMUR(4, 5, "0"),
+
+    /**
+     * Escala Delisle: <code>De = (100 - C) * 3/2</code>, veja {@link Unit.Delisle}
+     */
+    DELISLE(-3, 2, "150"),
+
+    /**
+     * Escala R&oslash;mer: <code>R&oslash; = C * 21/40 + 7.5</code>, veja {@link Unit.Romer}
+     */
+    ROMER(21, 40, "7.5");
+
+    final int numerator;
+    final int denominator;
+    final BigDecimal offset;
+
+    private Scale(int numerator, int denominator, String offset) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+        this.offset = new BigDecimal(offset);
+    }
+}
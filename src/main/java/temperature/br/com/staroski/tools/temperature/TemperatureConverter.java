@@ -0,0 +1,339 @@
+package br.com.staroski.tools.temperature;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.BufferOverflowException;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Classe utilit&aacute;ria para convers&atilde;o de temperaturas entre {@link Scale escalas} diretamente sobre valores primitivos, sem criar objetos
+ * por leitura<BR>
+ * - Para converter um &uacute;nico valor, utilize os m&eacute;todos como {@link #celsiusToKelvin(double)} ou {@link #convert(double, Scale, Scale)}<BR>
+ * - Para converter muitos valores, utilize os m&eacute;todos que recebem <code>double[]</code> ou {@link DoubleBuffer}<BR>
+ * .<BR>
+ * <B>Observa&ccedil;&otilde;es</B><BR>
+ * Toda convers&atilde;o entre duas escalas &eacute; da forma <code>destino = origem * fator + deslocamento</code>, com fator e deslocamento
+ * pr&eacute;-calculados para cada par de escalas a partir das {@link Scale defini&ccedil;&otilde;es das escalas}, em aritm&eacute;tica decimal exata
+ * e arredondados uma &uacute;nica vez, portanto converter diretamente entre duas escalas &eacute; mais preciso que converter passando por uma
+ * terceira.<BR>
+ * As convers&otilde;es em lote com pelo menos {@link #PARALLEL_THRESHOLD} valores s&atilde;o divididas entre as threads do
+ * {@link ForkJoinPool#commonPool() pool comum}.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+public final class TemperatureConverter {
+
+    /**
+     * Tarefa que converte um intervalo de valores, dividindo-o enquanto for maior que o {@link #PARALLEL_THRESHOLD}
+     */
+    private static final class ConversionTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final double[] source;
+        private final int sourceOffset;
+        private final double[] target;
+        private final int targetOffset;
+        private final DoubleBuffer sourceBuffer;
+        private final DoubleBuffer targetBuffer;
+        private final double factor;
+        private final double offset;
+        private final int start;
+        private final int end;
+
+        ConversionTask(double[] source, int sourceOffset, double[] target, int targetOffset, DoubleBuffer sourceBuffer, DoubleBuffer targetBuffer,
+                       double factor, double offset, int start, int end) {
+            this.source = source;
+            this.sourceOffset = sourceOffset;
+            this.target = target;
+            this.targetOffset = targetOffset;
+            this.sourceBuffer = sourceBuffer;
+            this.targetBuffer = targetBuffer;
+            this.factor = factor;
+            this.offset = offset;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > PARALLEL_THRESHOLD) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new ConversionTask(source, sourceOffset, target, targetOffset, sourceBuffer, targetBuffer, factor, offset, start, middle),
+                          new ConversionTask(source, sourceOffset, target, targetOffset, sourceBuffer, targetBuffer, factor, offset, middle, end));
+                return;
+            }
+            if (source != null) {
+                convert(source, sourceOffset + start, target, targetOffset + start, end - start, factor, offset);
+            } else {
+                convert(sourceBuffer, targetBuffer, start, start, end - start, factor, offset);
+            }
+        }
+    }
+
+    /**
+     * Quantidade m&iacute;nima de valores para que uma convers&atilde;o em lote seja executada em paralelo
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // fator e deslocamento de cada par de escalas, indexados por [origem][destino]
+    private static final double[][] FACTORS = new double[Scale.values().length][Scale.values().length];
+    private static final double[][] OFFSETS = new double[Scale.values().length][Scale.values().length];
+
+    static {
+        for (Scale from : Scale.values()) {
+            for (Scale to : Scale.values()) {
+                pair(from, to);
+            }
+        }
+    }
+
+    /**
+     * Converte uma temperatura de {@link Scale#CELSIUS Celsius} para {@link Scale#FARENHEIT Farenheit}
+     * 
+     * @param value
+     *            A temperatura em Celsius
+     * 
+     * @return A temperatura em Farenheit
+     */
+    public static double celsiusToFarenheit(double value) {
+        return convert(value, Scale.CELSIUS, Scale.FARENHEIT);
+    }
+
+    /**
+     * Converte uma temperatura de {@link Scale#CELSIUS Celsius} para {@link Scale#KELVIN Kelvin}
+     * 
+     * @param value
+     *            A temperatura em Celsius
+     * 
+     * @return A temperatura em Kelvin
+     */
+    public static double celsiusToKelvin(double value) {
+        return convert(value, Scale.CELSIUS, Scale.KELVIN);
+    }
+
+    /**
+     * Converte os valores do array informado, substituindo-os pelos valores convertidos
+     * 
+     * @param values
+     *            Os valores a serem convertidos
+     * @param from
+     *            A escala dos valores informados
+     * @param to
+     *            A escala para a qual os valores ser&atilde;o convertidos
+     */
+    public static void convert(double[] values, Scale from, Scale to) {
+        if (values == null) {
+            throw new IllegalArgumentException("values cannot be null");
+        }
+        convert(values, 0, values, 0, values.length, from, to);
+    }
+
+    /**
+     * Converte os valores de um intervalo do array de origem, gravando os valores convertidos no array de destino<BR>
+     * Os arrays de origem e destino podem ser o mesmo array, desde que os intervalos sejam id&ecirc;nticos ou n&atilde;o se sobreponham.
+     * 
+     * @param source
+     *            O array com os valores a serem convertidos
+     * @param sourceOffset
+     *            A posi&ccedil;&atilde;o do primeiro valor a ser convertido
+     * @param target
+     *            O array onde os valores convertidos ser&atilde;o gravados
+     * @param targetOffset
+     *            A posi&ccedil;&atilde;o onde o primeiro valor convertido ser&aacute; gravado
+     * @param length
+     *            A quantidade de valores a serem convertidos
+     * @param from
+     *            A escala dos valores de origem
+     * @param to
+     *            A escala para a qual os valores ser&atilde;o convertidos
+     */
+    public static void convert(double[] source, int sourceOffset, double[] target, int targetOffset, int length, Scale from, Scale to) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        checkRange(source.length, sourceOffset, length);
+        checkRange(target.length, targetOffset, length);
+        final double factor = factor(from, to);
+        final double offset = offset(from, to);
+        if (length < PARALLEL_THRESHOLD) {
+            convert(source, sourceOffset, target, targetOffset, length, factor, offset);
+        } else {
+            ForkJoinPool.commonPool().invoke(new ConversionTask(source, sourceOffset, target, targetOffset, null, null, factor, offset, 0, length));
+        }
+    }
+
+    /**
+     * Converte uma temperatura entre as escalas informadas
+     * 
+     * @param value
+     *            A temperatura a ser convertida
+     * @param from
+     *            A escala da temperatura informada
+     * @param to
+     *            A escala para a qual a temperatura ser&aacute; convertida
+     * 
+     * @return A temperatura convertida
+     */
+    public static double convert(double value, Scale from, Scale to) {
+        return value * factor(from, to) + offset(from, to);
+    }
+
+    /**
+     * Converte os valores restantes do buffer de origem, gravando os valores convertidos no buffer de destino<BR>
+     * As posi&ccedil;&otilde;es dos dois buffers s&atilde;o avan&ccedil;adas pela quantidade de valores convertidos, como no m&eacute;todo
+     * {@link DoubleBuffer#put(DoubleBuffer)}. Se os dois buffers forem o mesmo objeto, os valores s&atilde;o convertidos no pr&oacute;prio buffer.
+     * 
+     * @param source
+     *            O buffer com os valores a serem convertidos
+     * @param target
+     *            O buffer onde os valores convertidos ser&atilde;o gravados
+     * @param from
+     *            A escala dos valores de origem
+     * @param to
+     *            A escala para a qual os valores ser&atilde;o convertidos
+     * 
+     * @throws BufferOverflowException
+     *             Se o buffer de destino n&atilde;o tiver espa&ccedil;o para todos os valores restantes do buffer de origem
+     */
+    public static void convert(DoubleBuffer source, DoubleBuffer target, Scale from, Scale to) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        final int length = source.remaining();
+        if (target != source && target.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        final int sourcePosition = source.position();
+        final int targetPosition = target.position();
+        if (source.hasArray() && target.hasArray() && !target.isReadOnly()) {
+            convert(source.array(), source.arrayOffset() + sourcePosition, target.array(), target.arrayOffset() + targetPosition, length, from, to);
+        } else {
+            final double factor = factor(from, to);
+            final double offset = offset(from, to);
+            if (length < PARALLEL_THRESHOLD) {
+                convert(source, target, sourcePosition, targetPosition, length, factor, offset);
+            } else {
+                ForkJoinPool.commonPool().invoke(new ConversionTask(null, 0, null, 0, slice(source, sourcePosition, length),
+                                                                    slice(target, targetPosition, length), factor, offset, 0, length));
+            }
+        }
+        source.position(sourcePosition + length);
+        if (target != source) {
+            target.position(targetPosition + length);
+        }
+    }
+
+    /**
+     * Converte uma temperatura de {@link Scale#FARENHEIT Farenheit} para {@link Scale#CELSIUS Celsius}
+     * 
+     * @param value
+     *            A temperatura em Farenheit
+     * 
+     * @return A temperatura em Celsius
+     */
+    public static double farenheitToCelsius(double value) {
+        return convert(value, Scale.FARENHEIT, Scale.CELSIUS);
+    }
+
+    /**
+     * Converte uma temperatura de {@link Scale#FARENHEIT Farenheit} para {@link Scale#KELVIN Kelvin}
+     * 
+     * @param value
+     *            A temperatura em Farenheit
+     * 
+     * @return A temperatura em Kelvin
+     */
+    public static double farenheitToKelvin(double value) {
+        return convert(value, Scale.FARENHEIT, Scale.KELVIN);
+    }
+
+    /**
+     * Converte uma temperatura de {@link Scale#KELVIN Kelvin} para {@link Scale#CELSIUS Celsius}
+     * 
+     * @param value
+     *            A temperatura em Kelvin
+     * 
+     * @return A temperatura em Celsius
+     */
+    public static double kelvinToCelsius(double value) {
+        return convert(value, Scale.KELVIN, Scale.CELSIUS);
+    }
+
+    /**
+     * Converte uma temperatura de {@link Scale#KELVIN Kelvin} para {@link Scale#FARENHEIT Farenheit}
+     * 
+     * @param value
+     *            A temperatura em Kelvin
+     * 
+     * @return A temperatura em Farenheit
+     */
+    public static double kelvinToFarenheit(double value) {
+        return convert(value, Scale.KELVIN, Scale.FARENHEIT);
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IllegalArgumentException("invalid range: offset " + offset + ", length " + length + ", array length " + arrayLength);
+        }
+    }
+
+    private static void convert(double[] source, int sourceOffset, double[] target, int targetOffset, int length, double factor, double offset) {
+        for (int index = 0; index < length; index++) {
+            target[targetOffset + index] = source[sourceOffset + index] * factor + offset;
+        }
+    }
+
+    // acessa os buffers somente por posi&ccedil;&otilde;es absolutas, portanto pode ser executado por v&aacute;rias threads ao mesmo tempo
+    private static void convert(DoubleBuffer source, DoubleBuffer target, int sourceStart, int targetStart, int length, double factor, double offset) {
+        for (int index = 0; index < length; index++) {
+            target.put(targetStart + index, source.get(sourceStart + index) * factor + offset);
+        }
+    }
+
+    static double factor(Scale from, Scale to) {
+        if (from == null) {
+            throw new IllegalArgumentException("from cannot be null");
+        }
+        if (to == null) {
+            throw new IllegalArgumentException("to cannot be null");
+        }
+        return FACTORS[from.ordinal()][to.ordinal()];
+    }
+
+    private static double offset(Scale from, Scale to) {
+        return OFFSETS[from.ordinal()][to.ordinal()];
+    }
+
+    /**
+     * Calcula o fator e o deslocamento da convers&atilde;o entre as escalas informadas<BR>
+     * Sendo <code>k = n / d</code> o fator e <code>o</code> o deslocamento de cada escala em rela&ccedil;&atilde;o a Celsius, temos
+     * <code>destino = origem * (k<sub>destino</sub> / k<sub>origem</sub>) + (o<sub>destino</sub> - o<sub>origem</sub> * k<sub>destino</sub> /
+     * k<sub>origem</sub>)</code>, cujas fra&ccedil;&otilde;es s&atilde;o calculadas exatamente e divididas somente no final.
+     */
+    private static void pair(Scale from, Scale to) {
+        final BigDecimal numerator = BigDecimal.valueOf((long) to.numerator * from.denominator);
+        final BigDecimal denominator = BigDecimal.valueOf((long) to.denominator * from.numerator);
+        final BigDecimal offset = to.offset.multiply(denominator).subtract(from.offset.multiply(numerator));
+        FACTORS[from.ordinal()][to.ordinal()] = numerator.divide(denominator, MathContext.DECIMAL128).doubleValue();
+        OFFSETS[from.ordinal()][to.ordinal()] = offset.divide(denominator, MathContext.DECIMAL128).doubleValue();
+    }
+
+    private static DoubleBuffer slice(DoubleBuffer buffer, int position, int length) {
+        DoubleBuffer slice = buffer.duplicate();
+        slice.limit(position + length);
+        slice.position(position);
+        return slice.slice();
+    }
+
+    // classe utilit&aacute;ria n&atilde;o instanci&aacute;vel
+    private TemperatureConverter() {}
+}
@@ -0,0 +1,570 @@
+package br.com.staroski.tools.temperature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Armazenamento de s&eacute;ries temporais de temperatura em arquivo, em formato colunar compacto, somente com inclus&otilde;es no final do arquivo<BR>
+ * - Para gravar leituras, utilize o m&eacute;todo {@link #writer(Path, int)}<BR>
+ * - Para ler leituras, utilize o m&eacute;todo {@link #reader(Path)}<BR>
+ * .<BR>
+ * <B>Observa&ccedil;&otilde;es</B><BR>
+ * O arquivo &eacute; composto por um cabe&ccedil;alho seguido de segmentos, todos os valores s&atilde;o gravados em little-endian. Cada segmento
+ * cont&eacute;m leituras de uma &uacute;nica {@link Scale escala} e &eacute; composto por um cabe&ccedil;alho, com a quantidade de leituras, a
+ * escala, os menores e maiores instantes e valores, seguido da coluna de instantes ( <code>long</code> ) e da coluna de valores (
+ * <code>double</code> ).<BR>
+ * A leitura &eacute; feita atrav&eacute;s de buscas por intervalo sobre o arquivo mapeado em mem&oacute;ria, os segmentos cujos instantes ou
+ * valores est&atilde;o fora do intervalo buscado s&atilde;o ignorados sem serem lidos e os valores s&atilde;o convertidos para a escala desejada
+ * somente quando entregues ao {@link Visitor visitante}.<BR>
+ * Se a grava&ccedil;&atilde;o de um segmento for interrompida, o segmento incompleto &eacute; ignorado na leitura e descartado na pr&oacute;xima
+ * abertura para grava&ccedil;&atilde;o.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+public final class TemperatureSeries {
+
+    /**
+     * Leitor de s&eacute;ries temporais de temperatura<BR>
+     * Somente os segmentos existentes na abertura do leitor s&atilde;o vis&iacute;veis.<BR>
+     * O arquivo &eacute; mapeado uma &uacute;nica vez, na abertura, em janelas de at&eacute; 1 GB alinhadas aos segmentos, um segmento maior que isso
+     * ocupa uma janela sozinho.<BR>
+     * As inst&acirc;ncias desta classe s&atilde;o thread-safe, as buscas somente fazem leituras em posi&ccedil;&otilde;es absolutas das janelas.
+     * 
+     * @author Ricardo Artur Staroski
+     */
+    public static final class Reader implements Closeable {
+
+        // tamanho m&aacute;ximo de cada janela mapeada que cont&eacute;m mais de um segmento
+        private static final long WINDOW_SIZE = 1L << 30;
+
+        private final FileChannel channel;
+
+        // janelas mapeadas e, para cada segmento, a sua janela e a posi&ccedil;&atilde;o das suas colunas na janela
+        private ByteBuffer[] windows;
+        private int[] windowIndexes;
+        private int[] dataOffsets;
+
+        // &iacute;ndice dos segmentos, lido na abertura
+        private int segments;
+        private long[] positions = new long[16];
+        private int[] counts = new int[16];
+        private Scale[] scales = new Scale[16];
+        private boolean[] sorted = new boolean[16];
+        private long[] minTimestamps = new long[16];
+        private long[] maxTimestamps = new long[16];
+        private double[] minValues = new double[16];
+        private double[] maxValues = new double[16];
+        private long total;
+
+        private Reader(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                final long size = channel.size();
+                checkHeader(channel, size);
+                final ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                long position = FILE_HEADER_SIZE;
+                while (position + SEGMENT_HEADER_SIZE <= size) {
+                    header.clear();
+                    readFully(channel, header, position);
+                    header.flip();
+                    final int count = header.getInt();
+                    final long end = position + SEGMENT_HEADER_SIZE + (long) count * READING_SIZE;
+                    if (count <= 0 || end > size) {
+                        break; // segmento incompleto
+                    }
+                    add(position, count, header);
+                    position = end;
+                }
+                map();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        /**
+         * @return A quantidade de leituras do arquivo
+         */
+        public long getCount() {
+            return total;
+        }
+
+        /**
+         * @return A quantidade de segmentos do arquivo
+         */
+        public int getSegmentCount() {
+            return segments;
+        }
+
+        /**
+         * Percorre as leituras cujo instante est&aacute; no intervalo informado, na ordem em que foram gravadas
+         * 
+         * @param fromTimestamp
+         *            O instante inicial, inclusive
+         * @param toTimestamp
+         *            O instante final, exclusive
+         * @param scale
+         *            A escala em que os valores ser&atilde;o entregues ao visitante
+         * @param visitor
+         *            O {@link Visitor visitante} das leituras
+         * 
+         * @return A quantidade de leituras visitadas
+         * 
+         * @throws IOException
+         *             Se n&atilde;o for poss&iacute;vel ler o arquivo
+         */
+        public long scan(long fromTimestamp, long toTimestamp, Scale scale, Visitor visitor) throws IOException {
+            return scan(fromTimestamp, toTimestamp, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, scale, visitor);
+        }
+
+        /**
+         * Percorre as leituras cujo instante e valor est&atilde;o nos intervalos informados, na ordem em que foram gravadas
+         * 
+         * @param fromTimestamp
+         *            O instante inicial, inclusive
+         * @param toTimestamp
+         *            O instante final, exclusive
+         * @param minValue
+         *            O menor valor, inclusive, na escala informada
+         * @param maxValue
+         *            O maior valor, inclusive, na escala informada
+         * @param scale
+         *            A escala dos valores m&iacute;nimo e m&aacute;ximo e em que os valores ser&atilde;o entregues ao visitante
+         * @param visitor
+         *            O {@link Visitor visitante} das leituras
+         * 
+         * @return A quantidade de leituras visitadas
+         * 
+         * @throws IOException
+         *             Se n&atilde;o for poss&iacute;vel ler o arquivo
+         */
+        public long scan(long fromTimestamp, long toTimestamp, double minValue, double maxValue, Scale scale, Visitor visitor) throws IOException {
+            if (scale == null) {
+                throw new IllegalArgumentException("scale cannot be null");
+            }
+            if (visitor == null) {
+                throw new IllegalArgumentException("visitor cannot be null");
+            }
+            long visited = 0;
+            for (int segment = 0; segment < segments; segment++) {
+                if (maxTimestamps[segment] < fromTimestamp || minTimestamps[segment] >= toTimestamp) {
+                    continue;
+                }
+                final Scale segmentScale = scales[segment];
+                final double factor = TemperatureConverter.factor(segmentScale, scale);
+                final double offset = TemperatureConverter.convert(0, segmentScale, scale);
+                double segmentMin = minValues[segment] * factor + offset;
+                double segmentMax = maxValues[segment] * factor + offset;
+                if (factor < 0) { // escalas com fator negativo invertem a ordem dos valores
+                    double swap = segmentMin;
+                    segmentMin = segmentMax;
+                    segmentMax = swap;
+                }
+                if (segmentMax < minValue || segmentMin > maxValue) {
+                    continue;
+                }
+                final int count = counts[segment];
+                final ByteBuffer window = windows[windowIndexes[segment]];
+                final int timestamps = dataOffsets[segment];
+                final int values = timestamps + count * Long.BYTES;
+                int index = sorted[segment] ? firstIndex(window, timestamps, count, fromTimestamp) : 0;
+                for (; index < count; index++) {
+                    final long timestamp = window.getLong(timestamps + index * Long.BYTES);
+                    if (timestamp < fromTimestamp || timestamp >= toTimestamp) {
+                        if (sorted[segment] && timestamp >= toTimestamp) {
+                            break;
+                        }
+                        continue;
+                    }
+                    final double value = window.getDouble(values + index * Double.BYTES) * factor + offset;
+                    if (value < minValue || value > maxValue) {
+                        continue;
+                    }
+                    visited++;
+                    if (!visitor.visit(timestamp, value)) {
+                        return visited;
+                    }
+                }
+            }
+            return visited;
+        }
+
+        private void add(long position, int count, ByteBuffer header) throws IOException {
+            if (segments == positions.length) {
+                int capacity = segments * 2;
+                positions = Arrays.copyOf(positions, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+                scales = Arrays.copyOf(scales, capacity);
+                sorted = Arrays.copyOf(sorted, capacity);
+                minTimestamps = Arrays.copyOf(minTimestamps, capacity);
+                maxTimestamps = Arrays.copyOf(maxTimestamps, capacity);
+                minValues = Arrays.copyOf(minValues, capacity);
+                maxValues = Arrays.copyOf(maxValues, capacity);
+            }
+            final int tag = header.get();
+            if (tag < 0 || tag >= SCALES.length) {
+                throw new IOException("unknown scale tag " + tag + " at position " + position);
+            }
+            final int flags = header.get();
+            header.getShort(); // reservado
+            positions[segments] = position;
+            counts[segments] = count;
+            scales[segments] = SCALES[tag];
+            sorted[segments] = (flags & FLAG_SORTED) != 0;
+            minTimestamps[segments] = header.getLong();
+            maxTimestamps[segments] = header.getLong();
+            minValues[segments] = header.getDouble();
+            maxValues[segments] = header.getDouble();
+            segments++;
+            total += count;
+        }
+
+        // agrupa os segmentos consecutivos em janelas e mapeia cada janela uma &uacute;nica vez
+        private void map() throws IOException {
+            final List<ByteBuffer> mapped = new ArrayList<ByteBuffer>();
+            windowIndexes = new int[segments];
+            dataOffsets = new int[segments];
+            int first = 0;
+            while (first < segments) {
+                final long start = positions[first];
+                int last = first;
+                while (last + 1 < segments && end(last + 1) - start <= WINDOW_SIZE) {
+                    last++;
+                }
+                for (int segment = first; segment <= last; segment++) {
+                    windowIndexes[segment] = mapped.size();
+                    dataOffsets[segment] = (int) (positions[segment] - start) + SEGMENT_HEADER_SIZE;
+                }
+                mapped.add(channel.map(FileChannel.MapMode.READ_ONLY, start, end(last) - start).order(ByteOrder.LITTLE_ENDIAN));
+                first = last + 1;
+            }
+            windows = mapped.toArray(new ByteBuffer[mapped.size()]);
+        }
+
+        // fim do segmento informado no arquivo
+        private long end(int segment) {
+            return positions[segment] + SEGMENT_HEADER_SIZE + (long) counts[segment] * READING_SIZE;
+        }
+
+        // posi&ccedil;&atilde;o do primeiro instante maior ou igual ao informado, em um segmento ordenado
+        private static int firstIndex(ByteBuffer window, int timestamps, int count, long timestamp) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (window.getLong(timestamps + middle * Long.BYTES) < timestamp) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Interface para visitantes das leituras encontradas pelo {@link Reader leitor}
+     * 
+     * @author Ricardo Artur Staroski
+     */
+    public interface Visitor {
+
+        /**
+         * Visita uma leitura
+         * 
+         * @param timestamp
+         *            O instante da leitura
+         * @param value
+         *            O valor da leitura, na escala solicitada
+         * 
+         * @return <code>true</code> para continuar a busca ou <code>false</code> para interromp&ecirc;-la
+         */
+        public boolean visit(long timestamp, double value);
+    }
+
+    /**
+     * Gravador de s&eacute;ries temporais de temperatura<BR>
+     * As leituras s&atilde;o acumuladas em mem&oacute;ria e gravadas em um novo segmento quando o segmento atual fica cheio, quando a escala das
+     * leituras muda ou quando os m&eacute;todos {@link #flush()} ou {@link #close()} s&atilde;o chamados.<BR>
+     * As inst&acirc;ncias desta classe n&atilde;o s&atilde;o thread-safe.
+     * 
+     * @author Ricardo Artur Staroski
+     */
+    public static final class Writer implements Closeable {
+
+        private final FileChannel channel;
+        private final long[] timestamps;
+        private final double[] values;
+        private final ByteBuffer buffer;
+
+        private Scale scale;
+        private int count;
+        private boolean sorted;
+        private long minTimestamp;
+        private long maxTimestamp;
+        private double minValue;
+        private double maxValue;
+
+        private Writer(Path file, int segmentCapacity) throws IOException {
+            if (segmentCapacity < 1 || segmentCapacity > MAX_SEGMENT_CAPACITY) {
+                throw new IllegalArgumentException("segmentCapacity must be between 1 and " + MAX_SEGMENT_CAPACITY);
+            }
+            timestamps = new long[segmentCapacity];
+            values = new double[segmentCapacity];
+            buffer = ByteBuffer.allocate(SEGMENT_HEADER_SIZE + segmentCapacity * READING_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                final long size = channel.size();
+                if (size == 0) {
+                    buffer.clear();
+                    buffer.putInt(MAGIC).putInt(VERSION).flip();
+                    writeFully(channel, buffer, 0);
+                    channel.position(FILE_HEADER_SIZE);
+                } else {
+                    checkHeader(channel, size);
+                    channel.truncate(end(channel, size)); // descarta um segmento incompleto
+                    channel.position(channel.size());
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Inclui uma leitura
+         * 
+         * @param timestamp
+         *            O instante da leitura, por exemplo em milissegundos desde 01/01/1970
+         * @param value
+         *            O valor da leitura
+         * @param scale
+         *            A escala da leitura
+         * 
+         * @throws IOException
+         *             Se n&atilde;o for poss&iacute;vel gravar um segmento
+         */
+        public void append(long timestamp, double value, Scale scale) throws IOException {
+            if (scale == null) {
+                throw new IllegalArgumentException("scale cannot be null");
+            }
+            if (count > 0 && scale != this.scale) {
+                flush();
+            }
+            if (count == 0) {
+                this.scale = scale;
+                sorted = true;
+                minTimestamp = Long.MAX_VALUE;
+                maxTimestamp = Long.MIN_VALUE;
+                minValue = Double.POSITIVE_INFINITY;
+                maxValue = Double.NEGATIVE_INFINITY;
+            } else if (timestamp < timestamps[count - 1]) {
+                sorted = false;
+            }
+            timestamps[count] = timestamp;
+            values[count] = value;
+            count++;
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            if (value < minValue) {
+                minValue = value;
+            }
+            if (value > maxValue) {
+                maxValue = value;
+            }
+            if (count == timestamps.length) {
+                flush();
+            }
+        }
+
+        /**
+         * Inclui as leituras de um intervalo dos arrays informados
+         * 
+         * @param timestamps
+         *            Os instantes das leituras
+         * @param values
+         *            Os valores das leituras
+         * @param offset
+         *            A posi&ccedil;&atilde;o da primeira leitura nos arrays
+         * @param length
+         *            A quantidade de leituras
+         * @param scale
+         *            A escala das leituras
+         * 
+         * @throws IOException
+         *             Se n&atilde;o for poss&iacute;vel gravar um segmento
+         */
+        public void append(long[] timestamps, double[] values, int offset, int length, Scale scale) throws IOException {
+            if (timestamps == null) {
+                throw new IllegalArgumentException("timestamps cannot be null");
+            }
+            if (values == null) {
+                throw new IllegalArgumentException("values cannot be null");
+            }
+            if (offset < 0 || length < 0 || offset > timestamps.length - length || offset > values.length - length) {
+                throw new IllegalArgumentException("invalid range: offset " + offset + ", length " + length);
+            }
+            for (int index = offset, end = offset + length; index < end; index++) {
+                append(timestamps[index], values[index], scale);
+            }
+        }
+
+        /**
+         * Grava o segmento atual e fecha o arquivo
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+
+        /**
+         * Grava as leituras acumuladas em um novo segmento
+         * 
+         * @throws IOException
+         *             Se n&atilde;o for poss&iacute;vel gravar o segmento
+         */
+        public void flush() throws IOException {
+            if (count == 0) {
+                return;
+            }
+            buffer.clear();
+            buffer.putInt(count);
+            buffer.put((byte) scale.ordinal());
+            buffer.put((byte) (sorted ? FLAG_SORTED : 0));
+            buffer.putShort((short) 0);
+            buffer.putLong(minTimestamp).putLong(maxTimestamp);
+            buffer.putDouble(minValue).putDouble(maxValue);
+            buffer.asLongBuffer().put(timestamps, 0, count);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            buffer.asDoubleBuffer().put(values, 0, count);
+            buffer.position(buffer.position() + count * Double.BYTES);
+            buffer.flip();
+            final long position = channel.position();
+            writeFully(channel, buffer, position);
+            channel.position(position + buffer.limit());
+            count = 0;
+        }
+
+        // fim do &uacute;ltimo segmento completo
+        private static long end(FileChannel channel, long size) throws IOException {
+            final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            long position = FILE_HEADER_SIZE;
+            while (position + SEGMENT_HEADER_SIZE <= size) {
+                header.clear();
+                readFully(channel, header, position);
+                final int count = header.getInt(0);
+                final long end = position + SEGMENT_HEADER_SIZE + (long) count * READING_SIZE;
+                if (count <= 0 || end > size) {
+                    break;
+                }
+                position = end;
+            }
+            return Math.min(position, size);
+        }
+    }
+
+    // identifica o arquivo: "TSER" em little-endian
+    private static final int MAGIC = 0x52455354;
+    private static final int VERSION = 1;
+
+    private static final int FILE_HEADER_SIZE = 8;
+
+    // quantidade, escala, flags, reservado, instantes m&iacute;nimo e m&aacute;ximo, valores m&iacute;nimo e m&aacute;ximo
+    private static final int SEGMENT_HEADER_SIZE = 4 + 1 + 1 + 2 + 8 + 8 + 8 + 8;
+
+    private static final int READING_SIZE = Long.BYTES + Double.BYTES;
+
+    private static final int MAX_SEGMENT_CAPACITY = (Integer.MAX_VALUE - SEGMENT_HEADER_SIZE) / READING_SIZE;
+
+    private static final int FLAG_SORTED = 1;
+
+    // a escala de cada segmento &eacute; gravada pela sua posi&ccedil;&atilde;o, portanto novas escalas devem ser inclu&iacute;das no final do enum
+    private static final Scale[] SCALES = Scale.values();
+
+    /**
+     * Abre um arquivo de s&eacute;rie temporal para leitura
+     * 
+     * @param file
+     *            O arquivo
+     * 
+     * @return O {@link Reader leitor} do arquivo
+     * 
+     * @throws IOException
+     *             Se n&atilde;o for poss&iacute;vel abrir o arquivo ou se ele n&atilde;o for uma s&eacute;rie temporal
+     */
+    public static Reader reader(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file cannot be null");
+        }
+        return new Reader(file);
+    }
+
+    /**
+     * Abre um arquivo de s&eacute;rie temporal para grava&ccedil;&atilde;o, criando-o se n&atilde;o existir, as novas leituras s&atilde;o
+     * inclu&iacute;das no final do arquivo
+     * 
+     * @param file
+     *            O arquivo
+     * @param segmentCapacity
+     *            A quantidade m&aacute;xima de leituras de cada segmento
+     * 
+     * @return O {@link Writer gravador} do arquivo
+     * 
+     * @throws IOException
+     *             Se n&atilde;o for poss&iacute;vel abrir o arquivo ou se ele n&atilde;o for uma s&eacute;rie temporal
+     */
+    public static Writer writer(Path file, int segmentCapacity) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file cannot be null");
+        }
+        return new Writer(file, segmentCapacity);
+    }
+
+    private static void checkHeader(FileChannel channel, long size) throws IOException {
+        if (size < FILE_HEADER_SIZE) {
+            throw new IOException("not a temperature series file");
+        }
+        final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, 0);
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("not a temperature series file");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("unsupported temperature series version " + header.getInt(4));
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("unexpected end of file");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    // classe utilit&aacute;ria n&atilde;o instanci&aacute;vel
+    private TemperatureSeries() {}
+}
@@ -0,0 +1,220 @@
+package br.com.staroski.tools.temperature;
+
+import java.io.Serializable;
+
+/**
+ * Acumulador de estat&iacute;sticas ( quantidade, m&iacute;nimo, m&aacute;ximo, m&eacute;dia e vari&acirc;ncia ) de leituras de temperatura em
+ * qualquer {@link Scale escala}<BR>
+ * As leituras s&atilde;o informadas como valores primitivos acompanhados de sua escala e as estat&iacute;sticas podem ser obtidas em qualquer
+ * escala.<BR>
+ * <B>Observa&ccedil;&otilde;es</B><BR>
+ * As leituras s&atilde;o normalizadas em {@link Scale#KELVIN Kelvin} e acumuladas pelo algoritmo de Welford, que calcula a m&eacute;dia e a
+ * vari&acirc;ncia em uma &uacute;nica passagem, de forma numericamente est&aacute;vel e sem criar objetos por leitura.<BR>
+ * Acumuladores parciais, de threads ou parti&ccedil;&otilde;es diferentes, podem ser combinados atrav&eacute;s do m&eacute;todo
+ * {@link #merge(TemperatureStatistics)}, por exemplo:
+ * 
+ * <PRE>
+ * TemperatureStatistics statistics = readings.parallelStream().collect(TemperatureStatistics::new,
+ *                                                                      (partial, reading) -&gt; partial.add(reading, Scale.CELSIUS),
+ *                                                                      TemperatureStatistics::merge);
+ * </PRE>
+ * 
+ * As inst&acirc;ncias desta classe n&atilde;o s&atilde;o thread-safe.
+ * 
+ * @author Ricardo Artur Staroski
+ */
+public final class TemperatureStatistics implements Serializable {
+
+    private static final long serialVersionUID = 1;
+
+    // todos os valores abaixo est&atilde;o em Kelvin
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double mean;
+    private double m2; // soma dos quadrados das diferen&ccedil;as em rela&ccedil;&atilde;o &agrave; m&eacute;dia
+
+    /**
+     * Acumula os valores de um intervalo do array informado
+     * 
+     * @param values
+     *            O array com as leituras
+     * @param offset
+     *            A posi&ccedil;&atilde;o da primeira leitura
+     * @param length
+     *            A quantidade de leituras
+     * @param scale
+     *            A escala das leituras
+     */
+    public void add(double[] values, int offset, int length, Scale scale) {
+        if (values == null) {
+            throw new IllegalArgumentException("values cannot be null");
+        }
+        if (offset < 0 || length < 0 || offset > values.length - length) {
+            throw new IllegalArgumentException("invalid range: offset " + offset + ", length " + length + ", array length " + values.length);
+        }
+        final double factor = TemperatureConverter.factor(scale, Scale.KELVIN);
+        final double shift = TemperatureConverter.convert(0, scale, Scale.KELVIN);
+        for (int index = offset, end = offset + length; index < end; index++) {
+            accumulate(values[index] * factor + shift);
+        }
+    }
+
+    /**
+     * Acumula a leitura informada
+     * 
+     * @param value
+     *            A leitura
+     * @param scale
+     *            A escala da leitura
+     */
+    public void add(double value, Scale scale) {
+        accumulate(TemperatureConverter.convert(value, scale, Scale.KELVIN));
+    }
+
+    /**
+     * @return A quantidade de leituras acumuladas
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param scale
+     *            A escala desejada
+     * 
+     * @return A maior leitura na escala informada, ou {@link Double#NaN} se nenhuma leitura foi acumulada
+     */
+    public double getMax(Scale scale) {
+        return extreme(scale, true);
+    }
+
+    /**
+     * @param scale
+     *            A escala desejada
+     * 
+     * @return A m&eacute;dia das leituras na escala informada, ou {@link Double#NaN} se nenhuma leitura foi acumulada
+     */
+    public double getMean(Scale scale) {
+        return count == 0 ? Double.NaN : TemperatureConverter.convert(mean, Scale.KELVIN, scale);
+    }
+
+    /**
+     * @param scale
+     *            A escala desejada
+     * 
+     * @return A menor leitura na escala informada, ou {@link Double#NaN} se nenhuma leitura foi acumulada
+     */
+    public double getMin(Scale scale) {
+        return extreme(scale, false);
+    }
+
+    /**
+     * @param scale
+     *            A escala desejada
+     * 
+     * @return A vari&acirc;ncia amostral das leituras na escala informada, ou {@link Double#NaN} se menos de duas leituras foram acumuladas
+     */
+    public double getSampleVariance(Scale scale) {
+        return count < 2 ? Double.NaN : scaled(m2 / (count - 1), scale);
+    }
+
+    /**
+     * @param scale
+     *            A escala desejada
+     * 
+     * @return O desvio padr&atilde;o populacional das leituras na escala informada, veja {@link #getVariance(Scale)}
+     */
+    public double getStandardDeviation(Scale scale) {
+        return Math.sqrt(getVariance(scale));
+    }
+
+    /**
+     * @param scale
+     *            A escala desejada
+     * 
+     * @return A vari&acirc;ncia populacional das leituras na escala informada, ou {@link Double#NaN} se nenhuma leitura foi acumulada
+     */
+    public double getVariance(Scale scale) {
+        return count == 0 ? Double.NaN : scaled(m2 / count, scale);
+    }
+
+    /**
+     * Combina neste acumulador as leituras acumuladas por outro acumulador, como se todas as leituras tivessem sido acumuladas por este
+     * 
+     * @param other
+     *            O outro acumulador, que n&atilde;o &eacute; alterado
+     * 
+     * @return Este acumulador
+     */
+    public TemperatureStatistics merge(TemperatureStatistics other) {
+        if (other == null) {
+            throw new IllegalArgumentException("other cannot be null");
+        }
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            min = other.min;
+            max = other.max;
+            mean = other.mean;
+            m2 = other.m2;
+            return this;
+        }
+        // combina&ccedil;&atilde;o de Chan et al.
+        final long total = count + other.count;
+        final double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * Descarta todas as leituras acumuladas
+     */
+    public void reset() {
+        count = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        mean = 0;
+        m2 = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TemperatureStatistics[count=" + count + ", min=" + getMin(Scale.KELVIN) + ", max=" + getMax(Scale.KELVIN) + ", mean=" + getMean(Scale.KELVIN)
+               + ", variance=" + getVariance(Scale.KELVIN) + ", scale=" + Scale.KELVIN + "]";
+    }
+
+    private void accumulate(double kelvin) {
+        count++;
+        final double delta = kelvin - mean;
+        mean += delta / count;
+        m2 += delta * (kelvin - mean);
+        if (kelvin < min) {
+            min = kelvin;
+        }
+        if (kelvin > max) {
+            max = kelvin;
+        }
+    }
+
+    // nas escalas com fator negativo, como Delisle, o maior valor em Kelvin &eacute; o menor valor na escala
+    private double extreme(Scale scale, boolean maximum) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        final boolean inverted = TemperatureConverter.factor(Scale.KELVIN, scale) < 0;
+        return TemperatureConverter.convert(maximum != inverted ? max : min, Scale.KELVIN, scale);
+    }
+
+    // a vari&acirc;ncia n&atilde;o depende do deslocamento da escala, somente do quadrado do fator
+    private double scaled(double variance, Scale scale) {
+        final double factor = TemperatureConverter.factor(Scale.KELVIN, scale);
+        return variance * factor * factor;
+    }
+}
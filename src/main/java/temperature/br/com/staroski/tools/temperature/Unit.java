@@ -2,11 +2,17 @@ package br.com.staroski.tools.temperature;
 
 /**
  * Abstra&ccedil;&atilde;o para unidades de temperatura, disponibiliza m&eacute;todos para obter inst&acirc;ncias das unidades {@link Celsius},
- * {@link Farenheit} e {@link Kelvin}<BR>
+ * {@link Farenheit}, {@link Kelvin}, {@link Rankine}, {@link Reaumur}, {@link Delisle} e {@link Romer}<BR>
  * - Para obter inst&acirc;ncias de {@link Celsius}, utilize o m&eacute;todo {@link #celsius(double)}<BR>
  * - Para obter inst&acirc;ncias de {@link Farenheit}, utilize o m&eacute;todo {@link #farenheit(double)}<BR>
  * - Para obter inst&acirc;ncias de {@link Kelvin}, utilize o m&eacute;todo {@link #kelvin(double)}<BR>
- * .
+ * - Para obter inst&acirc;ncias de {@link Rankine}, utilize o m&eacute;todo {@link #rankine(double)}<BR>
+ * - Para obter inst&acirc;ncias de {@link Reaumur}, utilize o m&eacute;todo {@link #reaumur(double)}<BR>
+ * - Para obter inst&acirc;ncias de {@link Delisle}, utilize o m&eacute;todo {@link #delisle(double)}<BR>
+ * - Para obter inst&acirc;ncias de {@link Romer}, utilize o m&eacute;todo {@link #romer(double)}<BR>
+ * - Para obter inst&acirc;ncias de qualquer {@link Scale escala}, utilize o m&eacute;todo {@link #of(double, Scale)}<BR>
+ * .<BR>
+ * As convers&otilde;es s&atilde;o feitas pelo {@link TemperatureConverter}, que converte diretamente entre quaisquer duas escalas.
  * 
  * @author Ricardo Artur Staroski
  */
@@ -25,76 +31,157 @@ public abstract class Unit extends Number {
             super(value);
         }
 
+        @Override
+        public Scale scale() {
+            return Scale.CELSIUS;
+        }
+
         @Override
         public Celsius toCelsius() {
             return this;
         }
+    }
+
+    /**
+     * Unidade de temperatura Farenheit
+     * 
+     * @author Ricardo Artur Staroski
+     */
+    public static class Farenheit extends Unit {
+
+        private static final long serialVersionUID = 1;
+
+        private Farenheit(double value) {
+            super(value);
+        }
+
+        @Override
+        public Scale scale() {
+            return Scale.FARENHEIT;
+        }
 
         @Override
         public Farenheit toFarenheit() {
-            return farenheit(value * 1.8 + 32);
+            return this;
+        }
+    }
+
+    /**
+     * Unidade de temperatura Kelvin
+     * 
+     * @author Ricardo Artur Staroski
+     */
+    public static class Kelvin extends Unit {
+
+        private static final long serialVersionUID = 1;
+
+        private Kelvin(double value) {
+            super(value);
+        }
+
+        @Override
+        public Scale scale() {
+            return Scale.KELVIN;
         }
 
         @Override
         public Kelvin toKelvin() {
-            return kelvin(value + 273.15);
+            return this;
         }
     }
 
     /**
-     * Unidade de temperatura Farenheit
+     * Unidade de temperatura Rankine
      * 
      * @author Ricardo Artur Staroski
      */
-    public static class Farenheit extends Unit {
+    public static class Rankine extends Unit {
 
         private static final long serialVersionUID = 1;
 
-        private Farenheit(double value) {
+        private Rankine(double value) {
             super(value);
         }
 
         @Override
-        public Celsius toCelsius() {
-            return celsius((value - 32) / 1.8);
+        public Scale scale() {
+            return Scale.RANKINE;
         }
 
         @Override
-        public Farenheit toFarenheit() {
+        public Rankine toRankine() {
             return this;
         }
+    }
+
+    /**
+     * Unidade de temperatura R&eacute;aumur
+     * 
+     * @author Ricardo Artur Staroski
+     */
+    public static class Reaumur extends Unit {
+
+        private static final long serialVersionUID = 1;
+
+        private Reaumur(double value) {
+            super(value);
+        }
 
         @Override
-        public Kelvin toKelvin() {
-            return kelvin((value + 459.67) * (5 / 9.0));
+        public Scale scale() {
+            return Scale.REAUMUR;
+        }
+
+        @Override
+        public Reaumur toReaumur() {
+            return this;
         }
     }
 
     /**
-     * Unidade de temperatura Kelvin
+     * Unidade de temperatura Delisle
      * 
      * @author Ricardo Artur Staroski
      */
-    public static class Kelvin extends Unit {
+    public static class Delisle extends Unit {
 
         private static final long serialVersionUID = 1;
 
-        private Kelvin(double value) {
+        private Delisle(double value) {
             super(value);
         }
 
         @Override
-        public Celsius toCelsius() {
-            return celsius(value - 273.15);
+        public Scale scale() {
+            return Scale.DELISLE;
         }
 
         @Override
-        public Farenheit toFarenheit() {
-            return farenheit((value / (5 / 9.0)) - 459.67);
+        public Delisle toDelisle() {
+            return this;
+        }
+    }
+
+    /**
+     * Unidade de temperatura R&oslash;mer
+     * 
+     * @author Ricardo Artur Staroski
+     */
+    public static class Romer extends Unit {
+
+        private static final long serialVersionUID = 1;
+
+        private Romer(double value) {
+            super(value);
         }
 
         @Override
-        public Kelvin toKelvin() {
+        public Scale scale() {
+            return Scale.ROMER;
+        }
+
+        @Override
+        public Romer toRomer() {
             return this;
         }
     }
@@ -137,6 +224,88 @@ public abstract class Unit extends Number {
         return new Kelvin(value);
     }
 
+    /**
+     * Obt&eacute;m uma inst&acirc;ncia da unidade da escala informada com o valor informado
+     * 
+     * @param value
+     *            O valor da unidade
+     * @param scale
+     *            A escala da unidade
+     * 
+     * @return A inst&acirc;ncia da unidade correspondente &agrave; escala informada
+     */
+    public static Unit of(double value, Scale scale) {
+        if (scale == null) {
+            throw new IllegalArgumentException("scale cannot be null");
+        }
+        switch (scale) {
+            case CELSIUS:
+                return celsius(value);
+            case FARENHEIT:
+                return farenheit(value);
+            case KELVIN:
+                return kelvin(value);
+            case RANKINE:
+                return rankine(value);
+            case REAUMUR:
+                return reaumur(value);
+            case DELISLE:
+                return delisle(value);
+            case ROMER:
+                return romer(value);
+            default:
+                throw new IllegalArgumentException("unsupported scale: " + scale);
+        }
+    }
+
+    /**
+     * Obt&eacute;m uma inst&acirc;ncia da unidade {@link Rankine} com o valor informado
+     * 
+     * @param value
+     *            O valor da unidade
+     * 
+     * @return A inst&acirc;ncia de {@link Rankine}
+     */
+    public static Rankine rankine(double value) {
+        return new Rankine(value);
+    }
+
+    /**
+     * Obt&eacute;m uma inst&acirc;ncia da unidade {@link Reaumur} com o valor informado
+     * 
+     * @param value
+     *            O valor da unidade
+     * 
+     * @return A inst&acirc;ncia de {@link Reaumur}
+     */
+    public static Reaumur reaumur(double value) {
+        return new Reaumur(value);
+    }
+
+    /**
+     * Obt&eacute;m uma inst&acirc;ncia da unidade {@link Delisle} com o valor informado
+     * 
+     * @param value
+     *            O valor da unidade
+     * 
+     * @return A inst&acirc;ncia de {@link Delisle}
+     */
+    public static Delisle delisle(double value) {
+        return new Delisle(value);
+    }
+
+    /**
+     * Obt&eacute;m uma inst&acirc;ncia da unidade {@link Romer} com o valor informado
+     * 
+     * @param value
+     *            O valor da unidade
+     * 
+     * @return A inst&acirc;ncia de {@link Romer}
+     */
+    public static Romer romer(double value) {
+        return new Romer(value);
+    }
+
     /**
      * O valor encapsulado por esta unidade de temperatura
      */
@@ -166,26 +335,88 @@ public abstract class Unit extends Number {
         return (long) value;
     }
 
+    /**
+     * @return A {@link Scale escala} desta unidade de temperatura
+     */
+    public abstract Scale scale();
+
+    /**
+     * Converte esta unidade de temperatura para a escala informada
+     * 
+     * @param scale
+     *            A escala desejada
+     * 
+     * @return O equivalente desta unidade de temperatura na escala informada
+     */
+    public Unit to(Scale scale) {
+        if (scale == scale()) {
+            return this;
+        }
+        return of(TemperatureConverter.convert(value, scale(), scale), scale);
+    }
+
     /**
      * Converte esta unidade de temperatura para {@link Celsius}
      * 
      * @return O equivalente desta unidade de temperatura em {@link Celsius}
      */
-    public abstract Celsius toCelsius();
+    public Celsius toCelsius() {
+        return celsius(TemperatureConverter.convert(value, scale(), Scale.CELSIUS));
+    }
 
     /**
      * Converte esta unidade de temperatura para {@link Farenheit}
      * 
      * @return O equivalente desta unidade de temperatura em {@link Farenheit}
      */
-    public abstract Farenheit toFarenheit();
+    public Farenheit toFarenheit() {
+        return farenheit(TemperatureConverter.convert(value, scale(), Scale.FARENHEIT));
+    }
 
     /**
      * Converte esta unidade de temperatura para {@link Kelvin}
      * 
      * @return O equivalente desta unidade de temperatura em {@link Kelvin}
      */
-    public abstract Kelvin toKelvin();
+    public Kelvin toKelvin() {
+        return kelvin(TemperatureConverter.convert(value, scale(), Scale.KELVIN));
+    }
+
+    /**
+     * Converte esta unidade de temperatura para {@link Rankine}
+     * 
+     * @return O equivalente desta unidade de temperatura em {@link Rankine}
+     */
+    public Rankine toRankine() {
+        return rankine(TemperatureConverter.convert(value, scale(), Scale.RANKINE));
+    }
+
+    /**
+     * Converte esta unidade de temperatura para {@link Reaumur}
+     * 
+     * @return O equivalente desta unidade de temperatura em {@link Reaumur}
+     */
+    public Reaumur toReaumur() {
+        return reaumur(TemperatureConverter.convert(value, scale(), Scale.REAUMUR));
+    }
+
+    /**
+     * Converte esta unidade de temperatura para {@link Delisle}
+     * 
+     * @return O equivalente desta unidade de temperatura em {@link Delisle}
+     */
+    public Delisle toDelisle() {
+        return delisle(TemperatureConverter.convert(value, scale(), Scale.DELISLE));
+    }
+
+    /**
+     * Converte esta unidade de temperatura para {@link Romer}
+     * 
+     * @return O equivalente desta unidade de temperatura em {@link Romer}
+     */
+    public Romer toRomer() {
+        return romer(TemperatureConverter.convert(value, scale(), Scale.ROMER));
+    }
 
     @Override
     public String toString() {